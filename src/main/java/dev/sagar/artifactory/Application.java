@@ -1,9 +1,14 @@
 package dev.sagar.artifactory;
 
+import dev.sagar.artifactory.config.ArtifactoryRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@ImportRuntimeHints(ArtifactoryRuntimeHints.class)
 public class Application {
 
   public static void main(String[] args) {
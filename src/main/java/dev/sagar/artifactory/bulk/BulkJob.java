@@ -0,0 +1,121 @@
+package dev.sagar.artifactory.bulk;
+
+import dev.sagar.artifactory.dto.BulkJobDTO;
+import dev.sagar.artifactory.job.JobStatus;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * State of one bulk job. Validated requests are spooled to {@code requests.ndjson}; results are
+ * appended to {@code results.ndjson} as they complete. Readers only ever read up to {@link
+ * #committedBytes()}, so they never observe a partially written result line.
+ */
+final class BulkJob {
+
+  static final String REQUESTS_FILE = "requests.ndjson";
+  static final String RESULTS_FILE = "results.ndjson";
+
+  private final String id;
+  private final Path directory;
+  private final int total;
+  private final Instant createdAt = Instant.now();
+  private final FileChannel results;
+  private int succeeded;
+  private int failed;
+  private long committedBytes;
+  private JobStatus status = JobStatus.QUEUED;
+  private Instant completedAt;
+
+  BulkJob(String id, Path directory, int total) throws IOException {
+    this.id = id;
+    this.directory = directory;
+    this.total = total;
+    this.results =
+        FileChannel.open(
+            directory.resolve(RESULTS_FILE),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+  }
+
+  String id() {
+    return id;
+  }
+
+  Path directory() {
+    return directory;
+  }
+
+  Path requestsFile() {
+    return directory.resolve(REQUESTS_FILE);
+  }
+
+  Path resultsFile() {
+    return directory.resolve(RESULTS_FILE);
+  }
+
+  synchronized void start() {
+    status = JobStatus.RUNNING;
+  }
+
+  synchronized void append(byte[] line, boolean success) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(line);
+    while (buffer.hasRemaining()) {
+      results.write(buffer);
+    }
+    committedBytes += line.length;
+    if (success) {
+      succeeded++;
+    } else {
+      failed++;
+    }
+    notifyAll();
+  }
+
+  synchronized long committedBytes() {
+    return committedBytes;
+  }
+
+  synchronized boolean isFinished() {
+    return status.isTerminal();
+  }
+
+  synchronized Instant completedAt() {
+    return completedAt;
+  }
+
+  /** Waits until more results are committed than {@code seenBytes}, or the job finishes. */
+  synchronized void awaitProgress(long seenBytes, long timeoutMillis) throws InterruptedException {
+    if (committedBytes == seenBytes && !status.isTerminal()) {
+      wait(timeoutMillis);
+    }
+  }
+
+  synchronized void awaitAllResults() throws InterruptedException {
+    while (succeeded + failed < total && !status.isTerminal()) {
+      wait();
+    }
+  }
+
+  synchronized void finish(JobStatus finalStatus) {
+    if (status.isTerminal()) {
+      return;
+    }
+    status = finalStatus;
+    completedAt = Instant.now();
+    try {
+      results.close();
+    } catch (IOException ignored) {
+      // results already written stay readable
+    }
+    notifyAll();
+  }
+
+  synchronized BulkJobDTO toDTO() {
+    return new BulkJobDTO(id, status.name(), total, succeeded, failed, createdAt, completedAt);
+  }
+}
@@ -0,0 +1,411 @@
+package dev.sagar.artifactory.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sagar.artifactory.config.WorkerThreads;
+import dev.sagar.artifactory.dto.BulkJobDTO;
+import dev.sagar.artifactory.dto.BulkResultDTO;
+import dev.sagar.artifactory.dto.ErrorDTO;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.exception.ConcurrencyLimitExceededException;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.exception.JobNotFoundException;
+import dev.sagar.artifactory.exception.JobQueueFullException;
+import dev.sagar.artifactory.exception.ProviderThrottledException;
+import dev.sagar.artifactory.exception.QuotaExceededException;
+import dev.sagar.artifactory.job.JobStatus;
+import dev.sagar.artifactory.service.GenerationOptions;
+import dev.sagar.artifactory.service.ImageService;
+import dev.sagar.artifactory.validator.ImageRequestValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs large NDJSON request sets. The upload is validated line by line while it is spooled to
+ * disk, and nothing is generated unless every record is valid. A coordinator then feeds the spooled
+ * records to {@link ImageService}; a semaphore shared by all bulk jobs caps how many generations
+ * are in flight, and records rejected by the concurrency limiter, the provider or a quota are
+ * retried with backoff. Results are appended to disk and streamed from there, so memory use does
+ * not depend on the size of the job.
+ */
+@Service
+public class BulkJobService {
+
+  private static final Logger log = LoggerFactory.getLogger(BulkJobService.class);
+  private static final int MAX_REPORTED_ERRORS = 10;
+  private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+  private static final long PROGRESS_WAIT_MILLIS = 1000;
+
+  private final ImageService imageService;
+  private final ImageRequestValidator validator;
+  private final Validator beanValidator;
+  private final ObjectMapper objectMapper;
+  private final BulkProperties properties;
+  private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+  private final Semaphore permits;
+  private final ExecutorService coordinators;
+  private final ExecutorService workers;
+  private final Counter succeededRecords;
+  private final Counter failedRecords;
+  private final Counter backoffs;
+
+  public BulkJobService(
+      ImageService imageService,
+      ImageRequestValidator validator,
+      Validator beanValidator,
+      ObjectMapper objectMapper,
+      BulkProperties properties,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    this.imageService = imageService;
+    this.validator = validator;
+    this.beanValidator = beanValidator;
+    this.objectMapper = objectMapper;
+    this.properties = properties;
+    this.permits = new Semaphore(properties.maxConcurrency());
+    this.coordinators = WorkerThreads.unboundedExecutor(environment, "bulk-job-");
+    this.workers = WorkerThreads.unboundedExecutor(environment, "bulk-worker-");
+    this.succeededRecords = meterRegistry.counter("image.bulk.records", "outcome", "succeeded");
+    this.failedRecords = meterRegistry.counter("image.bulk.records", "outcome", "failed");
+    this.backoffs = meterRegistry.counter("image.bulk.backoff");
+    Gauge.builder(
+            "image.bulk.inflight",
+            permits,
+            p -> properties.maxConcurrency() - p.availablePermits())
+        .register(meterRegistry);
+    Gauge.builder("image.bulk.active", this, BulkJobService::activeJobs).register(meterRegistry);
+  }
+
+  public BulkJobDTO submit(InputStream body, GenerationOptions generationOptions)
+      throws IOException {
+    purgeExpired();
+    if (activeJobs() >= properties.maxActiveJobs()) {
+      throw new JobQueueFullException("Too many bulk jobs are running, retry later");
+    }
+
+    String id = UUID.randomUUID().toString();
+    Path directory = Files.createDirectories(properties.directory().resolve(id));
+    BulkJob job;
+    try {
+      int total = spool(body, directory.resolve(BulkJob.REQUESTS_FILE));
+      job = new BulkJob(id, directory, total);
+    } catch (IOException | RuntimeException e) {
+      deleteDirectory(directory);
+      throw e;
+    }
+    jobs.put(id, job);
+    try {
+      coordinators.execute(() -> run(job, generationOptions));
+    } catch (RejectedExecutionException e) {
+      jobs.remove(id);
+      deleteDirectory(directory);
+      throw new JobQueueFullException("Bulk jobs are not accepted while shutting down");
+    }
+    return job.toDTO();
+  }
+
+  public BulkJobDTO getJob(String jobId) {
+    return find(jobId).toDTO();
+  }
+
+  /**
+   * Writes result lines to {@code out}, skipping the first {@code from} lines, and keeps following
+   * the results file until the job finishes. A client that loses the connection reconnects with
+   * the number of lines it has already received.
+   */
+  public void streamResults(String jobId, long from, OutputStream out) throws IOException {
+    BulkJob job = find(jobId);
+    try (FileChannel channel = FileChannel.open(job.resultsFile(), StandardOpenOption.READ)) {
+      ByteBuffer buffer = ByteBuffer.allocate(STREAM_BUFFER_SIZE);
+      long position = 0;
+      long skipped = 0;
+      while (true) {
+        long committed = job.committedBytes();
+        if (position < committed) {
+          buffer.clear().limit((int) Math.min(buffer.capacity(), committed - position));
+          int read = channel.read(buffer, position);
+          position += read;
+          int start = 0;
+          while (skipped < from && start < read) {
+            if (buffer.get(start++) == '\n') {
+              skipped++;
+            }
+          }
+          if (start < read) {
+            out.write(buffer.array(), start, read - start);
+            out.flush();
+          }
+          continue;
+        }
+        if (job.isFinished() && position >= job.committedBytes()) {
+          return;
+        }
+        job.awaitProgress(committed, PROGRESS_WAIT_MILLIS);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    coordinators.shutdownNow();
+    workers.shutdownNow();
+  }
+
+  private int spool(InputStream body, Path target) throws IOException {
+    int lineNumber = 0;
+    int records = 0;
+    int invalid = 0;
+    List<String> errors = new ArrayList<>();
+    StringBuilder line = new StringBuilder();
+    Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+      while (readLine(reader, line, lineNumber + 1)) {
+        lineNumber++;
+        if (line.toString().isBlank()) {
+          continue;
+        }
+        if (++records > properties.maxRecords()) {
+          throw new InvalidParameterException(
+              "Bulk request exceeds the maximum of " + properties.maxRecords() + " records");
+        }
+        String error = validate(line.toString());
+        if (error != null) {
+          invalid++;
+          if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("line " + lineNumber + ": " + error);
+          }
+          continue;
+        }
+        writer.write(Integer.toString(lineNumber));
+        writer.write('\t');
+        writer.append(line);
+        writer.newLine();
+      }
+    }
+    if (invalid > 0) {
+      throw new InvalidParameterException(
+          invalid + " invalid record(s), nothing was generated: " + String.join("; ", errors));
+    }
+    if (records == 0) {
+      throw new InvalidParameterException("Bulk request contains no records");
+    }
+    return records;
+  }
+
+  private boolean readLine(Reader reader, StringBuilder line, int lineNumber) throws IOException {
+    line.setLength(0);
+    int c;
+    while ((c = reader.read()) != -1) {
+      if (c == '\n') {
+        return true;
+      }
+      if (c == '\r') {
+        continue;
+      }
+      if (line.length() >= properties.maxLineLength()) {
+        throw new InvalidParameterException(
+            "Line " + lineNumber + " exceeds " + properties.maxLineLength() + " characters");
+      }
+      line.append((char) c);
+    }
+    return !line.isEmpty();
+  }
+
+  private String validate(String line) {
+    ImageRequestDTO request;
+    try {
+      request = objectMapper.readValue(line, ImageRequestDTO.class);
+    } catch (JsonProcessingException e) {
+      return "malformed JSON";
+    }
+    Set<ConstraintViolation<ImageRequestDTO>> violations = beanValidator.validate(request);
+    if (!violations.isEmpty()) {
+      return violations.iterator().next().getMessage();
+    }
+    try {
+      validator.validateRequest(request);
+    } catch (InvalidParameterException e) {
+      return e.getMessage();
+    }
+    return null;
+  }
+
+  private void run(BulkJob job, GenerationOptions generationOptions) {
+    job.start();
+    JobStatus finalStatus = JobStatus.SUCCEEDED;
+    try (BufferedReader reader =
+        Files.newBufferedReader(job.requestsFile(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null && !job.isFinished()) {
+        int tab = line.indexOf('\t');
+        int lineNumber = Integer.parseInt(line.substring(0, tab));
+        String json = line.substring(tab + 1);
+        permits.acquire();
+        try {
+          workers.execute(
+              () -> {
+                try {
+                  process(job, lineNumber, json, generationOptions);
+                } finally {
+                  permits.release();
+                }
+              });
+        } catch (RejectedExecutionException e) {
+          permits.release();
+          throw e;
+        }
+      }
+      job.awaitAllResults();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      finalStatus = JobStatus.FAILED;
+    } catch (IOException | RuntimeException e) {
+      log.warn("Bulk job {} stopped", job.id(), e);
+      finalStatus = JobStatus.FAILED;
+    } finally {
+      job.finish(finalStatus);
+    }
+  }
+
+  private void process(
+      BulkJob job, int lineNumber, String json, GenerationOptions generationOptions) {
+    BulkResultDTO result;
+    try {
+      ImageRequestDTO request = objectMapper.readValue(json, ImageRequestDTO.class);
+      List<String> imageUrls = generate(request, generationOptions).imageUrlList();
+      result = new BulkResultDTO(lineNumber, "succeeded", imageUrls, null);
+    } catch (InvalidParameterException e) {
+      result = failed(lineNumber, "invalid_parameter", e);
+    } catch (QuotaExceededException e) {
+      result = failed(lineNumber, "quota_exceeded", e);
+    } catch (ConcurrencyLimitExceededException | ProviderThrottledException e) {
+      result = failed(lineNumber, "provider_throttled", e);
+    } catch (Exception e) {
+      result = failed(lineNumber, "server_error", e);
+    }
+
+    boolean success = result.error() == null;
+    (success ? succeededRecords : failedRecords).increment();
+    try {
+      byte[] bytes = objectMapper.writeValueAsBytes(result);
+      byte[] line = new byte[bytes.length + 1];
+      System.arraycopy(bytes, 0, line, 0, bytes.length);
+      line[bytes.length] = '\n';
+      job.append(line, success);
+    } catch (IOException e) {
+      log.error("Failed to record result of line {} for bulk job {}", lineNumber, job.id(), e);
+      job.finish(JobStatus.FAILED);
+    }
+  }
+
+  private ImageResponseDTO generate(
+      ImageRequestDTO request, GenerationOptions generationOptions) throws InterruptedException {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return imageService.generateImages(request, generationOptions);
+      } catch (ConcurrencyLimitExceededException
+          | ProviderThrottledException
+          | QuotaExceededException e) {
+        Duration wait = backoff(attempt, e);
+        if (attempt >= properties.maxAttempts()
+            || wait.compareTo(properties.maxBackoff()) > 0) {
+          throw e;
+        }
+        backoffs.increment();
+        TimeUnit.MILLISECONDS.sleep(wait.toMillis());
+      }
+    }
+  }
+
+  private Duration backoff(int attempt, RuntimeException e) {
+    if (e instanceof QuotaExceededException quotaExceeded) {
+      return quotaExceeded.getRetryAfter();
+    }
+    long initial = properties.initialBackoff().toMillis();
+    long cap = Math.min(properties.maxBackoff().toMillis(), initial << Math.min(attempt - 1, 20));
+    return Duration.ofMillis(cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1));
+  }
+
+  private static BulkResultDTO failed(int lineNumber, String error, Exception e) {
+    return new BulkResultDTO(lineNumber, "failed", null, new ErrorDTO(error, e.getMessage()));
+  }
+
+  private BulkJob find(String jobId) {
+    BulkJob job = jobs.get(jobId);
+    if (job == null) {
+      throw new JobNotFoundException(jobId);
+    }
+    return job;
+  }
+
+  private int activeJobs() {
+    int active = 0;
+    for (BulkJob job : jobs.values()) {
+      if (!job.isFinished()) {
+        active++;
+      }
+    }
+    return active;
+  }
+
+  private void purgeExpired() {
+    Instant cutoff = Instant.now().minus(properties.retention());
+    jobs.values()
+        .removeIf(
+            job -> {
+              Instant completedAt = job.completedAt();
+              if (completedAt != null && completedAt.isBefore(cutoff)) {
+                deleteDirectory(job.directory());
+                return true;
+              }
+              return false;
+            });
+  }
+
+  private static void deleteDirectory(Path directory) {
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    } catch (IOException e) {
+      log.warn("Failed to delete bulk job directory {}", directory, e);
+    }
+  }
+}
@@ -0,0 +1,18 @@
+package dev.sagar.artifactory.bulk;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.bulk")
+public record BulkProperties(
+    @DefaultValue("data/bulk") Path directory,
+    @DefaultValue("8") int maxConcurrency,
+    @DefaultValue("4") int maxActiveJobs,
+    @DefaultValue("100000") int maxRecords,
+    @DefaultValue("65536") int maxLineLength,
+    @DefaultValue("5") int maxAttempts,
+    @DefaultValue("1s") Duration initialBackoff,
+    @DefaultValue("2m") Duration maxBackoff,
+    @DefaultValue("24h") Duration retention) {}
@@ -0,0 +1,80 @@
+package dev.sagar.artifactory.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Policy.VarExpiration;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.Optional;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ImageCache {
+
+  static final String CACHE_NAME = "image.generation";
+
+  private final boolean enabled;
+  private final Cache<RequestKey, ImageResponseDTO> cache;
+  private final VarExpiration<RequestKey, ImageResponseDTO> expiration;
+
+  public ImageCache(ImageCacheProperties properties, MeterRegistry meterRegistry) {
+    this.enabled = properties.enabled();
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfter(new WriteExpiry(properties.ttl()))
+            .recordStats()
+            .build();
+    this.expiration = cache.policy().expireVariably().orElseThrow();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+  }
+
+  public Optional<ImageResponseDTO> get(RequestKey key) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(cache.getIfPresent(key));
+  }
+
+  public void put(RequestKey key, ImageResponseDTO response) {
+    if (enabled) {
+      cache.put(key, response);
+    }
+  }
+
+  /** Stores a response that should outlive the configured TTL, such as a pre-generated one. */
+  public void put(RequestKey key, ImageResponseDTO response, Duration ttl) {
+    if (enabled) {
+      expiration.put(key, response, ttl);
+    }
+  }
+
+  long size() {
+    cache.cleanUp();
+    return cache.estimatedSize();
+  }
+
+  /** Expires entries a fixed time after they are written; reads do not extend their lifetime. */
+  private record WriteExpiry(Duration ttl) implements Expiry<RequestKey, ImageResponseDTO> {
+
+    @Override
+    public long expireAfterCreate(RequestKey key, ImageResponseDTO value, long currentTime) {
+      return ttl.toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        RequestKey key, ImageResponseDTO value, long currentTime, long currentDuration) {
+      return ttl.toNanos();
+    }
+
+    @Override
+    public long expireAfterRead(
+        RequestKey key, ImageResponseDTO value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
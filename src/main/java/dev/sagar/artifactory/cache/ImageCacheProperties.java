@@ -0,0 +1,11 @@
+package dev.sagar.artifactory.cache;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.cache")
+public record ImageCacheProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("10000") long maximumSize,
+    @DefaultValue("50m") Duration ttl) {}
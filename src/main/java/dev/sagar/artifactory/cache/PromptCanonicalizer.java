@@ -0,0 +1,24 @@
+package dev.sagar.artifactory.cache;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reduces a prompt to the set of words that carry meaning: lower-cased, stripped of punctuation and
+ * articles, de-duplicated and sorted, so that word order and formatting no longer matter.
+ */
+final class PromptCanonicalizer {
+
+  private static final Set<String> STOP_WORDS = Set.of("a", "an", "the", "and", "of");
+
+  private PromptCanonicalizer() {}
+
+  static String[] tokens(String prompt) {
+    return Arrays.stream(prompt.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+        .filter(token -> !token.isEmpty() && !STOP_WORDS.contains(token))
+        .distinct()
+        .sorted()
+        .toArray(String[]::new);
+  }
+}
@@ -0,0 +1,45 @@
+package dev.sagar.artifactory.cache;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+/**
+ * Content address of a generation request. Every field that influences the generated images is
+ * part of the key; {@code userId} is deliberately left out so identical requests from different
+ * users share one entry.
+ */
+public record RequestKey(String hash) {
+
+  private static final char SEPARATOR = '\u001f';
+
+  public static RequestKey from(ImageRequestDTO request) {
+    String canonical =
+        request.prompt().strip()
+            + SEPARATOR
+            + request.model().toLowerCase(Locale.ROOT)
+            + SEPARATOR
+            + request.width()
+            + 'x'
+            + request.height()
+            + SEPARATOR
+            + request.quality().toLowerCase(Locale.ROOT)
+            + SEPARATOR
+            + request.style().toLowerCase(Locale.ROOT)
+            + SEPARATOR
+            + request.numImages();
+    return new RequestKey(sha256(canonical));
+  }
+
+  private static String sha256(String value) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,200 @@
+package dev.sagar.artifactory.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds cached requests whose prompt is a near duplicate of a new one. Prompts are reduced to
+ * canonical word sets, summarised by a MinHash signature and banded into a fixed-size,
+ * direct-mapped slot table (locality-sensitive hashing), so a lookup probes {@value #BANDS} slots
+ * regardless of how many entries are indexed. Candidates are confirmed by exact Jaccard similarity
+ * against the configured threshold and must share model, size, quality, style and image count.
+ *
+ * <p>The slot table is lossy: a newer prompt may overwrite an older one's slot, which only costs a
+ * cache miss. Memory is bounded by {@code maxEntries}.
+ */
+@Component
+public class SimilarPromptIndex {
+
+  private static final int BANDS = 8;
+  private static final int ROWS = 4;
+  private static final long[] SEEDS = new SplittableRandom(0x5eedL).longs(BANDS * ROWS).toArray();
+  private static final int MAX_SLOTS = 1 << 30;
+
+  private final boolean enabled;
+  private final double threshold;
+  private final AtomicLongArray slots;
+  private final int mask;
+  private final Cache<Long, Entry> entries;
+  private final Counter hits;
+  private final Counter misses;
+
+  public SimilarPromptIndex(SimilarityCacheProperties properties, MeterRegistry meterRegistry) {
+    this.enabled = properties.enabled();
+    this.threshold = properties.threshold();
+    int slotCount = enabled ? slotCount(properties.maxEntries()) : 1;
+    this.slots = new AtomicLongArray(slotCount);
+    this.mask = slotCount - 1;
+    this.entries =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maxEntries())
+            .expireAfterWrite(properties.ttl())
+            .build();
+    this.hits = meterRegistry.counter("image.cache.similar", "result", "hit");
+    this.misses = meterRegistry.counter("image.cache.similar", "result", "miss");
+  }
+
+  public Optional<RequestKey> find(ImageRequestDTO request) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    long[] tokens = tokenHashes(request.prompt());
+    if (tokens.length == 0) {
+      return Optional.empty();
+    }
+    long scope = scope(request);
+    long[] bands = bands(scope, tokens);
+
+    Entry best = null;
+    double bestSimilarity = threshold;
+    for (long band : bands) {
+      long id = slots.get(slot(band));
+      if (id == 0) {
+        continue;
+      }
+      Entry entry = entries.getIfPresent(id);
+      if (entry == null || entry.scope() != scope || entry == best) {
+        continue;
+      }
+      double similarity = jaccard(tokens, entry.tokens());
+      if (similarity >= bestSimilarity) {
+        best = entry;
+        bestSimilarity = similarity;
+      }
+    }
+
+    if (best == null) {
+      misses.increment();
+      return Optional.empty();
+    }
+    hits.increment();
+    return Optional.of(best.key());
+  }
+
+  public void add(ImageRequestDTO request, RequestKey key) {
+    if (!enabled) {
+      return;
+    }
+    long[] tokens = tokenHashes(request.prompt());
+    if (tokens.length == 0) {
+      return;
+    }
+    long scope = scope(request);
+    long id = Long.parseUnsignedLong(key.hash(), 0, 16, 16) | 1L;
+    entries.put(id, new Entry(scope, tokens, key));
+    for (long band : bands(scope, tokens)) {
+      slots.set(slot(band), id);
+    }
+  }
+
+  long size() {
+    entries.cleanUp();
+    return entries.estimatedSize();
+  }
+
+  private int slot(long band) {
+    return (int) band & mask;
+  }
+
+  private static long[] tokenHashes(String prompt) {
+    return Arrays.stream(PromptCanonicalizer.tokens(prompt))
+        .mapToLong(SimilarPromptIndex::hash)
+        .sorted()
+        .distinct()
+        .toArray();
+  }
+
+  private static long[] bands(long scope, long[] tokens) {
+    long[] bands = new long[BANDS];
+    for (int band = 0; band < BANDS; band++) {
+      long hash = mix(scope + band);
+      for (int row = 0; row < ROWS; row++) {
+        long seed = SEEDS[band * ROWS + row];
+        long min = Long.MAX_VALUE;
+        for (long token : tokens) {
+          min = Math.min(min, mix(token ^ seed));
+        }
+        hash = mix(hash ^ min);
+      }
+      bands[band] = hash;
+    }
+    return bands;
+  }
+
+  private static double jaccard(long[] a, long[] b) {
+    int i = 0;
+    int j = 0;
+    int shared = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] == b[j]) {
+        shared++;
+        i++;
+        j++;
+      } else if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return (double) shared / (a.length + b.length - shared);
+  }
+
+  private static long scope(ImageRequestDTO request) {
+    return hash(
+        request.model().toLowerCase(Locale.ROOT)
+            + '|'
+            + request.width()
+            + 'x'
+            + request.height()
+            + '|'
+            + request.quality().toLowerCase(Locale.ROOT)
+            + '|'
+            + request.style().toLowerCase(Locale.ROOT)
+            + '|'
+            + request.numImages());
+  }
+
+  private static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (int i = 0; i < value.length(); i++) {
+      hash ^= value.charAt(i);
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xff51afd7ed558ccdL;
+    value ^= value >>> 33;
+    value *= 0xc4ceb9fe1a85ec53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  private static int slotCount(int maxEntries) {
+    long wanted = Math.max(2L, (long) maxEntries * BANDS);
+    return (int) Math.min(MAX_SLOTS, Long.highestOneBit(wanted - 1) << 1);
+  }
+
+  private record Entry(long scope, long[] tokens, RequestKey key) {}
+}
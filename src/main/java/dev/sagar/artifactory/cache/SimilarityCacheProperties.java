@@ -0,0 +1,12 @@
+package dev.sagar.artifactory.cache;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.cache.similarity")
+public record SimilarityCacheProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("0.8") double threshold,
+    @DefaultValue("100000") int maxEntries,
+    @DefaultValue("50m") Duration ttl) {}
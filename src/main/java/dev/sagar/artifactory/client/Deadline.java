@@ -0,0 +1,216 @@
+package dev.sagar.artifactory.client;
+
+import dev.sagar.artifactory.exception.RequestCancelledException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Deadline and cancellation state of one client request, as a {@link System#nanoTime()} instant.
+ * The deadline of the work running on the current thread is held in a thread local and is carried
+ * to executor threads with {@link #propagate}. Outbound calls made while a deadline is open use the
+ * remaining time as their timeout instead of the static read timeout, and are not retried past it.
+ *
+ * <p>Cancelling a deadline, because the client disconnected or the deadline passed, interrupts
+ * threads running {@link #cancellable} work for it, which stops queue waits and aborts provider
+ * calls. Work that other requests are waiting on, declared with {@link #share}, is left running.
+ */
+public final class Deadline {
+
+  public enum Cancellation {
+    CLIENT_DISCONNECTED("client_disconnected"),
+    DEADLINE_EXCEEDED("deadline_exceeded");
+
+    private final String tag;
+
+    Cancellation(String tag) {
+      this.tag = tag;
+    }
+
+    public String tag() {
+      return tag;
+    }
+  }
+
+  /** Request header carrying a client's timeout in milliseconds. */
+  public static final String REQUEST_TIMEOUT_HEADER = "X-Request-Timeout";
+
+  private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+  private final long deadlineNanos;
+  private final AtomicReference<Cancellation> cancellation = new AtomicReference<>();
+  private final List<Runnable> listeners = new ArrayList<>();
+  private volatile BooleanSupplier shared = () -> false;
+
+  private Deadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  public static Scope open(long deadlineNanos) {
+    return attach(new Deadline(deadlineNanos));
+  }
+
+  /** Makes {@code deadline} current on this thread until the scope is closed. */
+  public static Scope attach(Deadline deadline) {
+    Deadline previous = CURRENT.get();
+    CURRENT.set(deadline);
+    return new Scope(
+        () -> {
+          if (previous == null) {
+            CURRENT.remove();
+          } else {
+            CURRENT.set(previous);
+          }
+        });
+  }
+
+  public static Deadline current() {
+    return CURRENT.get();
+  }
+
+  public static OptionalLong remainingNanos() {
+    Deadline deadline = CURRENT.get();
+    return deadline == null ? OptionalLong.empty() : OptionalLong.of(deadline.remaining());
+  }
+
+  /** Throws if the current deadline has been cancelled or has passed. */
+  public static void check() {
+    Deadline deadline = CURRENT.get();
+    if (deadline != null) {
+      deadline.throwIfCancelled();
+    }
+  }
+
+  /**
+   * Runs {@code work} so that cancelling the current deadline interrupts this thread. Failures
+   * caused by the cancellation are reported as {@link RequestCancelledException}.
+   */
+  public static <T> T cancellable(Supplier<T> work) {
+    Deadline deadline = CURRENT.get();
+    if (deadline == null) {
+      return work.get();
+    }
+    deadline.throwIfCancelled();
+    Thread thread = Thread.currentThread();
+    Runnable interrupt =
+        () -> {
+          if (!deadline.shared.getAsBoolean()) {
+            thread.interrupt();
+          }
+        };
+    deadline.addListener(interrupt);
+    try {
+      return work.get();
+    } catch (RuntimeException e) {
+      if (deadline.isCancelled() && !(e instanceof RequestCancelledException)) {
+        throw deadline.cancelledException(e);
+      }
+      throw e;
+    } finally {
+      deadline.removeListener(interrupt);
+      if (deadline.isCancelled()) {
+        Thread.interrupted();
+      }
+    }
+  }
+
+  /** Wraps {@code work} to run as cancellable work of the current deadline on another thread. */
+  public static <T> Supplier<T> propagate(Supplier<T> work) {
+    Deadline deadline = CURRENT.get();
+    if (deadline == null) {
+      return work;
+    }
+    return () -> {
+      try (Scope ignored = attach(deadline)) {
+        return cancellable(work);
+      }
+    };
+  }
+
+  /**
+   * Declares that, while the scope is open, the current work also serves other requests whenever
+   * {@code inUse} is true. Cancelling this request then no longer interrupts it.
+   */
+  public static Scope share(BooleanSupplier inUse) {
+    Deadline deadline = CURRENT.get();
+    if (deadline == null) {
+      return new Scope(() -> {});
+    }
+    BooleanSupplier previous = deadline.shared;
+    deadline.shared = () -> inUse.getAsBoolean() || previous.getAsBoolean();
+    return new Scope(() -> deadline.shared = previous);
+  }
+
+  public long remaining() {
+    return deadlineNanos - System.nanoTime();
+  }
+
+  public long remainingMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(remaining());
+  }
+
+  public boolean isCancelled() {
+    return cancellation.get() != null;
+  }
+
+  /** Cancels the deadline; returns false if it had already been cancelled. */
+  public boolean cancel(Cancellation reason) {
+    if (!cancellation.compareAndSet(null, reason)) {
+      return false;
+    }
+    synchronized (listeners) {
+      listeners.forEach(Runnable::run);
+    }
+    return true;
+  }
+
+  public RequestCancelledException cancelledException(Throwable cause) {
+    Cancellation reason = cancellation.get();
+    return new RequestCancelledException(
+        reason == null ? Cancellation.DEADLINE_EXCEEDED.tag() : reason.tag(),
+        reason == Cancellation.CLIENT_DISCONNECTED
+            ? "Client disconnected before the request completed"
+            : "Request deadline exceeded",
+        cause);
+  }
+
+  private void throwIfCancelled() {
+    if (!isCancelled() && remaining() <= 0) {
+      cancel(Cancellation.DEADLINE_EXCEEDED);
+    }
+    if (isCancelled()) {
+      throw cancelledException(null);
+    }
+  }
+
+  private void addListener(Runnable listener) {
+    synchronized (listeners) {
+      listeners.add(listener);
+    }
+  }
+
+  // Listeners run under the same lock, so none fires after it has been removed.
+  private void removeListener(Runnable listener) {
+    synchronized (listeners) {
+      listeners.remove(listener);
+    }
+  }
+
+  public static final class Scope implements AutoCloseable {
+
+    private final Runnable onClose;
+
+    private Scope(Runnable onClose) {
+      this.onClose = onClose;
+    }
+
+    @Override
+    public void close() {
+      onClose.run();
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package dev.sagar.artifactory.client;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Opens a {@link Deadline} for each request. Clients may shorten it with an {@code
+ * X-Request-Timeout} header in milliseconds; it never exceeds {@code
+ * artifactory.client.request-budget}.
+ */
+@Component
+class DeadlineFilter extends OncePerRequestFilter {
+
+  private final long budgetNanos;
+
+  DeadlineFilter(OutboundClientProperties properties) {
+    this.budgetNanos = properties.requestBudget().toNanos();
+  }
+
+  @Override
+  protected void doFilterInternal(
+      HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    long timeoutNanos = Math.min(budgetNanos, requestedTimeoutNanos(request));
+    try (Deadline.Scope ignored = Deadline.open(System.nanoTime() + timeoutNanos)) {
+      filterChain.doFilter(request, response);
+    }
+  }
+
+  private static long requestedTimeoutNanos(HttpServletRequest request) {
+    String header = request.getHeader(Deadline.REQUEST_TIMEOUT_HEADER);
+    if (header == null) {
+      return Long.MAX_VALUE;
+    }
+    try {
+      long millis = Long.parseLong(header.trim());
+      return millis > 0 ? TimeUnit.MILLISECONDS.toNanos(millis) : Long.MAX_VALUE;
+    } catch (NumberFormatException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+}
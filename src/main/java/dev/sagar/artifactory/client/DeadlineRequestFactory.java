@@ -0,0 +1,67 @@
+package dev.sagar.artifactory.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+/**
+ * Creates JDK client requests whose timeout is the smaller of the configured read timeout and the
+ * time left on the current {@link Deadline}. Requests issued after the deadline has passed or has
+ * been cancelled fail immediately instead of occupying a connection.
+ */
+class DeadlineRequestFactory implements ClientHttpRequestFactory {
+
+  private final HttpClient httpClient;
+  private final Executor executor;
+  private final long readTimeoutNanos;
+  private final Timer remainingBudget;
+  private final Counter exceeded;
+
+  DeadlineRequestFactory(
+      HttpClient httpClient, Executor executor, Duration readTimeout, MeterRegistry meterRegistry) {
+    this.httpClient = httpClient;
+    this.executor = executor;
+    this.readTimeoutNanos = readTimeout.toNanos();
+    this.remainingBudget =
+        Timer.builder("image.client.deadline.remaining")
+            .description("Time left on the request deadline when an outbound call starts")
+            .register(meterRegistry);
+    this.exceeded =
+        Counter.builder("image.client.deadline.exceeded")
+            .description("Outbound calls not sent because the request deadline had passed")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+    Deadline deadline = Deadline.current();
+    if (deadline != null && deadline.isCancelled()) {
+      throw deadline.cancelledException(null);
+    }
+    long timeoutNanos = readTimeoutNanos;
+    OptionalLong remaining = Deadline.remainingNanos();
+    if (remaining.isPresent()) {
+      if (remaining.getAsLong() <= 0) {
+        exceeded.increment();
+        throw new HttpTimeoutException("Request deadline exceeded before calling " + uri);
+      }
+      remainingBudget.record(remaining.getAsLong(), TimeUnit.NANOSECONDS);
+      timeoutNanos = Math.min(timeoutNanos, remaining.getAsLong());
+    }
+    JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient, executor);
+    factory.setReadTimeout(Duration.ofNanos(timeoutNanos));
+    return factory.createRequest(uri, httpMethod);
+  }
+}
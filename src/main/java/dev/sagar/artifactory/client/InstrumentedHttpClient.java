@@ -0,0 +1,170 @@
+package dev.sagar.artifactory.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.ConnectException;
+import java.net.CookieHandler;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLParameters;
+
+/**
+ * Delegating {@link HttpClient} that counts responses by negotiated protocol version and transport
+ * failures by kind. The JDK client pools and multiplexes connections internally; the share of
+ * {@code HTTP_2} responses is the visible signal that requests are sharing connections.
+ */
+class InstrumentedHttpClient extends HttpClient {
+
+  private final HttpClient delegate;
+  private final MeterRegistry meterRegistry;
+  private final Counter http1;
+  private final Counter http2;
+
+  InstrumentedHttpClient(HttpClient delegate, MeterRegistry meterRegistry) {
+    this.delegate = delegate;
+    this.meterRegistry = meterRegistry;
+    this.http1 = responses(meterRegistry, Version.HTTP_1_1);
+    this.http2 = responses(meterRegistry, Version.HTTP_2);
+  }
+
+  @Override
+  public <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler)
+      throws IOException, InterruptedException {
+    try {
+      HttpResponse<T> response = delegate.send(request, handler);
+      onResponse(response);
+      return response;
+    } catch (IOException e) {
+      onError(e);
+      throw e;
+    }
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+    return instrument(delegate.sendAsync(request, handler));
+  }
+
+  @Override
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request,
+      HttpResponse.BodyHandler<T> handler,
+      HttpResponse.PushPromiseHandler<T> pushPromiseHandler) {
+    return instrument(delegate.sendAsync(request, handler, pushPromiseHandler));
+  }
+
+  private <T> CompletableFuture<HttpResponse<T>> instrument(
+      CompletableFuture<HttpResponse<T>> future) {
+    return future.whenComplete(
+        (response, error) -> {
+          if (error == null) {
+            onResponse(response);
+          } else {
+            onError(error instanceof CompletionException ? error.getCause() : error);
+          }
+        });
+  }
+
+  private void onResponse(HttpResponse<?> response) {
+    (response.version() == Version.HTTP_2 ? http2 : http1).increment();
+  }
+
+  private void onError(Throwable error) {
+    String type;
+    if (error instanceof HttpConnectTimeoutException) {
+      type = "connect_timeout";
+    } else if (error instanceof HttpTimeoutException) {
+      type = "timeout";
+    } else if (error instanceof ConnectException) {
+      type = "connect";
+    } else {
+      type = "io";
+    }
+    meterRegistry.counter("image.client.errors", "type", type).increment();
+  }
+
+  private static Counter responses(MeterRegistry meterRegistry, Version version) {
+    return Counter.builder("image.client.responses")
+        .description("Outbound HTTP responses by negotiated protocol version")
+        .tag("version", version.name())
+        .register(meterRegistry);
+  }
+
+  @Override
+  public Optional<CookieHandler> cookieHandler() {
+    return delegate.cookieHandler();
+  }
+
+  @Override
+  public Optional<Duration> connectTimeout() {
+    return delegate.connectTimeout();
+  }
+
+  @Override
+  public Redirect followRedirects() {
+    return delegate.followRedirects();
+  }
+
+  @Override
+  public Optional<ProxySelector> proxy() {
+    return delegate.proxy();
+  }
+
+  @Override
+  public SSLContext sslContext() {
+    return delegate.sslContext();
+  }
+
+  @Override
+  public SSLParameters sslParameters() {
+    return delegate.sslParameters();
+  }
+
+  @Override
+  public Optional<Authenticator> authenticator() {
+    return delegate.authenticator();
+  }
+
+  @Override
+  public Version version() {
+    return delegate.version();
+  }
+
+  @Override
+  public Optional<Executor> executor() {
+    return delegate.executor();
+  }
+
+  @Override
+  public void shutdown() {
+    delegate.shutdown();
+  }
+
+  @Override
+  public void shutdownNow() {
+    delegate.shutdownNow();
+  }
+
+  @Override
+  public boolean awaitTermination(Duration duration) throws InterruptedException {
+    return delegate.awaitTermination(duration);
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return delegate.isTerminated();
+  }
+}
@@ -0,0 +1,63 @@
+package dev.sagar.artifactory.client;
+
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.ai.model.SimpleApiKey;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiConnectionProperties;
+import org.springframework.ai.model.openai.autoconfigure.OpenAiImageProperties;
+import org.springframework.ai.openai.OpenAiImageModel;
+import org.springframework.ai.openai.api.OpenAiImageApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Replaces the auto-configured OpenAI image model so that its client, and only its client, gets
+ * the {@link RetryInterceptor}. Connection settings resolve as in Spring AI: {@code
+ * spring.ai.openai.image.*} first, then {@code spring.ai.openai.*}.
+ */
+@Configuration(proxyBeanMethods = false)
+class OpenAiClientConfig {
+
+  @Bean
+  OpenAiImageModel openAiImageModel(
+      OpenAiConnectionProperties connection,
+      OpenAiImageProperties image,
+      RestClient.Builder restClientBuilder,
+      RetryInterceptor providerRetryInterceptor,
+      RetryTemplate retryTemplate,
+      ResponseErrorHandler responseErrorHandler,
+      ObjectProvider<ObservationRegistry> observationRegistry) {
+    MultiValueMap<String, String> headers = new LinkedMultiValueMap<>();
+    String organization = either(image.getOrganizationId(), connection.getOrganizationId());
+    if (organization != null) {
+      headers.add("OpenAI-Organization", organization);
+    }
+    String project = either(image.getProjectId(), connection.getProjectId());
+    if (project != null) {
+      headers.add("OpenAI-Project", project);
+    }
+    OpenAiImageApi api =
+        OpenAiImageApi.builder()
+            .baseUrl(either(image.getBaseUrl(), connection.getBaseUrl()))
+            .apiKey(new SimpleApiKey(either(image.getApiKey(), connection.getApiKey())))
+            .headers(headers)
+            .restClientBuilder(restClientBuilder.requestInterceptor(providerRetryInterceptor))
+            .responseErrorHandler(responseErrorHandler)
+            .build();
+    return new OpenAiImageModel(
+        api,
+        image.getOptions(),
+        retryTemplate,
+        observationRegistry.getIfUnique(() -> ObservationRegistry.NOOP));
+  }
+
+  private static String either(String specific, String common) {
+    return StringUtils.hasText(specific) ? specific : common;
+  }
+}
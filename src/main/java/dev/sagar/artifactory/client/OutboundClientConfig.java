@@ -0,0 +1,58 @@
+package dev.sagar.artifactory.client;
+
+import dev.sagar.artifactory.config.WorkerThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.http.HttpClient;
+import java.util.concurrent.ExecutorService;
+import org.springframework.boot.web.client.RestClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Outbound HTTP profile shared by every {@code RestClient} built from the auto-configured builder.
+ * Requests go through one long-lived JDK HttpClient (HTTP/2 with fallback to HTTP/1.1) whose
+ * executor follows {@code spring.threads.virtual.enabled}. Retries are not part of the shared
+ * profile; {@link OpenAiClientConfig} adds them to the provider clients only.
+ */
+@Configuration(proxyBeanMethods = false)
+class OutboundClientConfig {
+
+  @Bean(destroyMethod = "shutdownNow")
+  ExecutorService outboundHttpExecutor(Environment environment) {
+    return WorkerThreads.unboundedExecutor(environment, "http-client-");
+  }
+
+  @Bean
+  HttpClient outboundHttpClient(
+      OutboundClientProperties properties,
+      ExecutorService outboundHttpExecutor,
+      MeterRegistry meterRegistry) {
+    HttpClient httpClient =
+        HttpClient.newBuilder()
+            .version(properties.http2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+            .connectTimeout(properties.connectTimeout())
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .executor(outboundHttpExecutor)
+            .build();
+    return new InstrumentedHttpClient(httpClient, meterRegistry);
+  }
+
+  @Bean
+  RestClientCustomizer outboundClientCustomizer(
+      OutboundClientProperties properties,
+      HttpClient outboundHttpClient,
+      ExecutorService outboundHttpExecutor,
+      MeterRegistry meterRegistry) {
+    DeadlineRequestFactory requestFactory =
+        new DeadlineRequestFactory(
+            outboundHttpClient, outboundHttpExecutor, properties.readTimeout(), meterRegistry);
+    return builder -> builder.requestFactory(requestFactory);
+  }
+
+  @Bean
+  RetryInterceptor providerRetryInterceptor(
+      OutboundClientProperties properties, MeterRegistry meterRegistry) {
+    return new RetryInterceptor(properties.retry(), meterRegistry);
+  }
+}
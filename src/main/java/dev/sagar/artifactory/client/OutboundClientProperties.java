@@ -0,0 +1,23 @@
+package dev.sagar.artifactory.client;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.client")
+public record OutboundClientProperties(
+    @DefaultValue("true") boolean http2,
+    @DefaultValue("5s") Duration connectTimeout,
+    @DefaultValue("120s") Duration readTimeout,
+    @DefaultValue("150s") Duration requestBudget,
+    @DefaultValue Retry retry) {
+
+  public record Retry(
+      @DefaultValue("true") boolean enabled,
+      @DefaultValue("3") int maxAttempts,
+      @DefaultValue("200ms") Duration initialBackoff,
+      @DefaultValue("5s") Duration maxBackoff,
+      @DefaultValue("30s") Duration maxRetryAfter,
+      @DefaultValue("0.1") double budgetRatio,
+      @DefaultValue("10") int budgetBurst) {}
+}
@@ -0,0 +1,43 @@
+package dev.sagar.artifactory.client;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps retries at a fraction of traffic. Every request deposits {@code ratio} of a token and every
+ * retry withdraws a whole one, so during an outage retries add at most {@code ratio} extra load
+ * instead of multiplying it. The balance is capped at {@code burst} tokens, which is also the
+ * starting balance so a cold client can still retry.
+ */
+final class RetryBudget {
+
+  private static final long SCALE = 1000;
+
+  private final long deposit;
+  private final long capacity;
+  private final AtomicLong balance;
+
+  RetryBudget(double ratio, int burst) {
+    this.deposit = Math.round(ratio * SCALE);
+    this.capacity = Math.max(1, burst) * SCALE;
+    this.balance = new AtomicLong(capacity);
+  }
+
+  void deposit() {
+    balance.accumulateAndGet(deposit, (current, amount) -> Math.min(capacity, current + amount));
+  }
+
+  boolean tryWithdraw() {
+    long current;
+    do {
+      current = balance.get();
+      if (current < SCALE) {
+        return false;
+      }
+    } while (!balance.compareAndSet(current, current - SCALE));
+    return true;
+  }
+
+  double available() {
+    return (double) balance.get() / SCALE;
+  }
+}
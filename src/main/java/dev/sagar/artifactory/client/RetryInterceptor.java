@@ -0,0 +1,161 @@
+package dev.sagar.artifactory.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Retries provider calls that failed before the provider did any work: {@code 429}, {@code 503}
+ * and connection failures. {@code 502} and {@code 504} are retried only for idempotent methods,
+ * since a gateway may have forwarded a generation POST that is still running; read timeouts are
+ * never retried for the same reason. Installed on the OpenAI clients only. The wait is {@code
+ * Retry-After} (or OpenAI's {@code retry-after-ms}) when the response carries one, and exponential
+ * backoff with full jitter otherwise. A retry is skipped when attempts are used up, when the
+ * {@link RetryBudget} is empty, when the server asks for a longer wait than {@code
+ * max-retry-after}, or when the wait would run past the current {@link Deadline}; the last response
+ * or error is then passed on unchanged.
+ */
+public class RetryInterceptor implements ClientHttpRequestInterceptor {
+
+  private static final String RETRY_AFTER_MS = "retry-after-ms";
+
+  private final OutboundClientProperties.Retry properties;
+  private final RetryBudget budget;
+  private final MeterRegistry meterRegistry;
+  private final Timer waits;
+
+  RetryInterceptor(OutboundClientProperties.Retry properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.budget = new RetryBudget(properties.budgetRatio(), properties.budgetBurst());
+    this.meterRegistry = meterRegistry;
+    this.waits =
+        Timer.builder("image.client.retry.wait")
+            .description("Time spent waiting before retrying an outbound call")
+            .register(meterRegistry);
+    Gauge.builder("image.client.retry.budget", budget, RetryBudget::available)
+        .description("Retries currently available in the retry budget")
+        .register(meterRegistry);
+  }
+
+  @Override
+  public ClientHttpResponse intercept(
+      HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    budget.deposit();
+    for (int attempt = 1; ; attempt++) {
+      ClientHttpResponse response;
+      try {
+        response = execution.execute(request, body);
+      } catch (ConnectException | HttpConnectTimeoutException e) {
+        if (!shouldRetry(attempt, "connect", backoff(attempt))) {
+          throw e;
+        }
+        continue;
+      }
+
+      int status = response.getStatusCode().value();
+      if (!isRetryable(request.getMethod(), status)) {
+        return response;
+      }
+      Duration retryAfter = retryAfter(response.getHeaders());
+      if (retryAfter != null && retryAfter.compareTo(properties.maxRetryAfter()) > 0) {
+        giveUp(String.valueOf(status), "retry_after");
+        return response;
+      }
+      Duration wait = retryAfter != null ? retryAfter.plus(jitter()) : backoff(attempt);
+      if (!shouldRetry(attempt, String.valueOf(status), wait)) {
+        return response;
+      }
+      response.close();
+    }
+  }
+
+  private boolean shouldRetry(int attempt, String reason, Duration wait) throws IOException {
+    if (!properties.enabled() || attempt >= properties.maxAttempts()) {
+      giveUp(reason, "attempts");
+      return false;
+    }
+    OptionalLong remaining = Deadline.remainingNanos();
+    if (remaining.isPresent() && remaining.getAsLong() <= wait.toNanos()) {
+      giveUp(reason, "deadline");
+      return false;
+    }
+    if (!budget.tryWithdraw()) {
+      giveUp(reason, "budget");
+      return false;
+    }
+    meterRegistry.counter("image.client.retries", "reason", reason).increment();
+    waits.record(wait);
+    try {
+      TimeUnit.NANOSECONDS.sleep(wait.toNanos());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Interrupted while waiting to retry");
+    }
+    return true;
+  }
+
+  private void giveUp(String reason, String cause) {
+    meterRegistry
+        .counter("image.client.retry.exhausted", "reason", reason, "cause", cause)
+        .increment();
+  }
+
+  private Duration backoff(int attempt) {
+    long initial = properties.initialBackoff().toNanos();
+    long cap = Math.min(properties.maxBackoff().toNanos(), initial << Math.min(attempt - 1, 20));
+    return Duration.ofNanos(ThreadLocalRandom.current().nextLong(cap + 1));
+  }
+
+  private Duration jitter() {
+    return Duration.ofNanos(
+        ThreadLocalRandom.current().nextLong(properties.initialBackoff().toNanos() + 1));
+  }
+
+  static boolean isRetryable(HttpMethod method, int status) {
+    if (status == 429 || status == 503) {
+      return true;
+    }
+    return (status == 502 || status == 504)
+        && method != HttpMethod.POST
+        && method != HttpMethod.PATCH;
+  }
+
+  static Duration retryAfter(HttpHeaders headers) {
+    String millis = headers.getFirst(RETRY_AFTER_MS);
+    if (millis != null) {
+      try {
+        return Duration.ofMillis(Math.max(0, (long) Double.parseDouble(millis.trim())));
+      } catch (NumberFormatException ignored) {
+        // fall back to Retry-After
+      }
+    }
+    String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Duration.ofSeconds(Math.max(0, Long.parseLong(value.trim())));
+    } catch (NumberFormatException e) {
+      try {
+        long date = headers.getFirstDate(HttpHeaders.RETRY_AFTER);
+        return Duration.ofMillis(Math.max(0, date - System.currentTimeMillis()));
+      } catch (IllegalArgumentException invalid) {
+        return null;
+      }
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package dev.sagar.artifactory.cluster;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+@Configuration(proxyBeanMethods = false)
+class ClusterConfig {
+
+  @Bean
+  @ConditionalOnMissingBean(ClusterTier.class)
+  ClusterTier clusterTier(
+      ClusterProperties properties,
+      RestClient.Builder restClientBuilder,
+      MeterRegistry meterRegistry) {
+    if (!properties.enabled()) {
+      return new LocalClusterTier();
+    }
+    return new PeerClusterTier(properties, restClientBuilder, meterRegistry);
+  }
+}
@@ -0,0 +1,15 @@
+package dev.sagar.artifactory.cluster;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.cluster")
+public record ClusterProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("") String self,
+    @DefaultValue List<String> peers,
+    @DefaultValue("128") int virtualNodes,
+    @DefaultValue("") String sharedSecret,
+    @DefaultValue("10s") Duration failureCooldown) {}
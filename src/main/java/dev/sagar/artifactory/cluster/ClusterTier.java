@@ -0,0 +1,17 @@
+package dev.sagar.artifactory.cluster;
+
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import java.util.function.Supplier;
+
+/**
+ * Decides which node generates a request. Implementations either run {@code generate} locally or
+ * obtain the response from the node that owns {@code key}, so that identical requests arriving at
+ * different nodes still result in a single provider call.
+ */
+public interface ClusterTier {
+
+  ImageResponseDTO execute(
+      ImageRequestDTO request, RequestKey key, Supplier<ImageResponseDTO> generate);
+}
@@ -0,0 +1,69 @@
+package dev.sagar.artifactory.cluster;
+
+import dev.sagar.artifactory.cache.RequestKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Consistent hash ring over the cluster's nodes. Each node is placed at {@code virtualNodes}
+ * points, so keys spread evenly and adding or removing a node only moves the keys adjacent to its
+ * points. Request keys are already SHA-256 digests, so their leading 64 bits are used directly.
+ */
+final class HashRing {
+
+  private final long[] points;
+  private final int[] owners;
+  private final List<String> nodes;
+
+  HashRing(List<String> nodes, int virtualNodes) {
+    this.nodes = List.copyOf(nodes);
+    int size = nodes.size() * virtualNodes;
+    long[] hashes = new long[size];
+    int[] nodeIndexes = new int[size];
+    Long[] order = new Long[size];
+    for (int node = 0; node < nodes.size(); node++) {
+      for (int replica = 0; replica < virtualNodes; replica++) {
+        int i = node * virtualNodes + replica;
+        hashes[i] = hash(nodes.get(node) + "#" + replica);
+        nodeIndexes[i] = node;
+        order[i] = (long) i;
+      }
+    }
+    Arrays.sort(order, (a, b) -> Long.compareUnsigned(hashes[a.intValue()], hashes[b.intValue()]));
+    this.points = new long[size];
+    this.owners = new int[size];
+    for (int i = 0; i < size; i++) {
+      points[i] = hashes[order[i].intValue()];
+      owners[i] = nodeIndexes[order[i].intValue()];
+    }
+  }
+
+  String owner(RequestKey key) {
+    long hash = Long.parseUnsignedLong(key.hash().substring(0, 16), 16);
+    int low = 0;
+    int high = points.length;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (Long.compareUnsigned(points[mid], hash) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return nodes.get(owners[low == points.length ? 0 : low]);
+  }
+
+  private static long hash(String value) {
+    try {
+      byte[] digest =
+          MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+      return ByteBuffer.wrap(digest).getLong();
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package dev.sagar.artifactory.cluster;
+
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import java.util.function.Supplier;
+
+/** Single-node deployments: every request is generated locally. */
+public class LocalClusterTier implements ClusterTier {
+
+  @Override
+  public ImageResponseDTO execute(
+      ImageRequestDTO request, RequestKey key, Supplier<ImageResponseDTO> generate) {
+    return generate.get();
+  }
+}
@@ -0,0 +1,187 @@
+package dev.sagar.artifactory.cluster;
+
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.client.Deadline;
+import dev.sagar.artifactory.dto.ErrorDTO;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.exception.ProviderThrottledException;
+import dev.sagar.artifactory.exception.RequestCancelledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+
+/**
+ * Cluster tier over a static set of peers. Each request key is owned by one node on a {@link
+ * HashRing}; requests owned by another node are forwarded to it, and the owner answers from its
+ * cache or runs the provider call under its own single-flight. Every node therefore sends a given
+ * request to the provider at most once per cache lifetime, wherever it arrives.
+ *
+ * <p>An owner that cannot be reached is skipped for {@code failure-cooldown} and requests it owns
+ * are generated locally, trading duplicate provider calls for availability.
+ */
+public class PeerClusterTier implements ClusterTier {
+
+  public static final String GENERATE_PATH = "/internal/cluster/generate";
+  public static final String TOKEN_HEADER = "X-Cluster-Token";
+  public static final String CACHE_HEADER = "X-Cluster-Cache";
+
+  private static final Logger log = LoggerFactory.getLogger(PeerClusterTier.class);
+
+  private final String self;
+  private final HashRing ring;
+  private final RestClient restClient;
+  private final String sharedSecret;
+  private final long cooldownNanos;
+  private final Map<String, Long> unavailableUntil = new ConcurrentHashMap<>();
+  private final Counter local;
+  private final Counter remoteHits;
+  private final Counter remoteMisses;
+  private final MeterRegistry meterRegistry;
+
+  public PeerClusterTier(
+      ClusterProperties properties,
+      RestClient.Builder restClientBuilder,
+      MeterRegistry meterRegistry) {
+    if (properties.self().isBlank()) {
+      throw new IllegalStateException("artifactory.cluster.self must be set to this node's URL");
+    }
+    if (properties.sharedSecret().isBlank()) {
+      throw new IllegalStateException(
+          "artifactory.cluster.shared-secret must be set when cluster mode is enabled");
+    }
+    this.self = normalize(properties.self());
+    List<String> nodes = new ArrayList<>();
+    nodes.add(self);
+    for (String peer : properties.peers()) {
+      String node = normalize(peer);
+      if (!nodes.contains(node)) {
+        nodes.add(node);
+      }
+    }
+    this.ring = new HashRing(nodes, properties.virtualNodes());
+    // Owners already retry the provider; retrying a peer's answer would only multiply calls.
+    this.restClient = restClientBuilder.clone().requestInterceptors(List::clear).build();
+    this.sharedSecret = properties.sharedSecret();
+    this.cooldownNanos = properties.failureCooldown().toNanos();
+    this.meterRegistry = meterRegistry;
+    this.local = requests("local", "owner");
+    this.remoteHits = requests("remote", "hit");
+    this.remoteMisses = requests("remote", "miss");
+    log.info("Cluster tier enabled for {} with nodes {}", self, nodes);
+  }
+
+  @Override
+  public ImageResponseDTO execute(
+      ImageRequestDTO request, RequestKey key, Supplier<ImageResponseDTO> generate) {
+    String owner = ring.owner(key);
+    if (owner.equals(self)) {
+      local.increment();
+      return generate.get();
+    }
+    Long until = unavailableUntil.get(owner);
+    if (until != null && System.nanoTime() - until < 0) {
+      requests("fallback", "cooldown").increment();
+      return generate.get();
+    }
+
+    ResponseEntity<ImageResponseDTO> response;
+    try {
+      response = forward(owner, request);
+    } catch (ResourceAccessException e) {
+      Deadline.check();
+      markUnavailable(owner, e);
+      requests("fallback", "unreachable").increment();
+      return generate.get();
+    } catch (RestClientResponseException e) {
+      RuntimeException translated = translate(e);
+      if (translated != null) {
+        throw translated;
+      }
+      markUnavailable(owner, e);
+      requests("fallback", "error").increment();
+      return generate.get();
+    }
+    unavailableUntil.remove(owner);
+    ("hit".equals(response.getHeaders().getFirst(CACHE_HEADER)) ? remoteHits : remoteMisses)
+        .increment();
+    return response.getBody();
+  }
+
+  private ResponseEntity<ImageResponseDTO> forward(String owner, ImageRequestDTO request) {
+    OptionalLong remaining = Deadline.remainingNanos();
+    return restClient
+        .post()
+        .uri(owner + GENERATE_PATH)
+        .headers(
+            headers -> {
+              headers.set(TOKEN_HEADER, sharedSecret);
+              if (remaining.isPresent()) {
+                long millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining.getAsLong()));
+                headers.set(Deadline.REQUEST_TIMEOUT_HEADER, String.valueOf(millis));
+              }
+            })
+        .body(request)
+        .retrieve()
+        .toEntity(ImageResponseDTO.class);
+  }
+
+  /** Errors the owner reached a verdict on are passed on; others are retried locally. */
+  private static RuntimeException translate(RestClientResponseException e) {
+    String message = message(e);
+    HttpStatus status = HttpStatus.resolve(e.getStatusCode().value());
+    if (status == null) {
+      return null;
+    }
+    return switch (status) {
+      case BAD_REQUEST -> new InvalidParameterException(message);
+      case TOO_MANY_REQUESTS -> new ProviderThrottledException(message, e);
+      case SERVICE_UNAVAILABLE -> new TransientAiException(message);
+      case GATEWAY_TIMEOUT ->
+          new RequestCancelledException(
+              Deadline.Cancellation.DEADLINE_EXCEEDED.tag(), message, e);
+      default -> null;
+    };
+  }
+
+  private static String message(RestClientResponseException e) {
+    try {
+      ErrorDTO error = e.getResponseBodyAs(ErrorDTO.class);
+      if (error != null && error.message() != null) {
+        return error.message();
+      }
+    } catch (RuntimeException ignored) {
+      // not an ErrorDTO body
+    }
+    return e.getStatusText();
+  }
+
+  private void markUnavailable(String owner, Exception e) {
+    unavailableUntil.put(owner, System.nanoTime() + cooldownNanos);
+    log.warn("Cluster peer {} failed, generating its keys locally: {}", owner, e.getMessage());
+  }
+
+  private Counter requests(String route, String result) {
+    return meterRegistry.counter("image.cluster.requests", "route", route, "result", result);
+  }
+
+  private static String normalize(String url) {
+    String trimmed = url.strip();
+    return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+  }
+}
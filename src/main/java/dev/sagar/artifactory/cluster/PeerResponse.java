@@ -0,0 +1,6 @@
+package dev.sagar.artifactory.cluster;
+
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+
+/** Response generated or found in the cache by this node on behalf of a peer. */
+public record PeerResponse(ImageResponseDTO response, boolean cached) {}
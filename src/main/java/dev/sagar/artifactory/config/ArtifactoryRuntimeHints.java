@@ -0,0 +1,50 @@
+package dev.sagar.artifactory.config;
+
+import dev.sagar.artifactory.dto.BulkJobDTO;
+import dev.sagar.artifactory.dto.BulkResultDTO;
+import dev.sagar.artifactory.dto.EffectiveParametersDTO;
+import dev.sagar.artifactory.dto.ErrorDTO;
+import dev.sagar.artifactory.dto.HistoryEntryDTO;
+import dev.sagar.artifactory.dto.HistoryPageDTO;
+import dev.sagar.artifactory.dto.ImageEventDTO;
+import dev.sagar.artifactory.dto.ImageJobDTO;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for AOT-processed and native builds. Spring MVC registers controller payloads
+ * on its own, but the DTOs are also bound by Jackson outside controllers (history log, bulk files,
+ * stream events, cluster peers), and Bean Validation reads the constraints on request fields. The
+ * OpenAI API types are covered by the hints Spring AI ships.
+ */
+public class ArtifactoryRuntimeHints implements RuntimeHintsRegistrar {
+
+  private final BindingReflectionHintsRegistrar bindingHints =
+      new BindingReflectionHintsRegistrar();
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    bindingHints.registerReflectionHints(
+        hints.reflection(),
+        BulkJobDTO.class,
+        BulkResultDTO.class,
+        EffectiveParametersDTO.class,
+        ErrorDTO.class,
+        HistoryEntryDTO.class,
+        HistoryPageDTO.class,
+        ImageEventDTO.class,
+        ImageJobDTO.class,
+        ImageRequestDTO.class,
+        ImageResponseDTO.class);
+    hints
+        .reflection()
+        .registerType(
+            ImageRequestDTO.class,
+            MemberCategory.DECLARED_FIELDS,
+            MemberCategory.INVOKE_PUBLIC_METHODS);
+  }
+}
@@ -0,0 +1,45 @@
+package dev.sagar.artifactory.config;
+
+import dev.sagar.artifactory.exception.ConcurrencyLimitExceededException;
+import java.util.concurrent.ThreadFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Runs the work of async API requests such as {@code /generate}, which leave the servlet thread so
+ * that a deadline or a client disconnect can cancel them. With virtual threads each request gets
+ * its own thread. Otherwise the pool is sized like Tomcat's request threads and accept queue, so
+ * the endpoints keep the concurrency they had when they ran synchronously, and requests beyond
+ * that are rejected with 429 instead of piling up.
+ */
+@Configuration(proxyBeanMethods = false)
+public class RequestExecutorConfig {
+
+  public static final String REQUEST_EXECUTOR = "requestExecutor";
+
+  @Bean(REQUEST_EXECUTOR)
+  AsyncTaskExecutor requestExecutor(Environment environment, ServerProperties serverProperties) {
+    ThreadFactory threadFactory = WorkerThreads.factory(environment, "api-request-");
+    if (Threading.VIRTUAL.isActive(environment)) {
+      return new SimpleAsyncTaskExecutor(threadFactory);
+    }
+    ServerProperties.Tomcat tomcat = serverProperties.getTomcat();
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setThreadFactory(threadFactory);
+    executor.setCorePoolSize(tomcat.getThreads().getMax());
+    executor.setMaxPoolSize(tomcat.getThreads().getMax());
+    executor.setAllowCoreThreadTimeOut(true);
+    executor.setQueueCapacity(tomcat.getAcceptCount());
+    executor.setRejectedExecutionHandler(
+        (task, pool) -> {
+          throw new ConcurrencyLimitExceededException("Too many requests in progress, retry later");
+        });
+    return executor;
+  }
+}
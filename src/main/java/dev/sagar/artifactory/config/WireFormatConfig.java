@@ -0,0 +1,32 @@
+package dev.sagar.artifactory.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import java.util.List;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Lets API clients exchange request and response bodies as CBOR ({@code application/cbor}) instead
+ * of JSON. The converter shares the application's Jackson configuration and is added last, so
+ * clients that do not ask for CBOR keep getting JSON.
+ */
+@Configuration(proxyBeanMethods = false)
+class WireFormatConfig implements WebMvcConfigurer {
+
+  private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+  public WireFormatConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+    this.objectMapperBuilder = objectMapperBuilder;
+  }
+
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.removeIf(MappingJackson2CborHttpMessageConverter.class::isInstance);
+    converters.add(
+        new MappingJackson2CborHttpMessageConverter(
+            objectMapperBuilder.factory(new CBORFactory()).build()));
+  }
+}
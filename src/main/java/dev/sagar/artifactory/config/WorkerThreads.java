@@ -0,0 +1,27 @@
+package dev.sagar.artifactory.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+public final class WorkerThreads {
+
+  private WorkerThreads() {}
+
+  public static ThreadFactory factory(Environment environment, String namePrefix) {
+    if (Threading.VIRTUAL.isActive(environment)) {
+      return Thread.ofVirtual().name(namePrefix, 0).factory();
+    }
+    return new CustomizableThreadFactory(namePrefix);
+  }
+
+  public static ExecutorService unboundedExecutor(Environment environment, String namePrefix) {
+    if (Threading.VIRTUAL.isActive(environment)) {
+      return Executors.newThreadPerTaskExecutor(factory(environment, namePrefix));
+    }
+    return Executors.newCachedThreadPool(factory(environment, namePrefix));
+  }
+}
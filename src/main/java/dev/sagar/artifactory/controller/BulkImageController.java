@@ -0,0 +1,58 @@
+package dev.sagar.artifactory.controller;
+
+import dev.sagar.artifactory.bulk.BulkJobService;
+import dev.sagar.artifactory.dto.BulkJobDTO;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.scheduling.PriorityClass;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/v1/images/bulk")
+class BulkImageController {
+
+  private final BulkJobService bulkJobService;
+
+  public BulkImageController(BulkJobService bulkJobService) {
+    this.bulkJobService = bulkJobService;
+  }
+
+  @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<BulkJobDTO> submit(
+      InputStream body,
+      @RequestHeader(value = HttpHeaders.CACHE_CONTROL, required = false) String cacheControl)
+      throws IOException {
+    // Bulk work always yields to interactive traffic.
+    BulkJobDTO job =
+        bulkJobService.submit(
+            body, ImageController.generationOptions(cacheControl, null, PriorityClass.BACKGROUND));
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+        .location(URI.create("/api/v1/images/bulk/" + job.jobId()))
+        .body(job);
+  }
+
+  @GetMapping("/{jobId}")
+  @ResponseStatus(HttpStatus.OK)
+  public BulkJobDTO getJob(@PathVariable String jobId) {
+    return bulkJobService.getJob(jobId);
+  }
+
+  @GetMapping(value = "/{jobId}/results", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> streamResults(
+      @PathVariable String jobId, @RequestParam(defaultValue = "0") long from) {
+    if (from < 0) {
+      throw new InvalidParameterException("from must not be negative");
+    }
+    bulkJobService.getJob(jobId);
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_NDJSON)
+        .body(out -> bulkJobService.streamResults(jobId, from, out));
+  }
+}
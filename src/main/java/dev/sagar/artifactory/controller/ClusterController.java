@@ -0,0 +1,59 @@
+package dev.sagar.artifactory.controller;
+
+import dev.sagar.artifactory.cluster.ClusterProperties;
+import dev.sagar.artifactory.cluster.PeerClusterTier;
+import dev.sagar.artifactory.cluster.PeerResponse;
+import dev.sagar.artifactory.config.RequestExecutorConfig;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.exception.ClusterAccessDeniedException;
+import dev.sagar.artifactory.service.ImageService;
+import jakarta.validation.Valid;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+@RestController
+class ClusterController {
+
+  private final ImageService imageService;
+  private final ClusterProperties properties;
+  private final AsyncTaskExecutor requestExecutor;
+
+  public ClusterController(
+      ImageService imageService,
+      ClusterProperties properties,
+      @Qualifier(RequestExecutorConfig.REQUEST_EXECUTOR) AsyncTaskExecutor requestExecutor) {
+    this.imageService = imageService;
+    this.properties = properties;
+    this.requestExecutor = requestExecutor;
+  }
+
+  @PostMapping(PeerClusterTier.GENERATE_PATH)
+  public WebAsyncTask<ResponseEntity<ImageResponseDTO>> generateForPeer(
+      @Valid @RequestBody ImageRequestDTO request,
+      @RequestHeader(value = PeerClusterTier.TOKEN_HEADER, required = false) String token) {
+    if (!properties.enabled()) {
+      throw new ClusterAccessDeniedException("Cluster mode is not enabled on this node");
+    }
+    if (properties.sharedSecret().isBlank()
+        || token == null
+        || !MessageDigest.isEqual(
+            properties.sharedSecret().getBytes(StandardCharsets.UTF_8),
+            token.getBytes(StandardCharsets.UTF_8))) {
+      throw new ClusterAccessDeniedException("Invalid cluster token");
+    }
+    return ImageController.cancellable(
+        requestExecutor,
+        () -> {
+          PeerResponse response = imageService.generateForPeer(request);
+          return ResponseEntity.ok()
+              .header(PeerClusterTier.CACHE_HEADER, response.cached() ? "hit" : "miss")
+              .body(response.response());
+        });
+  }
+}
@@ -1,25 +1,116 @@
 package dev.sagar.artifactory.controller;
 
+import dev.sagar.artifactory.client.Deadline;
+import dev.sagar.artifactory.config.RequestExecutorConfig;
 import dev.sagar.artifactory.dto.ImageRequestDTO;
 import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.scheduling.GenerationScheduler;
+import dev.sagar.artifactory.scheduling.PriorityClass;
+import dev.sagar.artifactory.service.GenerationOptions;
 import dev.sagar.artifactory.service.ImageService;
+import dev.sagar.artifactory.service.ImageStreamService;
 import jakarta.validation.Valid;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/v1/images")
 class ImageController {
 
+  /** Set to {@code true} to accept a cheaper model, size or quality when the provider is busy. */
+  static final String ALLOW_DEGRADATION_HEADER = "X-Allow-Degradation";
+
+  static final String PRIORITY_HEADER = "X-Priority";
+  static final String API_KEY_HEADER = "X-API-Key";
+
   private final ImageService imageService;
+  private final ImageStreamService imageStreamService;
+  private final GenerationScheduler scheduler;
+  private final AsyncTaskExecutor requestExecutor;
 
-  public ImageController(ImageService imageService) {
+  public ImageController(
+      ImageService imageService,
+      ImageStreamService imageStreamService,
+      GenerationScheduler scheduler,
+      @Qualifier(RequestExecutorConfig.REQUEST_EXECUTOR) AsyncTaskExecutor requestExecutor) {
     this.imageService = imageService;
+    this.imageStreamService = imageStreamService;
+    this.scheduler = scheduler;
+    this.requestExecutor = requestExecutor;
   }
 
   @PostMapping("/generate")
   @ResponseStatus(HttpStatus.OK)
-  public ImageResponseDTO generateImages(@Valid @RequestBody ImageRequestDTO request) {
-    return imageService.generateImages(request);
+  public WebAsyncTask<ImageResponseDTO> generateImages(
+      @Valid @RequestBody ImageRequestDTO request,
+      @RequestHeader(value = HttpHeaders.CACHE_CONTROL, required = false) String cacheControl,
+      @RequestHeader(value = ALLOW_DEGRADATION_HEADER, required = false) String allowDegradation,
+      @RequestHeader(value = PRIORITY_HEADER, required = false) String priority,
+      @RequestHeader(value = API_KEY_HEADER, required = false) String apiKey) {
+    GenerationOptions generationOptions =
+        generationOptions(
+            cacheControl, allowDegradation, scheduler.classify(apiKey, priority));
+    return cancellable(
+        requestExecutor, () -> imageService.generateImages(request, generationOptions));
+  }
+
+  @PostMapping(value = "/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamImages(
+      @Valid @RequestBody ImageRequestDTO request,
+      @RequestHeader(value = HttpHeaders.CACHE_CONTROL, required = false) String cacheControl,
+      @RequestHeader(value = ALLOW_DEGRADATION_HEADER, required = false) String allowDegradation,
+      @RequestHeader(value = PRIORITY_HEADER, required = false) String priority,
+      @RequestHeader(value = API_KEY_HEADER, required = false) String apiKey) {
+    return imageStreamService.streamImages(
+        request,
+        generationOptions(
+            cacheControl, allowDegradation, scheduler.classify(apiKey, priority)));
+  }
+
+  /**
+   * Runs {@code work} on {@code executor} as an async request bounded by the request's {@link
+   * Deadline}. When the deadline passes or the container reports that the client went away, the
+   * deadline is cancelled so the generation stops instead of finishing for nobody.
+   */
+  static <T> WebAsyncTask<T> cancellable(AsyncTaskExecutor executor, Supplier<T> work) {
+    Deadline deadline = Deadline.current();
+    if (deadline == null) {
+      return new WebAsyncTask<>(null, executor, work::get);
+    }
+    WebAsyncTask<T> task =
+        new WebAsyncTask<>(
+            Math.max(1, deadline.remainingMillis()),
+            executor,
+            () -> {
+              try (Deadline.Scope ignored = Deadline.attach(deadline)) {
+                return work.get();
+              }
+            });
+    task.onTimeout(
+        () -> {
+          deadline.cancel(Deadline.Cancellation.DEADLINE_EXCEEDED);
+          throw deadline.cancelledException(null);
+        });
+    task.onError(
+        () -> {
+          deadline.cancel(Deadline.Cancellation.CLIENT_DISCONNECTED);
+          throw deadline.cancelledException(null);
+        });
+    return task;
+  }
+
+  static GenerationOptions generationOptions(
+      String cacheControl, String allowDegradation, PriorityClass priority) {
+    boolean bypassCache =
+        cacheControl != null
+            && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    return new GenerationOptions(bypassCache, Boolean.parseBoolean(allowDegradation), priority);
   }
 }
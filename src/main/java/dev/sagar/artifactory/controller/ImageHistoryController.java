@@ -0,0 +1,38 @@
+package dev.sagar.artifactory.controller;
+
+import dev.sagar.artifactory.dto.HistoryPageDTO;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.history.GenerationHistory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/images/history")
+class ImageHistoryController {
+
+  private static final int MAX_LIMIT = 100;
+
+  private final GenerationHistory generationHistory;
+
+  public ImageHistoryController(GenerationHistory generationHistory) {
+    this.generationHistory = generationHistory;
+  }
+
+  @GetMapping
+  @ResponseStatus(HttpStatus.OK)
+  public HistoryPageDTO getHistory(
+      @RequestParam String userId,
+      @RequestParam(required = false) Integer before,
+      @RequestParam(defaultValue = "20") int limit) {
+    if (userId.isBlank()) {
+      throw new InvalidParameterException("User ID cannot be blank");
+    }
+    if (limit < 1 || limit > MAX_LIMIT) {
+      throw new InvalidParameterException("Limit must be between 1 and " + MAX_LIMIT);
+    }
+    if (before != null && before < 0) {
+      throw new InvalidParameterException("Cursor cannot be negative");
+    }
+    return generationHistory.page(userId, before, limit);
+  }
+}
@@ -0,0 +1,58 @@
+package dev.sagar.artifactory.controller;
+
+import dev.sagar.artifactory.dto.ImageJobDTO;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.job.ImageJobService;
+import dev.sagar.artifactory.scheduling.GenerationScheduler;
+import jakarta.validation.Valid;
+import java.net.URI;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/images/jobs")
+class ImageJobController {
+
+  private final ImageJobService imageJobService;
+  private final GenerationScheduler scheduler;
+
+  public ImageJobController(ImageJobService imageJobService, GenerationScheduler scheduler) {
+    this.imageJobService = imageJobService;
+    this.scheduler = scheduler;
+  }
+
+  @PostMapping
+  public ResponseEntity<ImageJobDTO> submitJob(
+      @Valid @RequestBody ImageRequestDTO request,
+      @RequestParam(required = false) String callbackUrl,
+      @RequestHeader(value = HttpHeaders.CACHE_CONTROL, required = false) String cacheControl,
+      @RequestHeader(value = ImageController.ALLOW_DEGRADATION_HEADER, required = false)
+          String allowDegradation,
+      @RequestHeader(value = ImageController.PRIORITY_HEADER, required = false) String priority,
+      @RequestHeader(value = ImageController.API_KEY_HEADER, required = false) String apiKey) {
+    ImageJobDTO job =
+        imageJobService.submit(
+            request,
+            ImageController.generationOptions(
+                cacheControl, allowDegradation, scheduler.classify(apiKey, priority)),
+            callbackUrl);
+    return ResponseEntity.status(HttpStatus.ACCEPTED)
+        .location(URI.create("/api/v1/images/jobs/" + job.jobId()))
+        .body(job);
+  }
+
+  @GetMapping("/{jobId}")
+  @ResponseStatus(HttpStatus.OK)
+  public ImageJobDTO getJob(@PathVariable String jobId) {
+    return imageJobService.getJob(jobId);
+  }
+
+  @GetMapping("/{jobId}/result")
+  @ResponseStatus(HttpStatus.OK)
+  public ImageResponseDTO getResult(@PathVariable String jobId) {
+    return imageJobService.getResult(jobId);
+  }
+}
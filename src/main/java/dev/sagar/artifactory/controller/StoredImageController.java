@@ -0,0 +1,59 @@
+package dev.sagar.artifactory.controller;
+
+import dev.sagar.artifactory.exception.ImageNotFoundException;
+import dev.sagar.artifactory.rendition.RenditionFormat;
+import dev.sagar.artifactory.rendition.RenditionService;
+import dev.sagar.artifactory.rendition.RenditionService.Rendition;
+import dev.sagar.artifactory.rendition.RenditionSpec;
+import dev.sagar.artifactory.storage.ImageFileServer;
+import dev.sagar.artifactory.storage.ImageStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Path;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v1/images")
+class StoredImageController {
+
+  private final ImageStore imageStore;
+  private final ImageFileServer imageFileServer;
+  private final RenditionService renditionService;
+
+  public StoredImageController(
+      ImageStore imageStore,
+      ImageFileServer imageFileServer,
+      RenditionService renditionService) {
+    this.imageStore = imageStore;
+    this.imageFileServer = imageFileServer;
+    this.renditionService = renditionService;
+  }
+
+  @GetMapping("/{hash:[0-9a-f]{64}}")
+  public void getImage(
+      @PathVariable String hash, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    Path path = imageStore.find(hash).orElseThrow(() -> new ImageNotFoundException(hash));
+    imageFileServer.serve(path, hash, request, response);
+  }
+
+  @GetMapping("/{hash:[0-9a-f]{64}}/rendition")
+  public void getRendition(
+      @PathVariable String hash,
+      @RequestParam(defaultValue = "256") int width,
+      @RequestParam(defaultValue = "jpeg") String format,
+      @RequestParam(defaultValue = "medium") String quality,
+      HttpServletRequest request,
+      HttpServletResponse response)
+      throws IOException {
+    Rendition rendition =
+        renditionService.get(hash, RenditionSpec.of(width, RenditionFormat.from(format), quality));
+    if (rendition.file() != null) {
+      imageFileServer.serve(rendition.file(), rendition.tag(), request, response);
+    } else {
+      imageFileServer.serve(
+          rendition.body(), rendition.mediaType(), rendition.tag(), request, response);
+    }
+  }
+}
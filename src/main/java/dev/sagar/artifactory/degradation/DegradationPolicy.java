@@ -0,0 +1,129 @@
+package dev.sagar.artifactory.degradation;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.limiter.ModelConcurrencyLimiter;
+import dev.sagar.artifactory.limiter.ProviderLoad;
+import dev.sagar.artifactory.validator.ImageRequestValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves flexible requests with a cheaper configuration while their model is overloaded, meaning
+ * its admission queue or smoothed provider latency has reached the configured threshold. The
+ * request moves to {@code fallback-model} at {@code fallback-size} if that model is not overloaded
+ * too, and otherwise stays on its model at standard quality. A rewrite is only used if the
+ * validator accepts it, so the result is always a valid request.
+ */
+@Component
+public class DegradationPolicy {
+
+  private static final Logger log = LoggerFactory.getLogger(DegradationPolicy.class);
+  private static final String STANDARD = "standard";
+
+  private final DegradationProperties properties;
+  private final ModelConcurrencyLimiter concurrencyLimiter;
+  private final ImageRequestValidator validator;
+  private final MeterRegistry meterRegistry;
+
+  public DegradationPolicy(
+      DegradationProperties properties,
+      ModelConcurrencyLimiter concurrencyLimiter,
+      ImageRequestValidator validator,
+      MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.validator = validator;
+    this.meterRegistry = meterRegistry;
+  }
+
+  /** Returns {@code request} itself when it is served as asked, or the cheaper rewrite. */
+  public ImageRequestDTO apply(ImageRequestDTO request, boolean flexible) {
+    if (!properties.enabled()) {
+      return request;
+    }
+    String reason = overload(request.model());
+    if (reason == null) {
+      return request;
+    }
+    String model = request.model().toLowerCase(Locale.ROOT);
+    if (!flexible) {
+      meterRegistry
+          .counter("image.degradation.declined", "model", model, "reason", reason)
+          .increment();
+      return request;
+    }
+    ImageRequestDTO degraded = cheaper(request);
+    if (degraded == request) {
+      return request;
+    }
+    meterRegistry
+        .counter(
+            "image.degradation.applied",
+            "model",
+            model,
+            "target",
+            degraded.model().toLowerCase(Locale.ROOT) + "/" + degraded.quality(),
+            "reason",
+            reason)
+        .increment();
+    log.debug(
+        "Degraded {} {}x{} {} to {} {}x{} {} ({})",
+        request.model(),
+        request.width(),
+        request.height(),
+        request.quality(),
+        degraded.model(),
+        degraded.width(),
+        degraded.height(),
+        degraded.quality(),
+        reason);
+    return degraded;
+  }
+
+  private ImageRequestDTO cheaper(ImageRequestDTO request) {
+    String fallbackModel = properties.fallbackModel();
+    if (!fallbackModel.equalsIgnoreCase(request.model()) && overload(fallbackModel) == null) {
+      int size = Math.min(properties.fallbackSize(), Math.min(request.width(), request.height()));
+      ImageRequestDTO candidate = rewrite(request, fallbackModel, size, size);
+      if (validator.accepts(candidate)) {
+        return candidate;
+      }
+    }
+    if (!STANDARD.equals(request.quality())) {
+      ImageRequestDTO candidate =
+          rewrite(request, request.model(), request.width(), request.height());
+      if (validator.accepts(candidate)) {
+        return candidate;
+      }
+    }
+    return request;
+  }
+
+  /** {@code "queue"} or {@code "latency"} when {@code model} is overloaded, otherwise null. */
+  private String overload(String model) {
+    ProviderLoad load = concurrencyLimiter.load(model);
+    if (load.queued() >= properties.queueThreshold()) {
+      return "queue";
+    }
+    if (load.latency().compareTo(properties.latencyThreshold()) >= 0) {
+      return "latency";
+    }
+    return null;
+  }
+
+  private static ImageRequestDTO rewrite(
+      ImageRequestDTO request, String model, int width, int height) {
+    return new ImageRequestDTO(
+        request.userId(),
+        request.prompt(),
+        model,
+        height,
+        width,
+        STANDARD,
+        request.style(),
+        request.numImages());
+  }
+}
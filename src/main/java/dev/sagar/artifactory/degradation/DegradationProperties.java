@@ -0,0 +1,13 @@
+package dev.sagar.artifactory.degradation;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.degradation")
+public record DegradationProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("10") int queueThreshold,
+    @DefaultValue("30s") Duration latencyThreshold,
+    @DefaultValue("dall-e-2") String fallbackModel,
+    @DefaultValue("512") int fallbackSize) {}
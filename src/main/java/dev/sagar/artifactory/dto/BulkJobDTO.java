@@ -0,0 +1,14 @@
+package dev.sagar.artifactory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkJobDTO(
+    String jobId,
+    String status,
+    int total,
+    int succeeded,
+    int failed,
+    Instant createdAt,
+    Instant completedAt) {}
@@ -0,0 +1,7 @@
+package dev.sagar.artifactory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkResultDTO(int line, String status, List<String> imageUrls, ErrorDTO error) {}
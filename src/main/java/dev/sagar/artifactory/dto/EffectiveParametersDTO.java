@@ -0,0 +1,9 @@
+package dev.sagar.artifactory.dto;
+
+public record EffectiveParametersDTO(String model, int width, int height, String quality) {
+
+  public static EffectiveParametersDTO of(ImageRequestDTO request) {
+    return new EffectiveParametersDTO(
+        request.model(), request.width(), request.height(), request.quality());
+  }
+}
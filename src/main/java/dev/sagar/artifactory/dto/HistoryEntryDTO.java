@@ -0,0 +1,20 @@
+package dev.sagar.artifactory.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public record HistoryEntryDTO(
+    long id,
+    String userId,
+    String prompt,
+    String model,
+    int width,
+    int height,
+    String quality,
+    String style,
+    int numImages,
+    List<String> imageUrls,
+    List<String> imageHashes,
+    String provider,
+    long latencyMillis,
+    Instant createdAt) {}
@@ -0,0 +1,3 @@
+package dev.sagar.artifactory.dto;
+
+public record ImageEventDTO(int index, String imageUrl) {}
@@ -0,0 +1,13 @@
+package dev.sagar.artifactory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.time.Instant;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImageJobDTO(
+    String jobId,
+    String status,
+    Instant createdAt,
+    Instant completedAt,
+    ImageResponseDTO result,
+    ErrorDTO error) {}
@@ -1,5 +1,20 @@
 package dev.sagar.artifactory.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 
-public record ImageResponseDTO(List<String> imageUrlList) {}
+/**
+ * Generated images. {@code effective} is only present when the request was served with different
+ * parameters than it asked for.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImageResponseDTO(List<String> imageUrlList, EffectiveParametersDTO effective) {
+
+  public ImageResponseDTO(List<String> imageUrlList) {
+    this(imageUrlList, null);
+  }
+
+  public ImageResponseDTO withEffective(EffectiveParametersDTO effective) {
+    return new ImageResponseDTO(imageUrlList, effective);
+  }
+}
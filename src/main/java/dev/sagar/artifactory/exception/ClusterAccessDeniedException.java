@@ -0,0 +1,7 @@
+package dev.sagar.artifactory.exception;
+
+public class ClusterAccessDeniedException extends RuntimeException {
+  public ClusterAccessDeniedException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package dev.sagar.artifactory.exception;
+
+public class ConcurrencyLimitExceededException extends RuntimeException {
+  public ConcurrencyLimitExceededException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,58 @@
+package dev.sagar.artifactory.exception;
+
+import dev.sagar.artifactory.dto.ErrorDTO;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * The error code reported for each exception, shared by the HTTP error responses and the failures
+ * recorded by jobs and streams so a failure reads the same whichever endpoint reports it.
+ */
+public final class ErrorCodes {
+
+  private ErrorCodes() {}
+
+  public static ErrorDTO toErrorDTO(Throwable error) {
+    return new ErrorDTO(code(error), error.getMessage());
+  }
+
+  public static String code(Throwable error) {
+    if (error instanceof RequestCancelledException cancelled) {
+      return cancelled.getReason();
+    }
+    if (error instanceof InvalidParameterException) {
+      return "invalid_parameter";
+    }
+    if (error instanceof JobNotFoundException) {
+      return "job_not_found";
+    }
+    if (error instanceof ImageNotFoundException) {
+      return "image_not_found";
+    }
+    if (error instanceof JobNotCompletedException) {
+      return "job_not_completed";
+    }
+    if (error instanceof JobQueueFullException) {
+      return "job_queue_full";
+    }
+    if (error instanceof QuotaExceededException) {
+      return "quota_exceeded";
+    }
+    if (error instanceof ConcurrencyLimitExceededException) {
+      return "concurrency_limit_exceeded";
+    }
+    if (error instanceof ProviderThrottledException) {
+      return "provider_throttled";
+    }
+    if (error instanceof TransientAiException) {
+      return "provider_unavailable";
+    }
+    if (error instanceof ResourceAccessException) {
+      return "provider_unreachable";
+    }
+    if (error instanceof ClusterAccessDeniedException) {
+      return "cluster_access_denied";
+    }
+    return "server_error";
+  }
+}
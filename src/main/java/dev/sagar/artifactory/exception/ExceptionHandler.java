@@ -1,9 +1,13 @@
 package dev.sagar.artifactory.exception;
 
 import dev.sagar.artifactory.dto.ErrorDTO;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.client.ResourceAccessException;
 
 @RestControllerAdvice
 public class ExceptionHandler {
@@ -11,12 +15,81 @@ public class ExceptionHandler {
   @org.springframework.web.bind.annotation.ExceptionHandler(InvalidParameterException.class)
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ErrorDTO handleInvalidParameterException(InvalidParameterException ex) {
-    return new ErrorDTO("invalid_parameter", ex.getMessage());
+    return ErrorCodes.toErrorDTO(ex);
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(JobNotFoundException.class)
+  @ResponseStatus(HttpStatus.NOT_FOUND)
+  public ErrorDTO handleJobNotFoundException(JobNotFoundException ex) {
+    return ErrorCodes.toErrorDTO(ex);
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(ImageNotFoundException.class)
+  @ResponseStatus(HttpStatus.NOT_FOUND)
+  public ErrorDTO handleImageNotFoundException(ImageNotFoundException ex) {
+    return ErrorCodes.toErrorDTO(ex);
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(JobNotCompletedException.class)
+  @ResponseStatus(HttpStatus.CONFLICT)
+  public ErrorDTO handleJobNotCompletedException(JobNotCompletedException ex) {
+    return ErrorCodes.toErrorDTO(ex);
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(JobQueueFullException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ErrorDTO handleJobQueueFullException(JobQueueFullException ex) {
+    return ErrorCodes.toErrorDTO(ex);
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(
+      ConcurrencyLimitExceededException.class)
+  @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+  public ErrorDTO handleConcurrencyLimitExceededException(ConcurrencyLimitExceededException ex) {
+    return ErrorCodes.toErrorDTO(ex);
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(ProviderThrottledException.class)
+  @ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+  public ErrorDTO handleProviderThrottledException(ProviderThrottledException ex) {
+    return ErrorCodes.toErrorDTO(ex);
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(QuotaExceededException.class)
+  public ResponseEntity<ErrorDTO> handleQuotaExceededException(QuotaExceededException ex) {
+    long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+        .body(ErrorCodes.toErrorDTO(ex));
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(TransientAiException.class)
+  @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+  public ErrorDTO handleTransientAiException(TransientAiException ex) {
+    return ErrorCodes.toErrorDTO(ex);
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(ResourceAccessException.class)
+  @ResponseStatus(HttpStatus.BAD_GATEWAY)
+  public ErrorDTO handleResourceAccessException(ResourceAccessException ex) {
+    return ErrorCodes.toErrorDTO(ex);
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(ClusterAccessDeniedException.class)
+  @ResponseStatus(HttpStatus.FORBIDDEN)
+  public ErrorDTO handleClusterAccessDeniedException(ClusterAccessDeniedException ex) {
+    return ErrorCodes.toErrorDTO(ex);
+  }
+
+  @org.springframework.web.bind.annotation.ExceptionHandler(RequestCancelledException.class)
+  @ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+  public ErrorDTO handleRequestCancelledException(RequestCancelledException ex) {
+    return ErrorCodes.toErrorDTO(ex);
   }
 
   @org.springframework.web.bind.annotation.ExceptionHandler(Exception.class)
   @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
   public ErrorDTO handleGlobalException(Exception ex) {
-    return new ErrorDTO("server_error", ex.getMessage());
+    return ErrorCodes.toErrorDTO(ex);
   }
 }
@@ -0,0 +1,7 @@
+package dev.sagar.artifactory.exception;
+
+public class ImageNotFoundException extends RuntimeException {
+  public ImageNotFoundException(String hash) {
+    super("No stored image found with hash " + hash);
+  }
+}
@@ -4,4 +4,9 @@ public class InvalidParameterException extends RuntimeException {
   public InvalidParameterException(String message) {
     super(message);
   }
+
+  // For preallocated instances that are thrown repeatedly: no stack trace, no suppression.
+  public InvalidParameterException(String message, boolean writableStackTrace) {
+    super(message, null, false, writableStackTrace);
+  }
 }
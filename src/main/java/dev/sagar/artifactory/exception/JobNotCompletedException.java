@@ -0,0 +1,7 @@
+package dev.sagar.artifactory.exception;
+
+public class JobNotCompletedException extends RuntimeException {
+  public JobNotCompletedException(String jobId, String status) {
+    super("Job " + jobId + " has no result, current status is " + status);
+  }
+}
@@ -0,0 +1,7 @@
+package dev.sagar.artifactory.exception;
+
+public class JobNotFoundException extends RuntimeException {
+  public JobNotFoundException(String jobId) {
+    super("No job found with id " + jobId);
+  }
+}
@@ -0,0 +1,7 @@
+package dev.sagar.artifactory.exception;
+
+public class JobQueueFullException extends RuntimeException {
+  public JobQueueFullException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,7 @@
+package dev.sagar.artifactory.exception;
+
+public class ProviderThrottledException extends RuntimeException {
+  public ProviderThrottledException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,17 @@
+package dev.sagar.artifactory.exception;
+
+import java.time.Duration;
+
+public class QuotaExceededException extends RuntimeException {
+
+  private final Duration retryAfter;
+
+  public QuotaExceededException(String message, Duration retryAfter) {
+    super(message);
+    this.retryAfter = retryAfter;
+  }
+
+  public Duration getRetryAfter() {
+    return retryAfter;
+  }
+}
@@ -0,0 +1,15 @@
+package dev.sagar.artifactory.exception;
+
+public class RequestCancelledException extends RuntimeException {
+
+  private final String reason;
+
+  public RequestCancelledException(String reason, String message, Throwable cause) {
+    super(message, cause);
+    this.reason = reason;
+  }
+
+  public String getReason() {
+    return reason;
+  }
+}
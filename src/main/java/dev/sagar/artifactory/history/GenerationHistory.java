@@ -0,0 +1,210 @@
+package dev.sagar.artifactory.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sagar.artifactory.dto.HistoryEntryDTO;
+import dev.sagar.artifactory.dto.HistoryPageDTO;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.routing.ImageModelRouter;
+import dev.sagar.artifactory.storage.ImageStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.image.ImageModel;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records every served generation. {@link #record} only enqueues; a single writer thread drains
+ * the queue and appends whole batches to the {@link HistoryLog} (group commit), then publishes the
+ * new positions to the per-user index that {@link #page} reads from. The same thread applies
+ * retention once a minute.
+ */
+@Component
+public class GenerationHistory {
+
+  private static final Logger log = LoggerFactory.getLogger(GenerationHistory.class);
+  private static final Pattern STORED_HASH = Pattern.compile("[0-9a-f]{64}");
+  private static final Duration RETENTION_INTERVAL = Duration.ofMinutes(1);
+
+  private final HistoryProperties properties;
+  private final String provider;
+  private final BlockingQueue<HistoryEntryDTO> queue;
+  private final Map<String, UserIndex> index = new ConcurrentHashMap<>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final Counter dropped;
+  private final Counter failed;
+  private final HistoryLog historyLog;
+  private final Thread writer;
+  private int oldestSegment;
+  private volatile boolean running = true;
+
+  public GenerationHistory(
+      HistoryProperties properties,
+      ObjectMapper objectMapper,
+      ImageModel imageModel,
+      MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.provider = imageModel instanceof ImageModelRouter ? "routed" : "openai";
+    this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.queueCapacity()));
+    this.dropped = meterRegistry.counter("image.history.dropped");
+    this.failed = meterRegistry.counter("image.history.failed");
+    Gauge.builder("image.history.queue", queue, BlockingQueue::size).register(meterRegistry);
+
+    if (!properties.enabled()) {
+      this.historyLog = null;
+      this.writer = null;
+      return;
+    }
+    try {
+      this.historyLog =
+          new HistoryLog(
+              properties.directory(),
+              properties.segmentSize().toBytes(),
+              properties.fsync(),
+              objectMapper);
+      historyLog.replay(this::index);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to open generation history", e);
+    }
+    this.writer = Thread.ofPlatform().name("generation-history").daemon().start(this::drain);
+  }
+
+  public void record(
+      ImageRequestDTO request, ImageResponseDTO response, boolean cached, long startNanos) {
+    if (!properties.enabled()) {
+      return;
+    }
+    List<String> urls = response.imageUrlList();
+    HistoryEntryDTO entry =
+        new HistoryEntryDTO(
+            sequence.incrementAndGet(),
+            request.userId(),
+            request.prompt(),
+            request.model(),
+            request.width(),
+            request.height(),
+            request.quality(),
+            request.style(),
+            request.numImages(),
+            urls,
+            storedHashes(urls),
+            cached ? "cache" : provider,
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos),
+            Instant.now());
+    if (!queue.offer(entry)) {
+      dropped.increment();
+    }
+  }
+
+  public HistoryPageDTO page(String userId, Integer before, int limit) {
+    UserIndex userIndex = index.get(userId);
+    if (userIndex == null) {
+      return new HistoryPageDTO(List.of(), null);
+    }
+    int end = before == null ? userIndex.end() : Math.min(before, userIndex.end());
+    HistoryLog.Position[] positions = userIndex.before(end, limit);
+    List<HistoryEntryDTO> entries = new ArrayList<>(positions.length);
+    try {
+      for (HistoryLog.Position position : positions) {
+        entries.add(historyLog.read(position));
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read generation history", e);
+    }
+    int start = end - positions.length;
+    return new HistoryPageDTO(entries, start > userIndex.start() ? start : null);
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException, IOException {
+    if (writer == null) {
+      return;
+    }
+    running = false;
+    writer.join(TimeUnit.SECONDS.toMillis(5));
+    historyLog.close();
+  }
+
+  private void drain() {
+    List<HistoryEntryDTO> batch = new ArrayList<>(properties.maxBatch());
+    long nextRetention = System.nanoTime();
+    while (running || !queue.isEmpty()) {
+      if (System.nanoTime() - nextRetention >= 0) {
+        applyRetention();
+        nextRetention = System.nanoTime() + RETENTION_INTERVAL.toNanos();
+      }
+      try {
+        HistoryEntryDTO first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        batch.add(first);
+        queue.drainTo(batch, properties.maxBatch() - 1);
+        List<HistoryLog.Position> positions = historyLog.append(batch);
+        for (int i = 0; i < batch.size(); i++) {
+          index(batch.get(i), positions.get(i));
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (IOException | RuntimeException e) {
+        failed.increment(batch.size());
+        log.warn("Failed to append {} history records", batch.size(), e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Drops expired segments, after first pruning their records from the per-user index so pages
+   * never point into a deleted file.
+   */
+  private void applyRetention() {
+    try {
+      int first = historyLog.firstRetained(properties.retention(), properties.maxSize().toBytes());
+      if (first > oldestSegment) {
+        index.values().removeIf(userIndex -> userIndex.prune(first) == 0);
+        historyLog.deleteBefore(first);
+        oldestSegment = first;
+      }
+    } catch (IOException e) {
+      log.warn("Failed to apply history retention", e);
+    }
+  }
+
+  private void index(HistoryEntryDTO entry, HistoryLog.Position position) {
+    index.computeIfAbsent(entry.userId(), userId -> new UserIndex()).add(position);
+    sequence.accumulateAndGet(entry.id(), Math::max);
+  }
+
+  private static List<String> storedHashes(List<String> urls) {
+    List<String> hashes = new ArrayList<>();
+    for (String url : urls) {
+      int prefix = url.lastIndexOf(ImageStore.PATH_PREFIX);
+      if (prefix >= 0) {
+        String hash = url.substring(prefix + ImageStore.PATH_PREFIX.length());
+        if (STORED_HASH.matcher(hash).matches()) {
+          hashes.add(hash);
+        }
+      }
+    }
+    return hashes;
+  }
+}
@@ -0,0 +1,248 @@
+package dev.sagar.artifactory.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sagar.artifactory.dto.HistoryEntryDTO;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of history records, one JSON document per line, split into numbered segment
+ * files. A record is addressed by a pointer packing the segment number and byte offset, plus its
+ * length. Appends come from a single writer; reads use positional reads and may run concurrently.
+ */
+final class HistoryLog implements Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(HistoryLog.class);
+  private static final String SEGMENT_PREFIX = "history-";
+  private static final String SEGMENT_SUFFIX = ".log";
+
+  record Position(long pointer, int length) {}
+
+  private final Path directory;
+  private final long segmentBytes;
+  private final boolean fsync;
+  private final ObjectMapper objectMapper;
+  private final Map<Integer, FileChannel> readers = new ConcurrentHashMap<>();
+  private int segment;
+  private FileChannel writer;
+
+  HistoryLog(Path directory, long segmentBytes, boolean fsync, ObjectMapper objectMapper)
+      throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.segmentBytes = Math.min(segmentBytes, Integer.MAX_VALUE);
+    this.fsync = fsync;
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * Reads every record in segment order and opens the last segment for appending. Only the last
+   * segment can end in a record torn by a crash, so only its tail is truncated; an unreadable
+   * record anywhere else is skipped and logged.
+   */
+  void replay(BiConsumer<HistoryEntryDTO, Position> consumer) throws IOException {
+    List<Integer> segments = segments();
+    for (int number : segments) {
+      long valid = replaySegment(number, consumer);
+      segment = number;
+      Path path = segmentPath(number);
+      long size = Files.size(path);
+      if (valid == size) {
+        continue;
+      }
+      if (number == segments.getLast()) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+          channel.truncate(valid);
+        }
+      } else {
+        log.warn("History segment {} ends with {} unreadable bytes", number, size - valid);
+      }
+    }
+    openWriter();
+  }
+
+  /**
+   * Returns the oldest segment to keep: sealed segments, oldest first, are dropped while they were
+   * last written more than {@code maxAge} ago or the log is larger than {@code maxBytes}. A zero
+   * limit is not applied, and the segment being written is always kept.
+   */
+  int firstRetained(Duration maxAge, long maxBytes) throws IOException {
+    List<Integer> segments = segments();
+    long total = 0;
+    for (int number : segments) {
+      total += Files.size(segmentPath(number));
+    }
+    Instant cutoff = maxAge.isZero() ? Instant.MIN : Instant.now().minus(maxAge);
+    for (int number : segments) {
+      Path path = segmentPath(number);
+      boolean expired = Files.getLastModifiedTime(path).toInstant().isBefore(cutoff);
+      boolean oversized = maxBytes > 0 && total > maxBytes;
+      if (number >= segment || (!expired && !oversized)) {
+        return number;
+      }
+      total -= Files.size(path);
+    }
+    return segment;
+  }
+
+  /** Deletes every segment older than {@code first}. */
+  void deleteBefore(int first) throws IOException {
+    for (int number : segments()) {
+      if (number >= first) {
+        return;
+      }
+      FileChannel reader = readers.remove(number);
+      if (reader != null) {
+        reader.close();
+      }
+      Files.deleteIfExists(segmentPath(number));
+      log.info("Deleted expired history segment {}", number);
+    }
+  }
+
+  /** Writes the batch with a single write and at most one fsync. */
+  List<Position> append(List<HistoryEntryDTO> entries) throws IOException {
+    ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    List<Integer> lengths = new ArrayList<>(entries.size());
+    for (HistoryEntryDTO entry : entries) {
+      int start = batch.size();
+      objectMapper.writeValue(batch, entry);
+      batch.write('\n');
+      lengths.add(batch.size() - start);
+    }
+
+    long offset = writer.size();
+    if (offset > 0 && offset + batch.size() > segmentBytes) {
+      writer.close();
+      segment++;
+      openWriter();
+      offset = 0;
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+    while (buffer.hasRemaining()) {
+      writer.write(buffer);
+    }
+    if (fsync) {
+      writer.force(false);
+    }
+
+    List<Position> positions = new ArrayList<>(entries.size());
+    for (int length : lengths) {
+      positions.add(new Position(pointer(segment, offset), length));
+      offset += length;
+    }
+    return positions;
+  }
+
+  HistoryEntryDTO read(Position position) throws IOException {
+    int number = (int) (position.pointer() >>> 32);
+    long offset = position.pointer() & 0xffffffffL;
+    FileChannel channel = readers.get(number);
+    if (channel == null) {
+      channel =
+          readers.computeIfAbsent(
+              number,
+              n -> {
+                try {
+                  return FileChannel.open(segmentPath(n), StandardOpenOption.READ);
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(position.length());
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, offset + buffer.position()) < 0) {
+        throw new IOException("History segment " + number + " is shorter than expected");
+      }
+    }
+    return objectMapper.readValue(buffer.array(), 0, position.length(), HistoryEntryDTO.class);
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+    }
+    for (FileChannel reader : readers.values()) {
+      reader.close();
+    }
+  }
+
+  /** Returns the offset just past the last readable record. */
+  private long replaySegment(int number, BiConsumer<HistoryEntryDTO, Position> consumer)
+      throws IOException {
+    long offset = 0;
+    long valid = 0;
+    ByteArrayOutputStream line = new ByteArrayOutputStream();
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(segmentPath(number)))) {
+      int b;
+      while ((b = in.read()) != -1) {
+        line.write(b);
+        if (b != '\n') {
+          continue;
+        }
+        try {
+          HistoryEntryDTO entry = objectMapper.readValue(line.toByteArray(), HistoryEntryDTO.class);
+          consumer.accept(entry, new Position(pointer(number, offset), line.size()));
+          valid = offset + line.size();
+        } catch (IOException e) {
+          log.warn("Skipping unreadable history record in segment {} at offset {}", number, offset);
+        }
+        offset += line.size();
+        line.reset();
+      }
+    }
+    return valid;
+  }
+
+  private List<Integer> segments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files
+          .map(path -> path.getFileName().toString())
+          .filter(name -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX))
+          .map(
+              name ->
+                  Integer.parseInt(
+                      name.substring(
+                          SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())))
+          .sorted()
+          .toList();
+    }
+  }
+
+  private void openWriter() throws IOException {
+    writer =
+        FileChannel.open(
+            segmentPath(segment),
+            StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE,
+            StandardOpenOption.APPEND);
+  }
+
+  private Path segmentPath(int number) {
+    return directory.resolve(SEGMENT_PREFIX + "%08d".formatted(number) + SEGMENT_SUFFIX);
+  }
+
+  private static long pointer(int segment, long offset) {
+    return ((long) segment << 32) | offset;
+  }
+}
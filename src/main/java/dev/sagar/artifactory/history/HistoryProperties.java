@@ -0,0 +1,18 @@
+package dev.sagar.artifactory.history;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "artifactory.history")
+public record HistoryProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("data/history") Path directory,
+    @DefaultValue("64MB") DataSize segmentSize,
+    @DefaultValue("30d") Duration retention,
+    @DefaultValue("10GB") DataSize maxSize,
+    @DefaultValue("10000") int queueCapacity,
+    @DefaultValue("512") int maxBatch,
+    @DefaultValue("true") boolean fsync) {}
@@ -0,0 +1,61 @@
+package dev.sagar.artifactory.history;
+
+import java.util.Arrays;
+
+/**
+ * Positions of one user's history records in the log, oldest first. Records are addressed by
+ * ordinal, which stays stable when the oldest records are pruned.
+ */
+final class UserIndex {
+
+  private long[] pointers = new long[4];
+  private int[] lengths = new int[4];
+  private int start;
+  private int size;
+
+  synchronized void add(HistoryLog.Position position) {
+    if (size == pointers.length) {
+      pointers = Arrays.copyOf(pointers, size * 2);
+      lengths = Arrays.copyOf(lengths, size * 2);
+    }
+    pointers[size] = position.pointer();
+    lengths[size] = position.length();
+    size++;
+  }
+
+  /** Returns up to {@code limit} positions before ordinal {@code before}, newest first. */
+  synchronized HistoryLog.Position[] before(int before, int limit) {
+    int end = Math.min(before, start + size);
+    int first = Math.max(start, end - limit);
+    HistoryLog.Position[] page = new HistoryLog.Position[Math.max(0, end - first)];
+    for (int i = end - 1, j = 0; i >= first; i--, j++) {
+      page[j] = new HistoryLog.Position(pointers[i - start], lengths[i - start]);
+    }
+    return page;
+  }
+
+  /** Drops positions in segments older than {@code firstSegment}; returns how many are left. */
+  synchronized int prune(int firstSegment) {
+    int dropped = 0;
+    while (dropped < size && (int) (pointers[dropped] >>> 32) < firstSegment) {
+      dropped++;
+    }
+    if (dropped > 0) {
+      size -= dropped;
+      start += dropped;
+      pointers = Arrays.copyOfRange(pointers, dropped, dropped + Math.max(4, size));
+      lengths = Arrays.copyOfRange(lengths, dropped, dropped + Math.max(4, size));
+    }
+    return size;
+  }
+
+  /** Ordinal of the oldest record still indexed. */
+  synchronized int start() {
+    return start;
+  }
+
+  /** Ordinal one past the newest record. */
+  synchronized int end() {
+    return start + size;
+  }
+}
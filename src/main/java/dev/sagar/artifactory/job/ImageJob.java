@@ -0,0 +1,32 @@
+package dev.sagar.artifactory.job;
+
+import dev.sagar.artifactory.dto.ErrorDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import java.time.Instant;
+
+record ImageJob(
+    String id,
+    JobStatus status,
+    String callbackUrl,
+    Instant createdAt,
+    Instant completedAt,
+    ImageResponseDTO result,
+    ErrorDTO error) {
+
+  static ImageJob queued(String id, String callbackUrl) {
+    return new ImageJob(id, JobStatus.QUEUED, callbackUrl, Instant.now(), null, null, null);
+  }
+
+  ImageJob running() {
+    return new ImageJob(id, JobStatus.RUNNING, callbackUrl, createdAt, null, null, null);
+  }
+
+  ImageJob succeeded(ImageResponseDTO result) {
+    return new ImageJob(
+        id, JobStatus.SUCCEEDED, callbackUrl, createdAt, Instant.now(), result, null);
+  }
+
+  ImageJob failed(ErrorDTO error) {
+    return new ImageJob(id, JobStatus.FAILED, callbackUrl, createdAt, Instant.now(), null, error);
+  }
+}
@@ -0,0 +1,225 @@
+package dev.sagar.artifactory.job;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.sagar.artifactory.config.WorkerThreads;
+import dev.sagar.artifactory.dto.ErrorDTO;
+import dev.sagar.artifactory.dto.ImageJobDTO;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.exception.ErrorCodes;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.exception.JobNotCompletedException;
+import dev.sagar.artifactory.exception.JobNotFoundException;
+import dev.sagar.artifactory.exception.JobQueueFullException;
+import dev.sagar.artifactory.service.GenerationOptions;
+import dev.sagar.artifactory.service.ImageService;
+import dev.sagar.artifactory.validator.ImageRequestValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+
+@Service
+public class ImageJobService {
+
+  private static final Logger log = LoggerFactory.getLogger(ImageJobService.class);
+
+  private final ImageService imageService;
+  private final ImageRequestValidator validator;
+  private final RestClient restClient;
+  private final Set<String> callbackAllowedHosts;
+  private final ThreadPoolExecutor executor;
+  private final Cache<String, ImageJob> jobs;
+
+  public ImageJobService(
+      ImageService imageService,
+      ImageRequestValidator validator,
+      JobProperties properties,
+      RestClient.Builder restClientBuilder,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    this.imageService = imageService;
+    this.validator = validator;
+    this.restClient = restClientBuilder.build();
+    this.callbackAllowedHosts =
+        properties.callbackAllowedHosts().stream()
+            .map(host -> host.toLowerCase(Locale.ROOT))
+            .collect(Collectors.toUnmodifiableSet());
+    this.executor =
+        new ThreadPoolExecutor(
+            properties.workers(),
+            properties.workers(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.queueCapacity()),
+            WorkerThreads.factory(environment, "image-job-"));
+    this.jobs =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maxRetained())
+            .expireAfterWrite(properties.retention())
+            .build();
+    ExecutorServiceMetrics.monitor(meterRegistry, executor, "image.jobs");
+  }
+
+  public ImageJobDTO submit(
+      ImageRequestDTO request, GenerationOptions generationOptions, String callbackUrl) {
+    validator.validateRequest(request);
+    validateCallbackUrl(callbackUrl);
+
+    ImageJob job = ImageJob.queued(UUID.randomUUID().toString(), callbackUrl);
+    jobs.put(job.id(), job);
+    try {
+      executor.execute(() -> run(job, request, generationOptions));
+    } catch (RejectedExecutionException e) {
+      jobs.invalidate(job.id());
+      throw new JobQueueFullException("Job queue is full, retry later");
+    }
+    return toDTO(job);
+  }
+
+  public ImageJobDTO getJob(String jobId) {
+    return toDTO(find(jobId));
+  }
+
+  public ImageResponseDTO getResult(String jobId) {
+    ImageJob job = find(jobId);
+    if (job.status() != JobStatus.SUCCEEDED) {
+      throw new JobNotCompletedException(jobId, job.status().name());
+    }
+    return job.result();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  private void run(ImageJob job, ImageRequestDTO request, GenerationOptions generationOptions) {
+    ImageJob running = job.running();
+    jobs.put(job.id(), running);
+
+    ImageJob completed;
+    try {
+      completed = running.succeeded(imageService.generateImages(request, generationOptions));
+    } catch (RuntimeException e) {
+      ErrorDTO error = ErrorCodes.toErrorDTO(e);
+      if ("server_error".equals(error.error())) {
+        log.warn("Image job {} failed", job.id(), e);
+      }
+      completed = running.failed(error);
+    }
+    jobs.put(job.id(), completed);
+
+    if (completed.callbackUrl() != null) {
+      notifyCallback(completed);
+    }
+  }
+
+  private void notifyCallback(ImageJob job) {
+    try {
+      // Checked again because the host may resolve differently than when the job was submitted.
+      validateCallbackUrl(job.callbackUrl());
+      restClient
+          .post()
+          .uri(job.callbackUrl())
+          .contentType(MediaType.APPLICATION_JSON)
+          .body(toDTO(job))
+          .retrieve()
+          .toBodilessEntity();
+    } catch (RuntimeException e) {
+      log.warn("Callback for image job {} to {} failed", job.id(), job.callbackUrl(), e);
+    }
+  }
+
+  private ImageJob find(String jobId) {
+    ImageJob job = jobs.getIfPresent(jobId);
+    if (job == null) {
+      throw new JobNotFoundException(jobId);
+    }
+    return job;
+  }
+
+  /**
+   * Accepts absolute http(s) URLs whose host is on {@code callback-allowed-hosts} or resolves to
+   * public addresses only, so callbacks cannot be aimed at this node or its private network.
+   */
+  private void validateCallbackUrl(String callbackUrl) {
+    if (callbackUrl == null) {
+      return;
+    }
+    URI uri;
+    try {
+      uri = URI.create(callbackUrl);
+    } catch (IllegalArgumentException e) {
+      uri = null;
+    }
+    if (uri == null
+        || uri.getHost() == null
+        || !("http".equalsIgnoreCase(uri.getScheme())
+            || "https".equalsIgnoreCase(uri.getScheme()))) {
+      throw new InvalidParameterException("Invalid callbackUrl. Must be an absolute http(s) URL");
+    }
+    String host = uri.getHost().toLowerCase(Locale.ROOT);
+    if (callbackAllowedHosts.contains(host)) {
+      return;
+    }
+    InetAddress[] addresses;
+    try {
+      addresses = InetAddress.getAllByName(host);
+    } catch (UnknownHostException e) {
+      throw new InvalidParameterException(
+          "Invalid callbackUrl. Host " + host + " does not resolve");
+    }
+    for (InetAddress address : addresses) {
+      if (!isPublic(address)) {
+        throw new InvalidParameterException(
+            "Invalid callbackUrl. Host " + host + " is not a public address");
+      }
+    }
+  }
+
+  private static boolean isPublic(InetAddress address) {
+    if (address.isAnyLocalAddress()
+        || address.isLoopbackAddress()
+        || address.isLinkLocalAddress()
+        || address.isSiteLocalAddress()
+        || address.isMulticastAddress()) {
+      return false;
+    }
+    byte[] bytes = address.getAddress();
+    if (address instanceof Inet6Address) {
+      // fc00::/7 unique local addresses
+      return (bytes[0] & 0xfe) != 0xfc;
+    }
+    // 100.64.0.0/10 carrier-grade NAT
+    return !((bytes[0] & 0xff) == 100 && (bytes[1] & 0xc0) == 64);
+  }
+
+  private static ImageJobDTO toDTO(ImageJob job) {
+    return new ImageJobDTO(
+        job.id(),
+        job.status().name(),
+        job.createdAt(),
+        job.completedAt(),
+        job.result(),
+        job.error());
+  }
+}
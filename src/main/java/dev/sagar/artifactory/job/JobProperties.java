@@ -0,0 +1,14 @@
+package dev.sagar.artifactory.job;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.jobs")
+public record JobProperties(
+    @DefaultValue("16") int workers,
+    @DefaultValue("1000") int queueCapacity,
+    @DefaultValue("10000") long maxRetained,
+    @DefaultValue("1h") Duration retention,
+    @DefaultValue List<String> callbackAllowedHosts) {}
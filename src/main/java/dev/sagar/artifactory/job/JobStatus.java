@@ -0,0 +1,12 @@
+package dev.sagar.artifactory.job;
+
+public enum JobStatus {
+  QUEUED,
+  RUNNING,
+  SUCCEEDED,
+  FAILED;
+
+  public boolean isTerminal() {
+    return this == SUCCEEDED || this == FAILED;
+  }
+}
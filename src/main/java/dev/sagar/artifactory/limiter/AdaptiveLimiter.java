@@ -0,0 +1,121 @@
+package dev.sagar.artifactory.limiter;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * AIMD concurrency limit for one upstream model. Successful calls made while the limit is
+ * actually being used grow it by one; throttled or slow calls shrink it by {@code backoffRatio}.
+ * Callers over the limit wait in a bounded queue for at most {@code maxQueueWaitNanos}.
+ */
+class AdaptiveLimiter {
+
+  enum Outcome {
+    SUCCESS,
+    DROPPED,
+    IGNORED
+  }
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final double backoffRatio;
+  private final int maxQueue;
+  private final long maxQueueWaitNanos;
+
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition permitAvailable = lock.newCondition();
+  private double limit;
+  private int inFlight;
+  private int queued;
+
+  AdaptiveLimiter(
+      int initialLimit,
+      int minLimit,
+      int maxLimit,
+      double backoffRatio,
+      int maxQueue,
+      long maxQueueWaitNanos) {
+    this.limit = initialLimit;
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.backoffRatio = backoffRatio;
+    this.maxQueue = maxQueue;
+    this.maxQueueWaitNanos = maxQueueWaitNanos;
+  }
+
+  boolean tryAcquire() throws InterruptedException {
+    lock.lock();
+    try {
+      if (inFlight < (int) limit) {
+        inFlight++;
+        return true;
+      }
+      if (queued >= maxQueue) {
+        return false;
+      }
+      queued++;
+      try {
+        long remaining = maxQueueWaitNanos;
+        while (inFlight >= (int) limit) {
+          if (remaining <= 0) {
+            return false;
+          }
+          remaining = permitAvailable.awaitNanos(remaining);
+        }
+        inFlight++;
+        return true;
+      } finally {
+        queued--;
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  void release(Outcome outcome) {
+    lock.lock();
+    try {
+      int previousLimit = (int) limit;
+      if (outcome == Outcome.DROPPED) {
+        limit = Math.max(minLimit, limit * backoffRatio);
+      } else if (outcome == Outcome.SUCCESS && inFlight * 2 >= limit) {
+        limit = Math.min(maxLimit, limit + 1);
+      }
+      inFlight--;
+      if ((int) limit > previousLimit) {
+        permitAvailable.signalAll();
+      } else {
+        permitAvailable.signal();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int limit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int inFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  int queued() {
+    lock.lock();
+    try {
+      return queued;
+    } finally {
+      lock.unlock();
+    }
+  }
+}
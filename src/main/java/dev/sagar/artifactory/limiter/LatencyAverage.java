@@ -0,0 +1,42 @@
+package dev.sagar.artifactory.limiter;
+
+import java.time.Duration;
+
+/**
+ * Time-weighted moving average of call latency. Back-to-back samples move it a fifth of the way
+ * towards the newest one; older state loses half its weight every {@code halfLife}, and while no
+ * call completes the reported average fades towards zero, so a model that was slow once is tried
+ * again instead of looking overloaded for good.
+ */
+final class LatencyAverage {
+
+  private static final double SAMPLE_WEIGHT = 0.2;
+
+  private final double halfLifeNanos;
+  private double averageNanos;
+  private long updatedAt;
+  private boolean empty = true;
+
+  LatencyAverage(Duration halfLife) {
+    this.halfLifeNanos = Math.max(1, halfLife.toNanos());
+  }
+
+  synchronized void record(long sampleNanos, long now) {
+    if (empty) {
+      averageNanos = sampleNanos;
+      empty = false;
+    } else {
+      double previousWeight = (1 - SAMPLE_WEIGHT) * retained(now);
+      averageNanos = averageNanos * previousWeight + sampleNanos * (1 - previousWeight);
+    }
+    updatedAt = now;
+  }
+
+  synchronized long nanos(long now) {
+    return empty ? 0 : (long) (averageNanos * retained(now));
+  }
+
+  private double retained(long now) {
+    return Math.pow(0.5, Math.max(0, now - updatedAt) / halfLifeNanos);
+  }
+}
@@ -0,0 +1,17 @@
+package dev.sagar.artifactory.limiter;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.limiter")
+public record LimiterProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("20") int initialLimit,
+    @DefaultValue("1") int minLimit,
+    @DefaultValue("200") int maxLimit,
+    @DefaultValue("0.9") double backoffRatio,
+    @DefaultValue("60s") Duration slowCallThreshold,
+    @DefaultValue("100") int maxQueue,
+    @DefaultValue("5s") Duration maxQueueWait,
+    @DefaultValue("30s") Duration latencyHalfLife) {}
@@ -0,0 +1,111 @@
+package dev.sagar.artifactory.limiter;
+
+import dev.sagar.artifactory.exception.ConcurrencyLimitExceededException;
+import dev.sagar.artifactory.exception.ProviderThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ModelConcurrencyLimiter {
+
+  private final LimiterProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, ModelLimit> limits = new ConcurrentHashMap<>();
+
+  public ModelConcurrencyLimiter(LimiterProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public <T> T call(String model, Supplier<T> providerCall) {
+    if (!properties.enabled()) {
+      return providerCall.get();
+    }
+
+    ModelLimit modelLimit = limits.computeIfAbsent(model.toLowerCase(Locale.ROOT), this::create);
+    acquire(model, modelLimit);
+
+    long started = System.nanoTime();
+    AdaptiveLimiter.Outcome outcome = AdaptiveLimiter.Outcome.IGNORED;
+    try {
+      T result = providerCall.get();
+      long elapsed = System.nanoTime() - started;
+      modelLimit.latency.record(elapsed, started + elapsed);
+      outcome =
+          elapsed > properties.slowCallThreshold().toNanos()
+              ? AdaptiveLimiter.Outcome.DROPPED
+              : AdaptiveLimiter.Outcome.SUCCESS;
+      return result;
+    } catch (RuntimeException e) {
+      if (ProviderErrors.isThrottled(e)) {
+        outcome = AdaptiveLimiter.Outcome.DROPPED;
+        modelLimit.throttled.increment();
+        throw new ProviderThrottledException("Image provider is throttling " + model, e);
+      }
+      throw e;
+    } finally {
+      modelLimit.limiter.release(outcome);
+    }
+  }
+
+  /** Callers waiting for {@code model} and its decaying call latency; idle if never called. */
+  public ProviderLoad load(String model) {
+    ModelLimit modelLimit = limits.get(model.toLowerCase(Locale.ROOT));
+    if (modelLimit == null) {
+      return ProviderLoad.IDLE;
+    }
+    return new ProviderLoad(
+        modelLimit.limiter.queued(),
+        Duration.ofNanos(modelLimit.latency.nanos(System.nanoTime())));
+  }
+
+  private void acquire(String model, ModelLimit modelLimit) {
+    boolean acquired;
+    try {
+      acquired = modelLimit.limiter.tryAcquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      modelLimit.rejected.increment();
+      throw new ConcurrencyLimitExceededException(
+          "Too many concurrent requests for " + model + ", retry later");
+    }
+  }
+
+  private ModelLimit create(String model) {
+    AdaptiveLimiter limiter =
+        new AdaptiveLimiter(
+            properties.initialLimit(),
+            properties.minLimit(),
+            properties.maxLimit(),
+            properties.backoffRatio(),
+            properties.maxQueue(),
+            properties.maxQueueWait().toNanos());
+    Gauge.builder("image.provider.limit", limiter, AdaptiveLimiter::limit)
+        .tag("model", model)
+        .register(meterRegistry);
+    Gauge.builder("image.provider.inflight", limiter, AdaptiveLimiter::inFlight)
+        .tag("model", model)
+        .register(meterRegistry);
+    Gauge.builder("image.provider.queue", limiter, AdaptiveLimiter::queued)
+        .tag("model", model)
+        .register(meterRegistry);
+    return new ModelLimit(
+        limiter,
+        Counter.builder("image.provider.rejected").tag("model", model).register(meterRegistry),
+        Counter.builder("image.provider.throttled").tag("model", model).register(meterRegistry),
+        new LatencyAverage(properties.latencyHalfLife()));
+  }
+
+  private record ModelLimit(
+      AdaptiveLimiter limiter, Counter rejected, Counter throttled, LatencyAverage latency) {}
+}
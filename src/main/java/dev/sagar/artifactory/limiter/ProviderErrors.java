@@ -0,0 +1,54 @@
+package dev.sagar.artifactory.limiter;
+
+import java.io.IOException;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientResponseException;
+
+public final class ProviderErrors {
+
+  private static final String TOO_MANY_REQUESTS =
+      String.valueOf(HttpStatus.TOO_MANY_REQUESTS.value());
+
+  private ProviderErrors() {}
+
+  // Spring AI reports 4xx responses as NonTransientAiException("<status> - <body>"), so the status
+  // code is only available from the message once the RestClient exception has been translated.
+  static boolean isThrottled(Throwable error) {
+    for (Throwable current = error; current != null; current = current.getCause()) {
+      if (current instanceof RestClientResponseException response
+          && response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+        return true;
+      }
+      if (current.getMessage() != null && current.getMessage().startsWith(TOO_MANY_REQUESTS)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * True for failures another attempt or backend may not repeat: I/O errors, {@code 5xx} and
+   * {@code 429}. Other {@code 4xx} responses, such as a content-policy rejection, and cancellations
+   * would fail the same way anywhere.
+   */
+  public static boolean isTransient(Throwable error) {
+    for (Throwable current = error; current != null; current = current.getCause()) {
+      if (current instanceof NonTransientAiException) {
+        return isThrottled(current);
+      }
+      if (current instanceof RestClientResponseException response) {
+        return response.getStatusCode().is5xxServerError()
+            || response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+      }
+      if (current instanceof TransientAiException
+          || current instanceof ResourceAccessException
+          || current instanceof IOException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,8 @@
+package dev.sagar.artifactory.limiter;
+
+import java.time.Duration;
+
+public record ProviderLoad(int queued, Duration latency) {
+
+  public static final ProviderLoad IDLE = new ProviderLoad(0, Duration.ZERO);
+}
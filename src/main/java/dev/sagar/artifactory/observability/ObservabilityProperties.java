@@ -0,0 +1,10 @@
+package dev.sagar.artifactory.observability;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.observability")
+public record ObservabilityProperties(
+    @DefaultValue("5s") Duration slowRequestThreshold,
+    @DefaultValue("1.0") double slowRequestSampleRate) {}
@@ -0,0 +1,213 @@
+package dev.sagar.artifactory.observability;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.exception.RequestCancelledException;
+import dev.sagar.artifactory.validator.ModelCapabilities;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-stage timing for the generation pipeline. Stage timers are registered once per tag
+ * combination and looked up by a small key afterwards, so recording a stage costs two {@code
+ * nanoTime} calls and a map hit. Tag values are normalised against {@link ModelCapabilities} so
+ * unvalidated input cannot create new series.
+ *
+ * <p>Each request is also an {@code image.request} observation with the provider call as an
+ * {@code image.provider.call} child, which become spans when a tracer is present. Requests slower
+ * than the configured threshold are logged with their stage breakdown, and cancelled requests are
+ * counted by reason and by whether they had reached the provider.
+ */
+@Component
+public class PipelineMetrics {
+
+  private static final Logger log = LoggerFactory.getLogger(PipelineMetrics.class);
+
+  static final String STAGE_TIMER = "image.pipeline.stage";
+  static final String REQUEST_OBSERVATION = "image.request";
+  static final String PROVIDER_OBSERVATION = "image.provider.call";
+  static final String CANCELLED_COUNTER = "image.request.cancelled";
+
+  private static final String OTHER = "other";
+  private static final String NONE = "none";
+
+  private final MeterRegistry meterRegistry;
+  private final ObservationRegistry observationRegistry;
+  private final long slowRequestNanos;
+  private final double slowRequestSampleRate;
+  private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+  public PipelineMetrics(
+      ObservabilityProperties properties,
+      MeterRegistry meterRegistry,
+      ObservationRegistry observationRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.observationRegistry = observationRegistry;
+    this.slowRequestNanos = properties.slowRequestThreshold().toNanos();
+    this.slowRequestSampleRate = properties.slowRequestSampleRate();
+  }
+
+  public RequestTrace start(ImageRequestDTO request) {
+    Observation observation =
+        tagged(Observation.createNotStarted(REQUEST_OBSERVATION, observationRegistry), request)
+            .start();
+    return new RequestTrace(request, System.nanoTime(), observation);
+  }
+
+  public <T> T time(PipelineStage stage, RequestTrace trace, Supplier<T> body) {
+    long start = System.nanoTime();
+    Throwable error = null;
+    try {
+      if (stage == PipelineStage.PROVIDER) {
+        return tagged(
+                Observation.createNotStarted(PROVIDER_OBSERVATION, observationRegistry)
+                    .parentObservation(trace.observation()),
+                trace.request())
+            .observe(body);
+      }
+      return body.get();
+    } catch (RuntimeException e) {
+      error = e;
+      throw e;
+    } finally {
+      record(stage, trace, System.nanoTime() - start, error);
+    }
+  }
+
+  public void run(PipelineStage stage, RequestTrace trace, Runnable body) {
+    time(
+        stage,
+        trace,
+        () -> {
+          body.run();
+          return null;
+        });
+  }
+
+  public void record(PipelineStage stage, RequestTrace trace, long nanos, Throwable error) {
+    trace.add(stage, nanos);
+    timer(stage, trace.request(), error).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void finish(RequestTrace trace, Throwable error) {
+    long total = System.nanoTime() - trace.startNanos();
+    if (error instanceof CompletionException && error.getCause() != null) {
+      error = error.getCause();
+    }
+    if (error instanceof RequestCancelledException cancelled) {
+      // "queued" cancellations never reached the provider, so no provider call was billed for them
+      meterRegistry
+          .counter(
+              CANCELLED_COUNTER,
+              "reason",
+              cancelled.getReason(),
+              "stage",
+              trace.stageNanos(PipelineStage.PROVIDER) > 0 ? "provider" : "queued")
+          .increment();
+    }
+    Observation observation = trace.observation();
+    observation.lowCardinalityKeyValue("outcome", error == null ? "success" : "error");
+    if (error != null) {
+      observation.error(error);
+    }
+    observation.stop();
+
+    if (total >= slowRequestNanos
+        && log.isWarnEnabled()
+        && ThreadLocalRandom.current().nextDouble() < slowRequestSampleRate) {
+      logSlowRequest(trace, total, error);
+    }
+  }
+
+  private void logSlowRequest(RequestTrace trace, long total, Throwable error) {
+    ImageRequestDTO request = trace.request();
+    long accounted = 0;
+    StringBuilder breakdown = new StringBuilder();
+    for (PipelineStage stage : PipelineStage.values()) {
+      long nanos = trace.stageNanos(stage);
+      accounted += nanos;
+      breakdown.append(' ').append(stage.tag()).append('=').append(millis(nanos)).append("ms");
+    }
+    log.warn(
+        "Slow image request model={} size={}x{} quality={} numImages={} outcome={} total={}ms"
+            + "{} waiting={}ms",
+        request.model(),
+        request.width(),
+        request.height(),
+        request.quality(),
+        request.numImages(),
+        error == null ? "success" : error.getClass().getSimpleName(),
+        millis(total),
+        breakdown,
+        millis(Math.max(0, total - accounted)));
+  }
+
+  private Timer timer(PipelineStage stage, ImageRequestDTO request, Throwable error) {
+    ModelCapabilities model = ModelCapabilities.find(request.model());
+    int width =
+        model != null && model.supportsDimensions(request.width(), request.height())
+            ? request.width()
+            : 0;
+    int height = width == 0 ? 0 : request.height();
+    TimerKey key =
+        new TimerKey(
+            stage, model, width, height, quality(request), error == null ? null : error.getClass());
+    Timer timer = timers.get(key);
+    return timer != null ? timer : timers.computeIfAbsent(key, this::register);
+  }
+
+  private Timer register(TimerKey key) {
+    return Timer.builder(STAGE_TIMER)
+        .description("Time spent in each stage of the image generation pipeline")
+        .tag("stage", key.stage().tag())
+        .tag("model", key.model() == null ? OTHER : key.model().modelName())
+        .tag("size", key.width() == 0 ? OTHER : key.width() + "x" + key.height())
+        .tag("quality", key.quality())
+        .tag("outcome", key.error() == null ? "success" : "error")
+        .tag("error", key.error() == null ? NONE : key.error().getSimpleName())
+        .register(meterRegistry);
+  }
+
+  private static Observation tagged(Observation observation, ImageRequestDTO request) {
+    ModelCapabilities model = ModelCapabilities.find(request.model());
+    boolean knownSize =
+        model != null && model.supportsDimensions(request.width(), request.height());
+    return observation
+        .lowCardinalityKeyValue("model", model == null ? OTHER : model.modelName())
+        .lowCardinalityKeyValue(
+            "size", knownSize ? request.width() + "x" + request.height() : OTHER)
+        .lowCardinalityKeyValue("quality", quality(request));
+  }
+
+  private static String quality(ImageRequestDTO request) {
+    if ("standard".equalsIgnoreCase(request.quality())) {
+      return "standard";
+    }
+    if ("hd".equalsIgnoreCase(request.quality())) {
+      return "hd";
+    }
+    return OTHER;
+  }
+
+  private static long millis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  private record TimerKey(
+      PipelineStage stage,
+      ModelCapabilities model,
+      int width,
+      int height,
+      String quality,
+      Class<?> error) {}
+}
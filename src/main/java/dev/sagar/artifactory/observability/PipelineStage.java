@@ -0,0 +1,19 @@
+package dev.sagar.artifactory.observability;
+
+public enum PipelineStage {
+  VALIDATION("validation"),
+  OPTIONS("options"),
+  ADMISSION("admission"),
+  PROVIDER("provider"),
+  MAPPING("mapping");
+
+  private final String tag;
+
+  PipelineStage(String tag) {
+    this.tag = tag;
+  }
+
+  public String tag() {
+    return tag;
+  }
+}
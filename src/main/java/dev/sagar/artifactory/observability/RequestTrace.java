@@ -0,0 +1,43 @@
+package dev.sagar.artifactory.observability;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import io.micrometer.observation.Observation;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Timing breakdown of one request. Stages may run on other threads (a batch or single-flight
+ * leader), so per-stage totals are kept in an atomic array.
+ */
+public final class RequestTrace {
+
+  private final ImageRequestDTO request;
+  private final long startNanos;
+  private final AtomicLongArray stageNanos = new AtomicLongArray(PipelineStage.values().length);
+  private final Observation observation;
+
+  RequestTrace(ImageRequestDTO request, long startNanos, Observation observation) {
+    this.request = request;
+    this.startNanos = startNanos;
+    this.observation = observation;
+  }
+
+  public long startNanos() {
+    return startNanos;
+  }
+
+  ImageRequestDTO request() {
+    return request;
+  }
+
+  Observation observation() {
+    return observation;
+  }
+
+  void add(PipelineStage stage, long nanos) {
+    stageNanos.addAndGet(stage.ordinal(), nanos);
+  }
+
+  long stageNanos(PipelineStage stage) {
+    return stageNanos.get(stage.ordinal());
+  }
+}
@@ -0,0 +1,40 @@
+package dev.sagar.artifactory.quota;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket expressed as the generic cell rate algorithm: the whole state is one
+ * "theoretical arrival time" updated with compare-and-set, so a bucket costs a single long.
+ */
+final class GcraBucket {
+
+  private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+  /** Returns 0 if {@code cost} tokens were taken, otherwise the nanos until they would be. */
+  long tryConsume(long cost, long capacity, long windowNanos, long nowNanos) {
+    long emissionInterval = Math.max(1, windowNanos / capacity);
+    long increment = cost * emissionInterval;
+    while (true) {
+      long current = theoreticalArrival.get();
+      long base = current == Long.MIN_VALUE ? nowNanos : Math.max(current, nowNanos);
+      long next = base + increment;
+      long waitNanos = next - nowNanos - windowNanos;
+      if (waitNanos > 0) {
+        return waitNanos;
+      }
+      if (theoreticalArrival.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /** The time the bucket is full again, or {@link Long#MIN_VALUE} if it was never used. */
+  long theoreticalArrivalNanos() {
+    return theoreticalArrival.get();
+  }
+
+  void refund(long cost, long capacity, long windowNanos) {
+    long increment = cost * Math.max(1, windowNanos / capacity);
+    theoreticalArrival.addAndGet(-increment);
+  }
+}
@@ -0,0 +1,101 @@
+package dev.sagar.artifactory.quota;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Node-local quota buckets in a bounded Caffeine cache. An entry is dropped only once both of its
+ * buckets have refilled, so a user who comes back after it is gone starts with exactly the full
+ * bucket they would have had anyway.
+ */
+public class InMemoryQuotaStore implements QuotaStore {
+
+  private final Ticker ticker;
+  private final Cache<String, UserBuckets> buckets;
+
+  public InMemoryQuotaStore(long maxTrackedUsers) {
+    this(maxTrackedUsers, Ticker.systemTicker());
+  }
+
+  InMemoryQuotaStore(long maxTrackedUsers, Ticker ticker) {
+    this.ticker = ticker;
+    this.buckets =
+        Caffeine.newBuilder()
+            .maximumSize(maxTrackedUsers)
+            .expireAfter(new RefillExpiry())
+            .ticker(ticker)
+            .build();
+  }
+
+  @Override
+  public QuotaDecision tryAcquire(String userId, String model, QuotaLimits limits, int images) {
+    String key = userId + '\u0000' + model.toLowerCase(Locale.ROOT);
+    long requestWindow = limits.requestWindow().toNanos();
+    long imageWindow = limits.imageWindow().toNanos();
+    UserBuckets userBuckets =
+        buckets.get(key, k -> new UserBuckets(Math.max(requestWindow, imageWindow)));
+    long now = ticker.read();
+
+    long requestWait = userBuckets.requests.tryConsume(1, limits.requests(), requestWindow, now);
+    if (requestWait > 0) {
+      return QuotaDecision.rejected("requests", Duration.ofNanos(requestWait));
+    }
+
+    long imageWait = userBuckets.images.tryConsume(images, limits.images(), imageWindow, now);
+    if (imageWait > 0) {
+      userBuckets.requests.refund(1, limits.requests(), requestWindow);
+      return QuotaDecision.rejected("images", Duration.ofNanos(imageWait));
+    }
+    return QuotaDecision.ALLOWED;
+  }
+
+  long trackedUsers() {
+    buckets.cleanUp();
+    return buckets.estimatedSize();
+  }
+
+  private static final class UserBuckets {
+    private final GcraBucket requests = new GcraBucket();
+    private final GcraBucket images = new GcraBucket();
+    private final long toleranceNanos;
+
+    private UserBuckets(long toleranceNanos) {
+      this.toleranceNanos = toleranceNanos;
+    }
+
+    /**
+     * A bucket is full once its theoretical arrival time has passed, and an acquire made now can
+     * push that time at most one window (the burst tolerance) past now.
+     */
+    long refilledAfter(long nowNanos) {
+      long arrival =
+          Math.max(requests.theoreticalArrivalNanos(), images.theoreticalArrivalNanos());
+      return Math.max(arrival, nowNanos) - nowNanos + toleranceNanos;
+    }
+  }
+
+  /** Expiry is recomputed on every access, before the caller consumes from the buckets. */
+  private static final class RefillExpiry implements Expiry<String, UserBuckets> {
+
+    @Override
+    public long expireAfterCreate(String key, UserBuckets value, long currentTime) {
+      return value.refilledAfter(currentTime);
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String key, UserBuckets value, long currentTime, long currentDuration) {
+      return value.refilledAfter(currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String key, UserBuckets value, long currentTime, long currentDuration) {
+      return value.refilledAfter(currentTime);
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package dev.sagar.artifactory.quota;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Registered as an auto-configuration so it is processed after the application's own beans, which
+ * is what lets {@link ConditionalOnMissingBean} see a {@link QuotaStore} declared there.
+ */
+@AutoConfiguration
+public class QuotaAutoConfiguration {
+
+  @Bean
+  @ConditionalOnMissingBean(QuotaStore.class)
+  InMemoryQuotaStore inMemoryQuotaStore(QuotaProperties properties) {
+    return new InMemoryQuotaStore(properties.maxTrackedUsers());
+  }
+}
@@ -0,0 +1,12 @@
+package dev.sagar.artifactory.quota;
+
+import java.time.Duration;
+
+public record QuotaDecision(boolean allowed, String exceeded, Duration retryAfter) {
+
+  public static final QuotaDecision ALLOWED = new QuotaDecision(true, null, Duration.ZERO);
+
+  public static QuotaDecision rejected(String exceeded, Duration retryAfter) {
+    return new QuotaDecision(false, exceeded, retryAfter);
+  }
+}
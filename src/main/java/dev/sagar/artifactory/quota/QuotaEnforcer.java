@@ -0,0 +1,57 @@
+package dev.sagar.artifactory.quota;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.exception.QuotaExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.stereotype.Component;
+
+@Component
+public class QuotaEnforcer {
+
+  private final QuotaProperties properties;
+  private final QuotaStore quotaStore;
+  private final MeterRegistry meterRegistry;
+  private final Map<RejectionKey, Counter> rejections = new ConcurrentHashMap<>();
+
+  public QuotaEnforcer(
+      QuotaProperties properties, QuotaStore quotaStore, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.quotaStore = quotaStore;
+    this.meterRegistry = meterRegistry;
+  }
+
+  public void enforce(ImageRequestDTO request) {
+    if (!properties.enabled()) {
+      return;
+    }
+    QuotaDecision decision =
+        quotaStore.tryAcquire(
+            request.userId(),
+            request.model(),
+            properties.limitsFor(request.model()),
+            request.numImages());
+    if (!decision.allowed()) {
+      rejections
+          .computeIfAbsent(
+              new RejectionKey(request.model().toLowerCase(Locale.ROOT), decision.exceeded()),
+              this::register)
+          .increment();
+      throw new QuotaExceededException(
+          "Quota exceeded for " + decision.exceeded() + " on " + request.model(),
+          decision.retryAfter());
+    }
+  }
+
+  private Counter register(RejectionKey key) {
+    return Counter.builder("image.quota.rejected")
+        .tag("model", key.model())
+        .tag("limit", key.limit())
+        .register(meterRegistry);
+  }
+
+  private record RejectionKey(String model, String limit) {}
+}
@@ -0,0 +1,14 @@
+package dev.sagar.artifactory.quota;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Token bucket limits for one model: at most {@code requests} calls and {@code images} generated
+ * images per user within each window, refilled continuously.
+ */
+public record QuotaLimits(
+    @DefaultValue("60") long requests,
+    @DefaultValue("1m") Duration requestWindow,
+    @DefaultValue("500") long images,
+    @DefaultValue("1h") Duration imageWindow) {}
@@ -0,0 +1,19 @@
+package dev.sagar.artifactory.quota;
+
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.quota")
+public record QuotaProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("1000000") long maxTrackedUsers,
+    @DefaultValue QuotaLimits defaults,
+    @DefaultValue Map<String, QuotaLimits> models) {
+
+  public QuotaLimits limitsFor(String model) {
+    QuotaLimits limits = models.get(model.toLowerCase(Locale.ROOT));
+    return limits != null ? limits : defaults;
+  }
+}
@@ -0,0 +1,10 @@
+package dev.sagar.artifactory.quota;
+
+/**
+ * Storage for per-user quota buckets. The default {@link InMemoryQuotaStore} is node-local; a
+ * shared implementation (for example backed by Redis) can replace it by declaring its own bean.
+ */
+public interface QuotaStore {
+
+  QuotaDecision tryAcquire(String userId, String model, QuotaLimits limits, int images);
+}
@@ -0,0 +1,91 @@
+package dev.sagar.artifactory.rendition;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+/**
+ * Downscales and re-encodes images with the JDK's ImageIO codecs. Large reductions are done in
+ * halving steps, which keeps bilinear scaling from aliasing without the cost of bicubic filtering.
+ */
+final class ImageResizer {
+
+  private ImageResizer() {}
+
+  static byte[] render(Path source, RenditionSpec spec) throws IOException {
+    BufferedImage image;
+    try (InputStream in = Files.newInputStream(source)) {
+      image = ImageIO.read(in);
+    }
+    if (image == null) {
+      throw new IOException("Stored image " + source.getFileName() + " cannot be decoded");
+    }
+    return encode(resize(image, spec), spec);
+  }
+
+  static BufferedImage resize(BufferedImage image, RenditionSpec spec) {
+    int longest = Math.max(image.getWidth(), image.getHeight());
+    double scale = Math.min(1.0, (double) spec.width() / longest);
+    int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+    int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+    boolean opaque = spec.format() == RenditionFormat.JPEG;
+
+    BufferedImage current = image;
+    int width = image.getWidth();
+    int height = image.getHeight();
+    do {
+      width = Math.max(targetWidth, width / 2);
+      height = Math.max(targetHeight, height / 2);
+      current = draw(current, width, height, opaque);
+    } while (width != targetWidth || height != targetHeight);
+    return current;
+  }
+
+  private static BufferedImage draw(BufferedImage source, int width, int height, boolean opaque) {
+    BufferedImage target =
+        new BufferedImage(
+            width, height, opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB);
+    Graphics2D graphics = target.createGraphics();
+    try {
+      graphics.setRenderingHint(
+          RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      if (opaque) {
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, width, height);
+      }
+      graphics.drawImage(source, 0, 0, width, height, null);
+    } finally {
+      graphics.dispose();
+    }
+    return target;
+  }
+
+  private static byte[] encode(BufferedImage image, RenditionSpec spec) throws IOException {
+    ImageWriter writer = ImageIO.getImageWritersByFormatName(spec.format().extension()).next();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+      writer.setOutput(out);
+      ImageWriteParam param = writer.getDefaultWriteParam();
+      if (spec.format() == RenditionFormat.JPEG) {
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(spec.quality() / 100f);
+      }
+      writer.write(null, new IIOImage(image, null, null), param);
+    } finally {
+      writer.dispose();
+    }
+    return bytes.toByteArray();
+  }
+}
@@ -0,0 +1,155 @@
+package dev.sagar.artifactory.rendition;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Two-tier LRU of encoded renditions. The memory tier holds direct buffers, so cached bytes do not
+ * add to heap pressure; entries evicted from it are spilled to files, which are evicted in turn
+ * once the disk tier is full. Renditions can always be regenerated, so eviction simply deletes.
+ */
+final class RenditionCache {
+
+  private static final Logger log = LoggerFactory.getLogger(RenditionCache.class);
+
+  private final Path directory;
+  private final long memoryCapacity;
+  private final long diskCapacity;
+  private final Map<String, ByteBuffer> memory = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+  private long memoryBytes;
+  private long diskBytes;
+  private long spilled;
+  private long evicted;
+
+  RenditionCache(Path directory, long memoryCapacity, long diskCapacity) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.memoryCapacity = memoryCapacity;
+    this.diskCapacity = diskCapacity;
+    try (Stream<Path> files = Files.list(directory)) {
+      List<Path> existing =
+          files
+              .filter(path -> !path.getFileName().toString().endsWith(".tmp"))
+              .sorted(Comparator.comparingLong(RenditionCache::lastModified))
+              .toList();
+      for (Path path : existing) {
+        long size = Files.size(path);
+        disk.put(path.getFileName().toString(), size);
+        diskBytes += size;
+      }
+    }
+    evictDisk();
+  }
+
+  synchronized ByteBuffer memory(String key) {
+    ByteBuffer buffer = memory.get(key);
+    return buffer == null ? null : buffer.duplicate();
+  }
+
+  synchronized Path disk(String key) {
+    return disk.get(key) == null ? null : directory.resolve(key);
+  }
+
+  void put(String key, byte[] bytes) {
+    if (bytes.length > memoryCapacity) {
+      spill(key, ByteBuffer.wrap(bytes));
+      return;
+    }
+    ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    List<Map.Entry<String, ByteBuffer>> overflow = new ArrayList<>();
+    synchronized (this) {
+      ByteBuffer previous = memory.put(key, buffer);
+      memoryBytes += bytes.length - (previous == null ? 0 : previous.capacity());
+      Iterator<Map.Entry<String, ByteBuffer>> eldest = memory.entrySet().iterator();
+      while (memoryBytes > memoryCapacity && eldest.hasNext()) {
+        Map.Entry<String, ByteBuffer> entry = eldest.next();
+        eldest.remove();
+        memoryBytes -= entry.getValue().capacity();
+        overflow.add(entry);
+      }
+    }
+    for (Map.Entry<String, ByteBuffer> entry : overflow) {
+      spill(entry.getKey(), entry.getValue().duplicate());
+    }
+  }
+
+  synchronized long memoryBytes() {
+    return memoryBytes;
+  }
+
+  synchronized long diskBytes() {
+    return diskBytes;
+  }
+
+  synchronized long spilled() {
+    return spilled;
+  }
+
+  synchronized long evicted() {
+    return evicted;
+  }
+
+  private void spill(String key, ByteBuffer buffer) {
+    long size = buffer.remaining();
+    try {
+      Path temp = Files.createTempFile(directory, "spill-", ".tmp");
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        while (buffer.hasRemaining()) {
+          channel.write(buffer);
+        }
+      }
+      try {
+        Files.move(temp, directory.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, directory.resolve(key), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      log.warn("Failed to spill rendition {}", key, e);
+      return;
+    }
+    synchronized (this) {
+      Long previous = disk.put(key, size);
+      diskBytes += size - (previous == null ? 0 : previous);
+      spilled++;
+      evictDisk();
+    }
+  }
+
+  private synchronized void evictDisk() {
+    Iterator<Map.Entry<String, Long>> eldest = disk.entrySet().iterator();
+    while (diskBytes > diskCapacity && eldest.hasNext()) {
+      Map.Entry<String, Long> entry = eldest.next();
+      eldest.remove();
+      diskBytes -= entry.getValue();
+      evicted++;
+      try {
+        Files.deleteIfExists(directory.resolve(entry.getKey()));
+      } catch (IOException e) {
+        log.warn("Failed to delete evicted rendition {}", entry.getKey(), e);
+      }
+    }
+  }
+
+  private static long lastModified(Path path) {
+    try {
+      return Files.getLastModifiedTime(path).toMillis();
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+}
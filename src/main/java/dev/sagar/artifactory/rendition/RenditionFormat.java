@@ -0,0 +1,34 @@
+package dev.sagar.artifactory.rendition;
+
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import java.util.Locale;
+import org.springframework.http.MediaType;
+
+public enum RenditionFormat {
+  JPEG("jpeg", MediaType.IMAGE_JPEG),
+  PNG("png", MediaType.IMAGE_PNG);
+
+  private final String extension;
+  private final MediaType mediaType;
+
+  RenditionFormat(String extension, MediaType mediaType) {
+    this.extension = extension;
+    this.mediaType = mediaType;
+  }
+
+  public String extension() {
+    return extension;
+  }
+
+  public MediaType mediaType() {
+    return mediaType;
+  }
+
+  public static RenditionFormat from(String value) {
+    return switch (value.toLowerCase(Locale.ROOT)) {
+      case "jpeg", "jpg" -> JPEG;
+      case "png" -> PNG;
+      default -> throw new InvalidParameterException("Unsupported format: " + value);
+    };
+  }
+}
@@ -0,0 +1,17 @@
+package dev.sagar.artifactory.rendition;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+@ConfigurationProperties(prefix = "artifactory.renditions")
+public record RenditionProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("data/renditions") Path directory,
+    @DefaultValue({"128", "256", "512", "768"}) List<Integer> widths,
+    @DefaultValue("2") int workers,
+    @DefaultValue("64") int queueCapacity,
+    @DefaultValue("64MB") DataSize memorySize,
+    @DefaultValue("1GB") DataSize diskSize) {}
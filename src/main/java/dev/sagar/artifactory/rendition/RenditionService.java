@@ -0,0 +1,163 @@
+package dev.sagar.artifactory.rendition;
+
+import dev.sagar.artifactory.exception.ConcurrencyLimitExceededException;
+import dev.sagar.artifactory.exception.ImageNotFoundException;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.storage.ImageStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Produces resized and re-encoded versions of stored images on first request. Rendering runs on a
+ * small bounded pool; concurrent requests for the same rendition share one render, and results
+ * are kept in a {@link RenditionCache}.
+ */
+@Component
+public class RenditionService {
+
+  public record Rendition(String tag, MediaType mediaType, ByteBuffer body, Path file) {}
+
+  private final RenditionProperties properties;
+  private final ImageStore imageStore;
+  private final RenditionCache cache;
+  private final ThreadPoolExecutor executor;
+  private final Map<String, CompletableFuture<byte[]>> rendering = new ConcurrentHashMap<>();
+  private final Counter memoryHits;
+  private final Counter diskHits;
+  private final Counter misses;
+  private final Timer renderTimer;
+
+  public RenditionService(
+      RenditionProperties properties, ImageStore imageStore, MeterRegistry meterRegistry)
+      throws IOException {
+    this.properties = properties;
+    this.imageStore = imageStore;
+    this.cache =
+        new RenditionCache(
+            properties.directory(),
+            properties.memorySize().toBytes(),
+            properties.diskSize().toBytes());
+    // Rendering is CPU-bound, so it gets a fixed set of platform threads.
+    this.executor =
+        new ThreadPoolExecutor(
+            properties.workers(),
+            properties.workers(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.queueCapacity()),
+            new CustomizableThreadFactory("rendition-"));
+    ExecutorServiceMetrics.monitor(meterRegistry, executor, "image.renditions");
+    this.memoryHits = requests(meterRegistry, "memory");
+    this.diskHits = requests(meterRegistry, "disk");
+    this.misses = requests(meterRegistry, "rendered");
+    this.renderTimer = meterRegistry.timer("image.rendition.render");
+    Gauge.builder("image.rendition.cache.size", cache, RenditionCache::memoryBytes)
+        .tag("tier", "memory")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    Gauge.builder("image.rendition.cache.size", cache, RenditionCache::diskBytes)
+        .tag("tier", "disk")
+        .baseUnit("bytes")
+        .register(meterRegistry);
+    FunctionCounter.builder("image.rendition.cache.evictions", cache, RenditionCache::spilled)
+        .tag("tier", "memory")
+        .register(meterRegistry);
+    FunctionCounter.builder("image.rendition.cache.evictions", cache, RenditionCache::evicted)
+        .tag("tier", "disk")
+        .register(meterRegistry);
+  }
+
+  public Rendition get(String hash, RenditionSpec spec) {
+    if (!properties.enabled()) {
+      throw new ImageNotFoundException(hash);
+    }
+    if (!properties.widths().contains(spec.width())) {
+      throw new InvalidParameterException(
+          "Unsupported width: " + spec.width() + ", supported widths are " + properties.widths());
+    }
+    Path source = imageStore.find(hash).orElseThrow(() -> new ImageNotFoundException(hash));
+    String key = spec.key(hash);
+    MediaType mediaType = spec.format().mediaType();
+
+    ByteBuffer cached = cache.memory(key);
+    if (cached != null) {
+      memoryHits.increment();
+      return new Rendition(key, mediaType, cached, null);
+    }
+    Path spilled = cache.disk(key);
+    if (spilled != null) {
+      diskHits.increment();
+      return new Rendition(key, mediaType, null, spilled);
+    }
+
+    byte[] rendered = await(rendering.computeIfAbsent(key, k -> render(k, source, spec)));
+    return new Rendition(key, mediaType, ByteBuffer.wrap(rendered), null);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  private CompletableFuture<byte[]> render(String key, Path source, RenditionSpec spec) {
+    CompletableFuture<byte[]> future = new CompletableFuture<>();
+    try {
+      executor.execute(
+          () -> {
+            try {
+              long started = System.nanoTime();
+              byte[] bytes = ImageResizer.render(source, spec);
+              renderTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+              cache.put(key, bytes);
+              misses.increment();
+              future.complete(bytes);
+            } catch (IOException e) {
+              future.completeExceptionally(
+                  new UncheckedIOException("Failed to render " + key, e));
+            } catch (RuntimeException | Error e) {
+              future.completeExceptionally(e);
+            } finally {
+              rendering.remove(key, future);
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      throw new ConcurrencyLimitExceededException("Too many renditions in progress, retry later");
+    }
+    return future;
+  }
+
+  private static byte[] await(CompletableFuture<byte[]> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  private static Counter requests(MeterRegistry meterRegistry, String source) {
+    return meterRegistry.counter("image.rendition.requests", "source", source);
+  }
+}
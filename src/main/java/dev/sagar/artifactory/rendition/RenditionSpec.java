@@ -0,0 +1,30 @@
+package dev.sagar.artifactory.rendition;
+
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import java.util.Locale;
+
+/**
+ * A derived version of a stored image: its longest edge, encoding and JPEG quality. Quality is
+ * limited to a few presets so that the number of distinct renditions per image stays small.
+ */
+public record RenditionSpec(int width, RenditionFormat format, int quality) {
+
+  public static RenditionSpec of(int width, RenditionFormat format, String quality) {
+    if (format != RenditionFormat.JPEG) {
+      return new RenditionSpec(width, format, 0);
+    }
+    int jpegQuality =
+        switch (quality.toLowerCase(Locale.ROOT)) {
+          case "low" -> 50;
+          case "medium" -> 75;
+          case "high" -> 90;
+          default -> throw new InvalidParameterException("Unsupported quality: " + quality);
+        };
+    return new RenditionSpec(width, format, jpegQuality);
+  }
+
+  /** Identifies the rendition of {@code hash}; used as cache key, file name and ETag. */
+  String key(String hash) {
+    return hash + "-w" + width + "-q" + quality + "." + format.extension();
+  }
+}
@@ -0,0 +1,174 @@
+package dev.sagar.artifactory.routing;
+
+import dev.sagar.artifactory.client.Deadline;
+import dev.sagar.artifactory.limiter.ProviderErrors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.ai.image.ImageModel;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.image.ImageResponse;
+
+/**
+ * {@link ImageModel} that spreads calls over several backends. Each call goes to the backend with
+ * the best latency/error score, with a small share sent elsewhere so every backend keeps fresh
+ * statistics. Calls that fail transiently fail over to the next backend, and with hedging enabled
+ * a duplicate call is sent to the runner-up once the primary has been slower than its own hedge
+ * percentile. Other failures, such as a rejected prompt, are passed on right away.
+ */
+public class ImageModelRouter implements ImageModel {
+
+  private final List<RoutedBackend> backends;
+  private final RoutingProperties properties;
+  private final ExecutorService executor;
+  private final Counter hedgedCounter;
+  private final Counter failoverCounter;
+
+  ImageModelRouter(
+      List<RoutedBackend> backends,
+      RoutingProperties properties,
+      ExecutorService executor,
+      MeterRegistry meterRegistry) {
+    this.backends = List.copyOf(backends);
+    this.properties = properties;
+    this.executor = executor;
+    this.hedgedCounter =
+        Counter.builder("image.backend.hedged")
+            .description("Provider calls duplicated to a second backend")
+            .register(meterRegistry);
+    this.failoverCounter =
+        Counter.builder("image.backend.failover")
+            .description("Provider calls retried on another backend after a failure")
+            .register(meterRegistry);
+  }
+
+  @Override
+  public ImageResponse call(ImagePrompt prompt) {
+    List<RoutedBackend> ranked = rank();
+    if (properties.hedging().enabled() && ranked.size() > 1) {
+      return callHedged(ranked, prompt);
+    }
+    return callWithFailover(ranked, prompt);
+  }
+
+  List<RoutedBackend> rank() {
+    List<RoutedBackend> ranked = new ArrayList<>(backends);
+    ranked.sort(
+        Comparator.comparing(
+                (RoutedBackend backend) -> backend.errorRate() > properties.maxErrorRate())
+            .thenComparingDouble(RoutedBackend::score));
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    if (ranked.size() > 1 && random.nextDouble() < properties.explorationRatio()) {
+      int explored = 1 + random.nextInt(ranked.size() - 1);
+      ranked.add(0, ranked.remove(explored));
+    }
+    return ranked;
+  }
+
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private ImageResponse callWithFailover(List<RoutedBackend> ranked, ImagePrompt prompt) {
+    RuntimeException failure = null;
+    for (RoutedBackend backend : ranked) {
+      if (failure != null) {
+        failoverCounter.increment();
+      }
+      try {
+        return backend.call(prompt);
+      } catch (RuntimeException e) {
+        if (!ProviderErrors.isTransient(e)) {
+          throw e;
+        }
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    throw failure;
+  }
+
+  private ImageResponse callHedged(List<RoutedBackend> ranked, ImagePrompt prompt) {
+    CompletionService<ImageResponse> completions = new ExecutorCompletionService<>(executor);
+    List<Future<ImageResponse>> started = new ArrayList<>();
+    long hedgeDelayNanos =
+        ranked
+            .getFirst()
+            .hedgeDelayNanos(
+                properties.hedging().minDelay().toNanos(), properties.hedging().minSamples());
+
+    started.add(submit(completions, ranked.getFirst(), prompt));
+    int next = 1;
+    int pending = 1;
+    boolean hedged = false;
+    RuntimeException failure = null;
+    try {
+      while (pending > 0) {
+        Future<ImageResponse> done;
+        if (!hedged && next < ranked.size() && hedgeDelayNanos != Long.MAX_VALUE) {
+          done = completions.poll(hedgeDelayNanos, TimeUnit.NANOSECONDS);
+          if (done == null) {
+            hedged = true;
+            hedgedCounter.increment();
+            started.add(submit(completions, ranked.get(next++), prompt));
+            pending++;
+            continue;
+          }
+        } else {
+          done = completions.take();
+        }
+        pending--;
+        try {
+          return done.get();
+        } catch (ExecutionException e) {
+          RuntimeException error = asRuntimeException(e.getCause());
+          if (!ProviderErrors.isTransient(error)) {
+            throw error;
+          }
+          if (failure == null) {
+            failure = error;
+          }
+          if (pending == 0 && next < ranked.size()) {
+            failoverCounter.increment();
+            started.add(submit(completions, ranked.get(next++), prompt));
+            pending++;
+          }
+        }
+      }
+      throw failure;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for image backends", e);
+    } finally {
+      started.forEach(future -> future.cancel(true));
+    }
+  }
+
+  /** Runs the attempt under the caller's deadline, so cancelling the request interrupts it. */
+  private static Future<ImageResponse> submit(
+      CompletionService<ImageResponse> completions, RoutedBackend backend, ImagePrompt prompt) {
+    Supplier<ImageResponse> attempt = Deadline.propagate(() -> backend.call(prompt));
+    return completions.submit(attempt::get);
+  }
+
+  private static RuntimeException asRuntimeException(Throwable error) {
+    if (error instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (error instanceof Error fatal) {
+      throw fatal;
+    }
+    return new IllegalStateException(error);
+  }
+}
@@ -0,0 +1,101 @@
+package dev.sagar.artifactory.routing;
+
+import dev.sagar.artifactory.limiter.ProviderErrors;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.springframework.ai.image.ImageModel;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.image.ImageResponse;
+
+/**
+ * One upstream {@link ImageModel} with its online statistics: an exponentially weighted moving
+ * average of latency and error rate for routing decisions, plus a decaying latency histogram for
+ * the hedging delay.
+ */
+class RoutedBackend {
+
+  private static final double ALPHA = 0.2;
+
+  private final String name;
+  private final ImageModel imageModel;
+  private final Timer latency;
+  private final Counter errors;
+  private final double hedgePercentile;
+  private double averageLatencyNanos;
+  private double errorRate;
+
+  RoutedBackend(
+      String name, ImageModel imageModel, double hedgePercentile, MeterRegistry meterRegistry) {
+    this.name = name;
+    this.imageModel = imageModel;
+    this.hedgePercentile = hedgePercentile;
+    this.latency =
+        Timer.builder("image.backend.latency")
+            .tag("backend", name)
+            .publishPercentiles(0.5, hedgePercentile, 0.99)
+            .distributionStatisticExpiry(Duration.ofMinutes(5))
+            .distributionStatisticBufferLength(5)
+            .register(meterRegistry);
+    this.errors =
+        Counter.builder("image.backend.errors").tag("backend", name).register(meterRegistry);
+  }
+
+  String name() {
+    return name;
+  }
+
+  ImageResponse call(ImagePrompt prompt) {
+    long started = System.nanoTime();
+    try {
+      ImageResponse response = imageModel.call(prompt);
+      recordSuccess(System.nanoTime() - started);
+      return response;
+    } catch (RuntimeException e) {
+      // a hedged call that lost the race is interrupted, and a rejected request fails the same way
+      // on every backend; neither says anything about this one
+      if (!Thread.currentThread().isInterrupted() && ProviderErrors.isTransient(e)) {
+        recordFailure();
+      }
+      throw e;
+    }
+  }
+
+  synchronized double score() {
+    return averageLatencyNanos / Math.max(0.01, 1.0 - errorRate);
+  }
+
+  synchronized double errorRate() {
+    return errorRate;
+  }
+
+  long hedgeDelayNanos(long minDelayNanos, int minSamples) {
+    var snapshot = latency.takeSnapshot();
+    if (snapshot.count() < minSamples) {
+      return Long.MAX_VALUE;
+    }
+    for (ValueAtPercentile value : snapshot.percentileValues()) {
+      if (value.percentile() == hedgePercentile) {
+        return Math.max(minDelayNanos, (long) value.value(TimeUnit.NANOSECONDS));
+      }
+    }
+    return Long.MAX_VALUE;
+  }
+
+  private synchronized void recordSuccess(long nanos) {
+    latency.record(nanos, TimeUnit.NANOSECONDS);
+    averageLatencyNanos =
+        averageLatencyNanos == 0
+            ? nanos
+            : averageLatencyNanos + ALPHA * (nanos - averageLatencyNanos);
+    errorRate = errorRate * (1 - ALPHA);
+  }
+
+  private synchronized void recordFailure() {
+    errors.increment();
+    errorRate = errorRate * (1 - ALPHA) + ALPHA;
+  }
+}
@@ -0,0 +1,81 @@
+package dev.sagar.artifactory.routing;
+
+import dev.sagar.artifactory.client.RetryInterceptor;
+import dev.sagar.artifactory.config.WorkerThreads;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.ai.image.ImageModel;
+import org.springframework.ai.openai.OpenAiImageModel;
+import org.springframework.ai.openai.OpenAiImageOptions;
+import org.springframework.ai.openai.api.OpenAiImageApi;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.retry.support.RetryTemplate;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "artifactory.routing", name = "enabled", havingValue = "true")
+class RoutingConfig {
+
+  static final String DEFAULT_BACKEND = "default";
+  private static final String OPENAI_BASE_URL = "https://api.openai.com";
+
+  @Bean(destroyMethod = "shutdown")
+  @Primary
+  ImageModelRouter imageModelRouter(
+      OpenAiImageModel openAiImageModel,
+      RoutingProperties properties,
+      RestClient.Builder restClientBuilder,
+      RetryInterceptor providerRetryInterceptor,
+      RetryTemplate retryTemplate,
+      ResponseErrorHandler responseErrorHandler,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    double percentile = properties.hedging().percentile();
+    List<RoutedBackend> backends = new ArrayList<>();
+    backends.add(new RoutedBackend(DEFAULT_BACKEND, openAiImageModel, percentile, meterRegistry));
+    restClientBuilder.requestInterceptor(providerRetryInterceptor);
+    for (RoutingProperties.Backend backend : properties.backends()) {
+      ImageModel model =
+          createModel(backend, restClientBuilder, retryTemplate, responseErrorHandler);
+      backends.add(new RoutedBackend(backend.name(), model, percentile, meterRegistry));
+    }
+    return new ImageModelRouter(
+        backends,
+        properties,
+        WorkerThreads.unboundedExecutor(environment, "image-route-"),
+        meterRegistry);
+  }
+
+  /**
+   * Extra OpenAI backends share the retry interceptor, retry template and error handler with the
+   * default one. Their own retries would otherwise delay failover and hedging by minutes.
+   */
+  private static ImageModel createModel(
+      RoutingProperties.Backend backend,
+      RestClient.Builder restClientBuilder,
+      RetryTemplate retryTemplate,
+      ResponseErrorHandler responseErrorHandler) {
+    return switch (backend.type()) {
+      case "openai" ->
+          new OpenAiImageModel(
+              OpenAiImageApi.builder()
+                  .baseUrl(backend.baseUrl() != null ? backend.baseUrl() : OPENAI_BASE_URL)
+                  .apiKey(backend.apiKey())
+                  .restClientBuilder(restClientBuilder.clone())
+                  .responseErrorHandler(responseErrorHandler)
+                  .build(),
+              OpenAiImageOptions.builder().build(),
+              retryTemplate);
+      case "stub" -> new StubImageModel(backend.latency());
+      default ->
+          throw new IllegalArgumentException(
+              "Unknown backend type '" + backend.type() + "' for backend " + backend.name());
+    };
+  }
+}
@@ -0,0 +1,28 @@
+package dev.sagar.artifactory.routing;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.routing")
+public record RoutingProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("0.5") double maxErrorRate,
+    @DefaultValue("0.05") double explorationRatio,
+    @DefaultValue Hedging hedging,
+    @DefaultValue List<Backend> backends) {
+
+  public record Hedging(
+      @DefaultValue("false") boolean enabled,
+      @DefaultValue("0.95") double percentile,
+      @DefaultValue("500ms") Duration minDelay,
+      @DefaultValue("20") int minSamples) {}
+
+  public record Backend(
+      String name,
+      @DefaultValue("openai") String type,
+      String baseUrl,
+      String apiKey,
+      @DefaultValue("0ms") Duration latency) {}
+}
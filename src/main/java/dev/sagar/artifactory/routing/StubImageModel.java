@@ -0,0 +1,38 @@
+package dev.sagar.artifactory.routing;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.springframework.ai.image.Image;
+import org.springframework.ai.image.ImageGeneration;
+import org.springframework.ai.image.ImageModel;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.image.ImageResponse;
+
+/** Local backend that returns placeholder URLs, for development and failover drills. */
+class StubImageModel implements ImageModel {
+
+  private final Duration latency;
+
+  StubImageModel(Duration latency) {
+    this.latency = latency;
+  }
+
+  @Override
+  public ImageResponse call(ImagePrompt request) {
+    try {
+      Thread.sleep(latency);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while generating stub image", e);
+    }
+    Integer n = request.getOptions() != null ? request.getOptions().getN() : null;
+    List<ImageGeneration> generations =
+        IntStream.range(0, n != null ? n : 1)
+            .mapToObj(i -> new Image("https://stub.local/" + UUID.randomUUID(), null))
+            .map(ImageGeneration::new)
+            .toList();
+    return new ImageResponse(generations);
+  }
+}
@@ -0,0 +1,86 @@
+package dev.sagar.artifactory.scheduling;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToIntFunction;
+
+/**
+ * Weighted round robin over per-user FIFO queues. Any number of threads may {@link #offer} without
+ * locking; {@link #poll} must only be called from a single thread. A user with weight {@code w}
+ * is served up to {@code w} times in a row before the next user with queued items.
+ */
+final class FairQueue<E> {
+
+  private final ToIntFunction<String> weights;
+  private final Map<String, UserQueue<E>> users = new ConcurrentHashMap<>();
+  // Users with queued items; a user is in the ring at most once, guarded by its scheduled flag.
+  private final ConcurrentLinkedQueue<UserQueue<E>> ring = new ConcurrentLinkedQueue<>();
+
+  // Owned by the polling thread.
+  private UserQueue<E> current;
+  private int credit;
+
+  FairQueue(ToIntFunction<String> weights) {
+    this.weights = weights;
+  }
+
+  void offer(String user, E item) {
+    UserQueue<E> queue = users.computeIfAbsent(user, ignored -> new UserQueue<>(user));
+    queue.items.offer(item);
+    if (queue.scheduled.compareAndSet(false, true)) {
+      ring.offer(queue);
+    }
+  }
+
+  E poll() {
+    while (true) {
+      if (current == null) {
+        current = ring.poll();
+        if (current == null) {
+          return null;
+        }
+        credit = weights.applyAsInt(current.user);
+      }
+      E item = current.items.poll();
+      if (item == null) {
+        retire(current);
+        current = null;
+        continue;
+      }
+      if (current.items.isEmpty()) {
+        retire(current);
+        current = null;
+      } else if (--credit <= 0) {
+        ring.offer(current);
+        current = null;
+      }
+      return item;
+    }
+  }
+
+  /**
+   * Takes a drained user out of rotation. An item offered while the flag was still set did not
+   * re-enter the ring, so the queue is checked again after clearing it. Idle users are dropped
+   * from the map; a producer still holding the old queue re-enters it into the ring itself.
+   */
+  private void retire(UserQueue<E> queue) {
+    queue.scheduled.set(false);
+    if (!queue.items.isEmpty() && queue.scheduled.compareAndSet(false, true)) {
+      ring.offer(queue);
+    } else {
+      users.remove(queue.user, queue);
+    }
+  }
+
+  private static final class UserQueue<E> {
+    private final String user;
+    private final ConcurrentLinkedQueue<E> items = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private UserQueue(String user) {
+      this.user = user;
+    }
+  }
+}
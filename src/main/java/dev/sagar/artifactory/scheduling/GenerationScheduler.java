@@ -0,0 +1,259 @@
+package dev.sagar.artifactory.scheduling;
+
+import dev.sagar.artifactory.client.Deadline;
+import dev.sagar.artifactory.exception.ConcurrencyLimitExceededException;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admits generations in priority order with at most {@code max-concurrency} running at once.
+ * Waiting requests sit in one bounded {@link FairQueue} per {@link PriorityClass}, so within a
+ * class each user gets a share in proportion to their weight. A dispatcher thread hands each free
+ * slot to the next request of the highest non-empty class, and the request then runs on its own
+ * thread with its deadline intact.
+ */
+@Component
+public class GenerationScheduler {
+
+  private final SchedulingProperties properties;
+  private final Map<PriorityClass, ClassQueue> classes = new EnumMap<>(PriorityClass.class);
+  private final Semaphore slots;
+  private final Semaphore pending = new Semaphore(0);
+  private final Thread dispatcher;
+
+  public GenerationScheduler(SchedulingProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.slots = new Semaphore(properties.maxConcurrency());
+    for (PriorityClass priority : PriorityClass.values()) {
+      classes.put(priority, new ClassQueue(priority, meterRegistry));
+    }
+    if (properties.enabled()) {
+      this.dispatcher = new Thread(this::dispatch, "generation-dispatcher");
+      dispatcher.setDaemon(true);
+      dispatcher.start();
+    } else {
+      this.dispatcher = null;
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (dispatcher != null) {
+      dispatcher.interrupt();
+    }
+  }
+
+  /**
+   * Picks the class for a request: the class mapped to its API key if there is one, otherwise the
+   * requested class, otherwise {@code default-class}.
+   */
+  public PriorityClass classify(String apiKey, String requested) {
+    if (apiKey != null) {
+      PriorityClass mapped = properties.apiKeys().get(apiKey);
+      if (mapped != null) {
+        return mapped;
+      }
+    }
+    if (requested == null || requested.isBlank()) {
+      return properties.defaultClass();
+    }
+    PriorityClass priority = PriorityClass.parse(requested);
+    if (priority == null) {
+      throw new InvalidParameterException(
+          "Invalid priority. Must be 'interactive', 'standard' or 'background'");
+    }
+    return priority;
+  }
+
+  /**
+   * Runs {@code work} on the calling thread once it is admitted. Throws {@link
+   * ConcurrencyLimitExceededException} if the class queue is full, and stops waiting when the
+   * current deadline passes or the thread is interrupted.
+   */
+  public <T> T execute(PriorityClass priority, String userId, Supplier<T> work) {
+    if (!properties.enabled()) {
+      return work.get();
+    }
+    ClassQueue queue = classes.get(priority != null ? priority : properties.defaultClass());
+    Ticket ticket = queue.admit(userId != null ? userId : "");
+    pending.release();
+    await(queue, ticket);
+    queue.waits.record(System.nanoTime() - ticket.enqueuedNanos, TimeUnit.NANOSECONDS);
+    try {
+      return work.get();
+    } finally {
+      slots.release();
+      queue.completed(System.nanoTime() - ticket.enqueuedNanos);
+    }
+  }
+
+  private void await(ClassQueue queue, Ticket ticket) {
+    OptionalLong remaining = Deadline.remainingNanos();
+    try {
+      if (remaining.isPresent()) {
+        ticket.granted.get(Math.max(0, remaining.getAsLong()), TimeUnit.NANOSECONDS);
+      } else {
+        ticket.granted.get();
+      }
+    } catch (InterruptedException e) {
+      abandon(queue, ticket);
+      Thread.currentThread().interrupt();
+      CancellationException cancelled =
+          new CancellationException("Interrupted while queued for generation");
+      cancelled.initCause(e);
+      throw cancelled;
+    } catch (TimeoutException e) {
+      abandon(queue, ticket);
+      Deadline.check();
+      throw Deadline.current().cancelledException(e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("Scheduler tickets never fail", e);
+    }
+  }
+
+  /**
+   * Withdraws a waiting ticket so it stops counting against {@code max-queued} right away; the
+   * dispatcher skips it later. If it was granted meanwhile, the slot is given back instead.
+   */
+  private void abandon(ClassQueue queue, Ticket ticket) {
+    if (ticket.withdraw()) {
+      queue.queued.decrementAndGet();
+    } else {
+      slots.release();
+    }
+  }
+
+  private void dispatch() {
+    try {
+      while (true) {
+        slots.acquire();
+        pending.acquire();
+        if (!grantNext()) {
+          slots.release();
+        }
+      }
+    } catch (InterruptedException e) {
+      // shutting down
+    }
+  }
+
+  /** Grants the held slot to the next live ticket of the highest class that has one. */
+  private boolean grantNext() {
+    for (PriorityClass priority : PriorityClass.values()) {
+      if (classes.get(priority).grantNext()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final class Ticket {
+    private final long enqueuedNanos = System.nanoTime();
+    private final CompletableFuture<Void> granted = new CompletableFuture<>();
+    private final AtomicBoolean settled = new AtomicBoolean();
+
+    boolean grant() {
+      if (!settled.compareAndSet(false, true)) {
+        return false;
+      }
+      granted.complete(null);
+      return true;
+    }
+
+    boolean withdraw() {
+      return settled.compareAndSet(false, true);
+    }
+  }
+
+  private final class ClassQueue {
+    private final String tag;
+    private final FairQueue<Ticket> queue = new FairQueue<>(properties::weightOf);
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxQueued;
+    private final long sloNanos;
+    private final Timer waits;
+    private final Timer latency;
+    private final Counter sloMet;
+    private final Counter sloMissed;
+    private final Counter rejected;
+
+    private ClassQueue(PriorityClass priority, MeterRegistry meterRegistry) {
+      SchedulingProperties.ClassLimits limits = properties.limitsFor(priority);
+      Duration slo = limits.slo();
+      this.tag = priority.tag();
+      this.maxQueued = limits.maxQueued();
+      this.sloNanos = slo.toNanos();
+      this.waits =
+          Timer.builder("image.schedule.wait")
+              .tag("class", tag)
+              .publishPercentileHistogram()
+              .register(meterRegistry);
+      this.latency =
+          Timer.builder("image.schedule.latency")
+              .tag("class", tag)
+              .publishPercentileHistogram()
+              .serviceLevelObjectives(slo)
+              .register(meterRegistry);
+      this.sloMet = slo(meterRegistry, "met");
+      this.sloMissed = slo(meterRegistry, "missed");
+      this.rejected = meterRegistry.counter("image.schedule.rejected", "class", tag);
+      Gauge.builder("image.schedule.queued", queued, AtomicInteger::get)
+          .tag("class", tag)
+          .register(meterRegistry);
+    }
+
+    Ticket admit(String userId) {
+      if (queued.incrementAndGet() > maxQueued) {
+        queued.decrementAndGet();
+        rejected.increment();
+        throw new ConcurrencyLimitExceededException(
+            "Too many queued " + tag + " requests, retry later");
+      }
+      Ticket ticket = new Ticket();
+      queue.offer(userId, ticket);
+      return ticket;
+    }
+
+    /**
+     * Skips withdrawn tickets, which were already uncounted, and consumes the dispatch permit each
+     * of them left behind.
+     */
+    boolean grantNext() {
+      for (Ticket ticket = queue.poll(); ticket != null; ticket = queue.poll()) {
+        if (ticket.grant()) {
+          queued.decrementAndGet();
+          return true;
+        }
+        pending.tryAcquire();
+      }
+      return false;
+    }
+
+    void completed(long nanos) {
+      latency.record(nanos, TimeUnit.NANOSECONDS);
+      (nanos <= sloNanos ? sloMet : sloMissed).increment();
+    }
+
+    private Counter slo(MeterRegistry meterRegistry, String result) {
+      return meterRegistry.counter("image.schedule.slo", "class", tag, "result", result);
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package dev.sagar.artifactory.scheduling;
+
+import java.util.Locale;
+
+/** Scheduling classes in the order they are served; a class only runs when those above are idle. */
+public enum PriorityClass {
+  INTERACTIVE,
+  STANDARD,
+  BACKGROUND;
+
+  private final String tag = name().toLowerCase(Locale.ROOT);
+
+  public String tag() {
+    return tag;
+  }
+
+  /** Case-insensitive lookup; returns {@code null} for unknown names. */
+  public static PriorityClass parse(String name) {
+    for (PriorityClass priority : values()) {
+      if (priority.tag.equalsIgnoreCase(name.strip())) {
+        return priority;
+      }
+    }
+    return null;
+  }
+}
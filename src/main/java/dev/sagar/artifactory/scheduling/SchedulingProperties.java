@@ -0,0 +1,30 @@
+package dev.sagar.artifactory.scheduling;
+
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.scheduling")
+public record SchedulingProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("32") int maxConcurrency,
+    @DefaultValue("standard") PriorityClass defaultClass,
+    @DefaultValue ClassLimits defaults,
+    @DefaultValue Map<PriorityClass, ClassLimits> classes,
+    @DefaultValue Map<String, PriorityClass> apiKeys,
+    @DefaultValue Map<String, Integer> userWeights) {
+
+  public record ClassLimits(
+      @DefaultValue("1000") int maxQueued, @DefaultValue("60s") Duration slo) {}
+
+  public ClassLimits limitsFor(PriorityClass priority) {
+    ClassLimits limits = classes.get(priority);
+    return limits != null ? limits : defaults;
+  }
+
+  public int weightOf(String userId) {
+    Integer weight = userWeights.get(userId);
+    return weight != null && weight > 0 ? weight : 1;
+  }
+}
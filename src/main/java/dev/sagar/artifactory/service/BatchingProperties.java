@@ -0,0 +1,11 @@
+package dev.sagar.artifactory.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.batching")
+public record BatchingProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("25ms") Duration window,
+    @DefaultValue("10") int maxImagesPerCall) {}
@@ -0,0 +1,8 @@
+package dev.sagar.artifactory.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.coalescing")
+public record CoalescingProperties(
+    @DefaultValue("true") boolean enabled, @DefaultValue("100") int maxWaiters) {}
@@ -0,0 +1,35 @@
+package dev.sagar.artifactory.service;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+final class Futures {
+
+  private Futures() {}
+
+  /**
+   * Waits for {@code future}, rethrowing its failure unwrapped. Unlike {@code join}, the wait ends
+   * when the thread is interrupted, so a cancelled request stops waiting on shared work.
+   */
+  static <T> T await(CompletableFuture<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      CancellationException cancelled =
+          new CancellationException("Interrupted while waiting for a shared result");
+      cancelled.initCause(e);
+      throw cancelled;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw new CompletionException(e.getCause());
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package dev.sagar.artifactory.service;
+
+import dev.sagar.artifactory.scheduling.PriorityClass;
+
+/**
+ * Per-request generation switches. {@code flexible} lets the degradation policy serve the request
+ * with a cheaper model, size or quality when the provider is overloaded. A null {@code priority}
+ * means the scheduler's default class.
+ */
+public record GenerationOptions(boolean bypassCache, boolean flexible, PriorityClass priority) {
+
+  public static final GenerationOptions DEFAULT = new GenerationOptions(false, false, null);
+}
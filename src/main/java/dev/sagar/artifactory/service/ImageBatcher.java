@@ -0,0 +1,177 @@
+package dev.sagar.artifactory.service;
+
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.client.Deadline;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import org.springframework.ai.openai.api.OpenAiImageApi;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micro-batching of dall-e-2 requests. Requests from the same user that only differ in image count
+ * are collected for a short window and sent as one provider call with {@code n} set to the
+ * combined count; the returned images are then split between the callers. Users are never mixed,
+ * so the provider call carries the right {@code user}. The caller that opens a batch waits out the
+ * window and makes the call, so no extra threads are involved, and it skips the wait when no other
+ * eligible request is in progress to join it.
+ */
+@Component
+public class ImageBatcher {
+
+  private final boolean enabled;
+  private final long windowNanos;
+  private final int maxImagesPerCall;
+  private final Map<BatchKey, Batch> openBatches = new ConcurrentHashMap<>();
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Counter batchedCounter;
+  private final DistributionSummary batchSize;
+
+  public ImageBatcher(BatchingProperties properties, MeterRegistry meterRegistry) {
+    this.enabled = properties.enabled();
+    this.windowNanos = properties.window().toNanos();
+    this.maxImagesPerCall = properties.maxImagesPerCall();
+    this.batchedCounter =
+        Counter.builder("image.generation.batched")
+            .description("Generation requests merged into another request's provider call")
+            .register(meterRegistry);
+    this.batchSize =
+        DistributionSummary.builder("image.generation.batch.size")
+            .description("Generation requests served per batched provider call")
+            .register(meterRegistry);
+  }
+
+  public boolean isEligible(ImageRequestDTO request) {
+    return enabled
+        && OpenAiImageApi.ImageModel.DALL_E_2.getValue().equalsIgnoreCase(request.model())
+        && request.numImages() < maxImagesPerCall;
+  }
+
+  public List<String> submit(ImageRequestDTO request, IntFunction<List<String>> providerCall) {
+    BatchKey key = batchKey(request);
+    Waiter waiter = new Waiter(request.numImages());
+    pending.incrementAndGet();
+    try {
+      while (true) {
+        Batch created = new Batch();
+        Batch batch = openBatches.computeIfAbsent(key, k -> created);
+        if (batch.tryAdd(waiter, maxImagesPerCall)) {
+          if (batch == created) {
+            lead(key, batch, providerCall);
+          } else {
+            batchedCounter.increment();
+          }
+          return Futures.await(waiter.images);
+        }
+        openBatches.remove(key, batch);
+      }
+    } finally {
+      pending.decrementAndGet();
+    }
+  }
+
+  private void lead(BatchKey key, Batch batch, IntFunction<List<String>> providerCall) {
+    List<Waiter> waiters;
+    int total;
+    List<String> images;
+    try (Deadline.Scope ignored = Deadline.share(batch::isShared)) {
+      // with nothing else in progress no one is likely to join, so waiting would only add latency
+      if (pending.get() > 1) {
+        try {
+          batch.full.await(windowNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      waiters = batch.close();
+      openBatches.remove(key, batch);
+      batchSize.record(waiters.size());
+      if (waiters.size() > 1) {
+        // clear an interrupt from the leader's own cancellation; the other callers need the call
+        Thread.interrupted();
+      }
+
+      total = waiters.stream().mapToInt(Waiter::numImages).sum();
+      try {
+        images = providerCall.apply(total);
+      } catch (RuntimeException | Error e) {
+        waiters.forEach(waiter -> waiter.images.completeExceptionally(e));
+        return;
+      }
+    }
+
+    int offset = 0;
+    for (Waiter waiter : waiters) {
+      int end = offset + waiter.numImages();
+      if (end <= images.size()) {
+        waiter.images.complete(List.copyOf(images.subList(offset, end)));
+      } else {
+        waiter.images.completeExceptionally(
+            new IllegalStateException(
+                "Provider returned " + images.size() + " images for a batch of " + total));
+      }
+      offset = end;
+    }
+  }
+
+  private static BatchKey batchKey(ImageRequestDTO request) {
+    return new BatchKey(
+        request.userId(),
+        RequestKey.from(
+            new ImageRequestDTO(
+                "",
+                request.prompt(),
+                request.model(),
+                request.height(),
+                request.width(),
+                request.quality(),
+                request.style(),
+                1)));
+  }
+
+  private record BatchKey(String userId, RequestKey request) {}
+
+  private record Waiter(int numImages, CompletableFuture<List<String>> images) {
+    Waiter(int numImages) {
+      this(numImages, new CompletableFuture<>());
+    }
+  }
+
+  private static final class Batch {
+    private final List<Waiter> waiters = new ArrayList<>();
+    private final CountDownLatch full = new CountDownLatch(1);
+    private int totalImages;
+    private boolean closed;
+
+    synchronized boolean tryAdd(Waiter waiter, int maxImages) {
+      if (closed || totalImages + waiter.numImages() > maxImages) {
+        return false;
+      }
+      waiters.add(waiter);
+      totalImages += waiter.numImages();
+      if (totalImages == maxImages) {
+        full.countDown();
+      }
+      return true;
+    }
+
+    synchronized boolean isShared() {
+      return waiters.size() > 1;
+    }
+
+    synchronized List<Waiter> close() {
+      closed = true;
+      return List.copyOf(waiters);
+    }
+  }
+}
@@ -1,8 +1,33 @@
 package dev.sagar.artifactory.service;
 
+import dev.sagar.artifactory.cache.ImageCache;
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.cache.SimilarPromptIndex;
+import dev.sagar.artifactory.client.Deadline;
+import dev.sagar.artifactory.cluster.ClusterTier;
+import dev.sagar.artifactory.cluster.PeerResponse;
+import dev.sagar.artifactory.degradation.DegradationPolicy;
+import dev.sagar.artifactory.dto.EffectiveParametersDTO;
 import dev.sagar.artifactory.dto.ImageRequestDTO;
 import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.history.GenerationHistory;
+import dev.sagar.artifactory.limiter.ModelConcurrencyLimiter;
+import dev.sagar.artifactory.observability.PipelineMetrics;
+import dev.sagar.artifactory.observability.PipelineStage;
+import dev.sagar.artifactory.observability.RequestTrace;
+import dev.sagar.artifactory.quota.QuotaEnforcer;
+import dev.sagar.artifactory.scheduling.GenerationScheduler;
+import dev.sagar.artifactory.scheduling.PriorityClass;
+import dev.sagar.artifactory.storage.ImageStore;
 import dev.sagar.artifactory.validator.ImageRequestValidator;
+import dev.sagar.artifactory.warmup.PopularityTracker;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.ai.image.*;
 import org.springframework.ai.image.ImagePrompt;
 import org.springframework.ai.openai.OpenAiImageOptions;
@@ -13,15 +38,326 @@ public class ImageService {
 
   private final ImageModel imageModel;
   private final ImageRequestValidator validator;
+  private final ImageCache imageCache;
+  private final SimilarPromptIndex similarPrompts;
+  private final InFlightRequests inFlightRequests;
+  private final ModelConcurrencyLimiter concurrencyLimiter;
+  private final ImageBatcher imageBatcher;
+  private final ImageStore imageStore;
+  private final QuotaEnforcer quotaEnforcer;
+  private final GenerationHistory generationHistory;
+  private final PipelineMetrics pipelineMetrics;
+  private final PopularityTracker popularity;
+  private final ClusterTier clusterTier;
+  private final DegradationPolicy degradationPolicy;
+  private final GenerationScheduler scheduler;
 
-  public ImageService(ImageModel imageModel, ImageRequestValidator validator) {
+  public ImageService(
+      ImageModel imageModel,
+      ImageRequestValidator validator,
+      ImageCache imageCache,
+      SimilarPromptIndex similarPrompts,
+      InFlightRequests inFlightRequests,
+      ModelConcurrencyLimiter concurrencyLimiter,
+      ImageBatcher imageBatcher,
+      ImageStore imageStore,
+      QuotaEnforcer quotaEnforcer,
+      GenerationHistory generationHistory,
+      PipelineMetrics pipelineMetrics,
+      PopularityTracker popularity,
+      ClusterTier clusterTier,
+      DegradationPolicy degradationPolicy,
+      GenerationScheduler scheduler) {
     this.imageModel = imageModel;
     this.validator = validator;
+    this.imageCache = imageCache;
+    this.similarPrompts = similarPrompts;
+    this.inFlightRequests = inFlightRequests;
+    this.concurrencyLimiter = concurrencyLimiter;
+    this.imageBatcher = imageBatcher;
+    this.imageStore = imageStore;
+    this.quotaEnforcer = quotaEnforcer;
+    this.generationHistory = generationHistory;
+    this.pipelineMetrics = pipelineMetrics;
+    this.popularity = popularity;
+    this.clusterTier = clusterTier;
+    this.degradationPolicy = degradationPolicy;
+    this.scheduler = scheduler;
   }
 
   public ImageResponseDTO generateImages(ImageRequestDTO request) {
+    return generateImages(request, GenerationOptions.DEFAULT);
+  }
+
+  public ImageResponseDTO generateImages(
+      ImageRequestDTO request, GenerationOptions generationOptions) {
+    RequestTrace trace = pipelineMetrics.start(request);
+    try {
+      ImageResponseDTO response =
+          Deadline.cancellable(() -> generateImages(request, generationOptions, trace));
+      pipelineMetrics.finish(trace, null);
+      return response;
+    } catch (RuntimeException e) {
+      pipelineMetrics.finish(trace, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Starts one single-image provider call per requested image on {@code executor}. Each call is
+   * scheduled and may be degraded like a {@code /generate} request, but is not coalesced, batched
+   * or forwarded to a cluster peer, since those would deliver the images together.
+   */
+  public StreamedImages generateImagesConcurrently(
+      ImageRequestDTO request, GenerationOptions generationOptions, Executor executor) {
+    RequestTrace trace = pipelineMetrics.start(request);
+    try {
+      return generateImagesConcurrently(request, generationOptions, executor, trace);
+    } catch (RuntimeException e) {
+      pipelineMetrics.finish(trace, e);
+      throw e;
+    }
+  }
+
+  private ImageResponseDTO generateImages(
+      ImageRequestDTO request, GenerationOptions generationOptions, RequestTrace trace) {
+    pipelineMetrics.run(PipelineStage.VALIDATION, trace, () -> validator.validateRequest(request));
+
+    RequestKey requestedKey = RequestKey.from(request);
+    popularity.record(request, requestedKey);
+    if (!generationOptions.bypassCache()) {
+      Optional<ImageResponseDTO> cached = cachedResponse(request, requestedKey);
+      if (cached.isPresent()) {
+        generationHistory.record(request, cached.get(), true, trace.startNanos());
+        return cached.get();
+      }
+    }
+
+    PriorityClass priority = generationOptions.priority();
+    ImageRequestDTO effective = degradationPolicy.apply(request, generationOptions.flexible());
+    if (effective == request) {
+      return generate(request, requestedKey, priority, trace);
+    }
+    EffectiveParametersDTO parameters = EffectiveParametersDTO.of(effective);
+    RequestKey key = RequestKey.from(effective);
+    if (!generationOptions.bypassCache()) {
+      Optional<ImageResponseDTO> cached = cachedResponse(effective, key);
+      if (cached.isPresent()) {
+        generationHistory.record(effective, cached.get(), true, trace.startNanos());
+        return cached.get().withEffective(parameters);
+      }
+    }
+    return generate(effective, key, priority, trace).withEffective(parameters);
+  }
+
+  private ImageResponseDTO generate(
+      ImageRequestDTO request, RequestKey key, PriorityClass priority, RequestTrace trace) {
+    Deadline.check();
+    quotaEnforcer.enforce(request);
+    ImageResponseDTO response =
+        inFlightRequests.execute(
+            key,
+            () -> {
+              ImageResponseDTO generated =
+                  clusterTier.execute(
+                      request, key, () -> callModelScheduled(request, priority, trace));
+              cacheResponse(request, key, generated);
+              return generated;
+            });
+    generationHistory.record(request, response, false, trace.startNanos());
+    return response;
+  }
+
+  /**
+   * Generates {@code request} ahead of demand and caches the result for {@code ttl}. Warm-up
+   * traffic is scheduled as background work and is not charged to quotas, recorded in history or
+   * counted as popularity. Returns false without calling the provider when the response is already
+   * cached.
+   */
+  public boolean prefetch(ImageRequestDTO request, Duration ttl) {
     validator.validateRequest(request);
+    RequestKey key = RequestKey.from(request);
+    Optional<ImageResponseDTO> cached = imageCache.get(key);
+    if (cached.isPresent()) {
+      if (imageStore.isEnabled()) {
+        imageCache.put(key, cached.get(), ttl);
+      }
+      return false;
+    }
+
+    RequestTrace trace = pipelineMetrics.start(request);
+    try {
+      inFlightRequests.execute(
+          key,
+          () -> {
+            ImageResponseDTO generated =
+                clusterTier.execute(
+                    request,
+                    key,
+                    () -> callModelScheduled(request, PriorityClass.BACKGROUND, trace));
+            imageCache.put(key, generated, ttl);
+            similarPrompts.add(request, key);
+            return generated;
+          });
+      pipelineMetrics.finish(trace, null);
+      return true;
+    } catch (RuntimeException e) {
+      pipelineMetrics.finish(trace, e);
+      throw e;
+    }
+  }
+
+  /**
+   * Serves a request forwarded by a cluster peer that found this node to be the owner of its key.
+   * The peer has already charged the quota and records history, so neither happens here, and the
+   * request is never forwarded again.
+   */
+  public PeerResponse generateForPeer(ImageRequestDTO request) {
+    RequestTrace trace = pipelineMetrics.start(request);
+    try {
+      PeerResponse response =
+          Deadline.cancellable(
+              () -> {
+                pipelineMetrics.run(
+                    PipelineStage.VALIDATION, trace, () -> validator.validateRequest(request));
+                RequestKey key = RequestKey.from(request);
+                Optional<ImageResponseDTO> cached = cachedResponse(request, key);
+                if (cached.isPresent()) {
+                  return new PeerResponse(cached.get(), true);
+                }
+                return new PeerResponse(
+                    inFlightRequests.execute(
+                        key,
+                        () -> {
+                          ImageResponseDTO generated = callModelBatched(request, trace);
+                          cacheResponse(request, key, generated);
+                          return generated;
+                        }),
+                    false);
+              });
+      pipelineMetrics.finish(trace, null);
+      return response;
+    } catch (RuntimeException e) {
+      pipelineMetrics.finish(trace, e);
+      throw e;
+    }
+  }
+
+  private StreamedImages generateImagesConcurrently(
+      ImageRequestDTO request,
+      GenerationOptions generationOptions,
+      Executor executor,
+      RequestTrace trace) {
+    pipelineMetrics.run(PipelineStage.VALIDATION, trace, () -> validator.validateRequest(request));
 
+    RequestKey requestedKey = RequestKey.from(request);
+    popularity.record(request, requestedKey);
+    if (!generationOptions.bypassCache()) {
+      Optional<ImageResponseDTO> cached = cachedResponse(request, requestedKey);
+      if (cached.isPresent()) {
+        generationHistory.record(request, cached.get(), true, trace.startNanos());
+        pipelineMetrics.finish(trace, null);
+        return StreamedImages.completed(cached.get().imageUrlList(), null);
+      }
+    }
+
+    ImageRequestDTO effective = degradationPolicy.apply(request, generationOptions.flexible());
+    EffectiveParametersDTO parameters =
+        effective == request ? null : EffectiveParametersDTO.of(effective);
+    RequestKey key = effective == request ? requestedKey : RequestKey.from(effective);
+    if (parameters != null && !generationOptions.bypassCache()) {
+      Optional<ImageResponseDTO> cached = cachedResponse(effective, key);
+      if (cached.isPresent()) {
+        generationHistory.record(effective, cached.get(), true, trace.startNanos());
+        pipelineMetrics.finish(trace, null);
+        return StreamedImages.completed(cached.get().imageUrlList(), parameters);
+      }
+    }
+
+    Deadline.check();
+    quotaEnforcer.enforce(effective);
+    ImageRequestDTO singleImageRequest = withNumImages(effective, 1);
+    PriorityClass priority = generationOptions.priority();
+    List<CompletableFuture<String>> images = new ArrayList<>(effective.numImages());
+    try {
+      for (int i = 0; i < effective.numImages(); i++) {
+        images.add(
+            CompletableFuture.supplyAsync(
+                Deadline.propagate(
+                    () ->
+                        scheduler
+                            .execute(
+                                priority,
+                                effective.userId(),
+                                () -> callModel(singleImageRequest, trace))
+                            .imageUrlList()
+                            .getFirst()),
+                executor));
+      }
+    } catch (RejectedExecutionException e) {
+      // all or nothing: images still waiting in the queue are skipped once cancelled
+      images.forEach(image -> image.cancel(false));
+      throw e;
+    }
+    CompletableFuture.allOf(images.toArray(CompletableFuture[]::new))
+        .whenComplete(
+            (ignored, error) -> {
+              if (error == null) {
+                ImageResponseDTO response =
+                    new ImageResponseDTO(images.stream().map(CompletableFuture::join).toList());
+                cacheResponse(effective, key, response);
+                generationHistory.record(effective, response, false, trace.startNanos());
+              }
+              pipelineMetrics.finish(trace, error);
+            });
+    return new StreamedImages(images, parameters);
+  }
+
+  private Optional<ImageResponseDTO> cachedResponse(ImageRequestDTO request, RequestKey key) {
+    Optional<ImageResponseDTO> exact = imageCache.get(key);
+    if (exact.isPresent()) {
+      return exact;
+    }
+    return similarPrompts.find(request).flatMap(imageCache::get);
+  }
+
+  private void cacheResponse(ImageRequestDTO request, RequestKey key, ImageResponseDTO response) {
+    imageCache.put(key, response);
+    similarPrompts.add(request, key);
+  }
+
+  /**
+   * Only calls that reach the provider from this node take a scheduler slot; cache hits, coalesced
+   * followers and results served by a cluster peer never wait behind them.
+   */
+  private ImageResponseDTO callModelScheduled(
+      ImageRequestDTO request, PriorityClass priority, RequestTrace trace) {
+    return scheduler.execute(priority, request.userId(), () -> callModelBatched(request, trace));
+  }
+
+  private ImageResponseDTO callModelBatched(ImageRequestDTO request, RequestTrace trace) {
+    if (!imageBatcher.isEligible(request)) {
+      return callModel(request, trace);
+    }
+    return new ImageResponseDTO(
+        imageBatcher.submit(
+            request,
+            numImages -> callModel(withNumImages(request, numImages), trace).imageUrlList()));
+  }
+
+  private static ImageRequestDTO withNumImages(ImageRequestDTO request, int numImages) {
+    return new ImageRequestDTO(
+        request.userId(),
+        request.prompt(),
+        request.model(),
+        request.height(),
+        request.width(),
+        request.quality(),
+        request.style(),
+        numImages);
+  }
+
+  public OpenAiImageOptions buildOptions(ImageRequestDTO request) {
     OpenAiImageOptions options =
         OpenAiImageOptions.builder()
             .withUser(request.userId())
@@ -32,13 +368,37 @@ public class ImageService {
             .withStyle(request.style())
             .withN(request.numImages())
             .build();
+    if (imageStore.requestsBase64()) {
+      options.setResponseFormat("b64_json");
+    }
+    return options;
+  }
 
-    ImagePrompt imagePrompt = new ImagePrompt(request.prompt(), options);
-    ImageResponse imageResponse = imageModel.call(imagePrompt);
+  private ImageResponseDTO callModel(ImageRequestDTO request, RequestTrace trace) {
+    ImagePrompt imagePrompt =
+        pipelineMetrics.time(
+            PipelineStage.OPTIONS,
+            trace,
+            () -> new ImagePrompt(request.prompt(), buildOptions(request)));
+    long queuedAt = System.nanoTime();
+    ImageResponse imageResponse =
+        concurrencyLimiter.call(
+            request.model(),
+            () -> {
+              pipelineMetrics.record(
+                  PipelineStage.ADMISSION, trace, System.nanoTime() - queuedAt, null);
+              Deadline.check();
+              return pipelineMetrics.time(
+                  PipelineStage.PROVIDER, trace, () -> imageModel.call(imagePrompt));
+            });
 
-    return new ImageResponseDTO(
-        imageResponse.getResults().stream()
-            .map(imageGeneration -> imageGeneration.getOutput().getUrl())
-            .toList());
+    return pipelineMetrics.time(
+        PipelineStage.MAPPING,
+        trace,
+        () ->
+            new ImageResponseDTO(
+                imageResponse.getResults().stream()
+                    .map(imageGeneration -> imageStore.materialize(imageGeneration.getOutput()))
+                    .toList()));
   }
 }
@@ -0,0 +1,118 @@
+package dev.sagar.artifactory.service;
+
+import dev.sagar.artifactory.client.Deadline;
+import dev.sagar.artifactory.config.WorkerThreads;
+import dev.sagar.artifactory.dto.ErrorDTO;
+import dev.sagar.artifactory.dto.ImageEventDTO;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.exception.ConcurrencyLimitExceededException;
+import dev.sagar.artifactory.exception.ErrorCodes;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@Service
+public class ImageStreamService {
+
+  private final ImageService imageService;
+  private final ExecutorService executor;
+  private final long timeoutMillis;
+
+  public ImageStreamService(
+      ImageService imageService,
+      StreamingProperties properties,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    this.imageService = imageService;
+    this.executor =
+        ExecutorServiceMetrics.monitor(
+            meterRegistry,
+            new ThreadPoolExecutor(
+                properties.workers(),
+                properties.workers(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                WorkerThreads.factory(environment, "image-stream-")),
+            "image.stream");
+    this.timeoutMillis = properties.timeout().toMillis();
+  }
+
+  public SseEmitter streamImages(ImageRequestDTO request, GenerationOptions generationOptions) {
+    StreamedImages streamed;
+    try {
+      streamed = imageService.generateImagesConcurrently(request, generationOptions, executor);
+    } catch (RejectedExecutionException e) {
+      throw new ConcurrencyLimitExceededException(
+          "Too many streamed images in progress, retry later");
+    }
+    Deadline deadline = Deadline.current();
+    SseEmitter emitter =
+        new SseEmitter(
+            deadline == null
+                ? timeoutMillis
+                : Math.max(1, Math.min(timeoutMillis, deadline.remainingMillis())));
+    if (deadline != null) {
+      emitter.onTimeout(() -> deadline.cancel(Deadline.Cancellation.DEADLINE_EXCEEDED));
+      emitter.onError(error -> deadline.cancel(Deadline.Cancellation.CLIENT_DISCONNECTED));
+    }
+
+    if (streamed.effective() != null) {
+      send(emitter, deadline, "effective", streamed.effective());
+    }
+    List<CompletableFuture<String>> images = streamed.images();
+    CompletableFuture<?>[] sent = new CompletableFuture<?>[images.size()];
+    for (int i = 0; i < images.size(); i++) {
+      int index = i;
+      sent[i] =
+          images
+              .get(i)
+              .thenAccept(
+                  imageUrl ->
+                      send(emitter, deadline, "image", new ImageEventDTO(index, imageUrl)));
+    }
+    CompletableFuture.allOf(sent)
+        .whenComplete(
+            (ignored, error) -> {
+              if (error == null) {
+                send(emitter, deadline, "done", "");
+              } else {
+                send(emitter, deadline, "error", toErrorDTO(error));
+              }
+              emitter.complete();
+            });
+    return emitter;
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdown();
+  }
+
+  private static void send(SseEmitter emitter, Deadline deadline, String eventName, Object data) {
+    try {
+      emitter.send(SseEmitter.event().name(eventName).data(data));
+    } catch (IOException | IllegalStateException e) {
+      // the client has gone away or the emitter timed out; stop generating the remaining images
+      if (deadline != null) {
+        deadline.cancel(Deadline.Cancellation.CLIENT_DISCONNECTED);
+      }
+    }
+  }
+
+  private static ErrorDTO toErrorDTO(Throwable error) {
+    return ErrorCodes.toErrorDTO(error instanceof CompletionException ? error.getCause() : error);
+  }
+}
@@ -0,0 +1,85 @@
+package dev.sagar.artifactory.service;
+
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.client.Deadline;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single-flight execution of identical generation requests. The first caller for a key runs the
+ * provider call; callers arriving while it is pending wait on the same result instead of issuing
+ * their own call. A waiter whose request is cancelled stops waiting, and the leader's call is not
+ * interrupted by its own cancellation while others are waiting on it.
+ */
+@Component
+public class InFlightRequests {
+
+  private final boolean enabled;
+  private final int maxWaiters;
+  private final Map<RequestKey, Flight> flights = new ConcurrentHashMap<>();
+  private final Counter coalescedCounter;
+  private final Counter overflowCounter;
+
+  public InFlightRequests(CoalescingProperties properties, MeterRegistry meterRegistry) {
+    this.enabled = properties.enabled();
+    this.maxWaiters = properties.maxWaiters();
+    this.coalescedCounter =
+        Counter.builder("image.generation.coalesced")
+            .description("Generation requests served by an identical in-flight provider call")
+            .register(meterRegistry);
+    this.overflowCounter =
+        Counter.builder("image.generation.coalesced.overflow")
+            .description("Generation requests that found a full in-flight call and ran their own")
+            .register(meterRegistry);
+    meterRegistry.gaugeMapSize("image.generation.inflight", Tags.empty(), flights);
+  }
+
+  public ImageResponseDTO execute(RequestKey key, Supplier<ImageResponseDTO> call) {
+    if (!enabled) {
+      return call.get();
+    }
+
+    Flight flight = new Flight();
+    Flight existing = flights.putIfAbsent(key, flight);
+    if (existing == null) {
+      return lead(key, flight, call);
+    }
+    if (existing.waiters.incrementAndGet() > maxWaiters) {
+      existing.waiters.decrementAndGet();
+      overflowCounter.increment();
+      return call.get();
+    }
+    coalescedCounter.increment();
+    try {
+      return Futures.await(existing.result);
+    } finally {
+      existing.waiters.decrementAndGet();
+    }
+  }
+
+  private ImageResponseDTO lead(RequestKey key, Flight flight, Supplier<ImageResponseDTO> call) {
+    try (Deadline.Scope ignored = Deadline.share(() -> flight.waiters.get() > 0)) {
+      ImageResponseDTO response = call.get();
+      flight.result.complete(response);
+      return response;
+    } catch (RuntimeException | Error e) {
+      flight.result.completeExceptionally(e);
+      throw e;
+    } finally {
+      flights.remove(key, flight);
+    }
+  }
+
+  private static final class Flight {
+    private final CompletableFuture<ImageResponseDTO> result = new CompletableFuture<>();
+    private final AtomicInteger waiters = new AtomicInteger();
+  }
+}
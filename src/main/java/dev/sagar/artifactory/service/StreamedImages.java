@@ -0,0 +1,18 @@
+package dev.sagar.artifactory.service;
+
+import dev.sagar.artifactory.dto.EffectiveParametersDTO;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Images of a streamed request in request order, each completing as soon as it is generated.
+ * {@code effective} is set when the degradation policy changed the parameters, and null otherwise.
+ */
+public record StreamedImages(
+    List<CompletableFuture<String>> images, EffectiveParametersDTO effective) {
+
+  static StreamedImages completed(List<String> imageUrls, EffectiveParametersDTO effective) {
+    return new StreamedImages(
+        imageUrls.stream().map(CompletableFuture::completedFuture).toList(), effective);
+  }
+}
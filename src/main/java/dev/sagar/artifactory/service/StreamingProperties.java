@@ -0,0 +1,11 @@
+package dev.sagar.artifactory.service;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.streaming")
+public record StreamingProperties(
+    @DefaultValue("32") int workers,
+    @DefaultValue("256") int queueCapacity,
+    @DefaultValue("2m") Duration timeout) {}
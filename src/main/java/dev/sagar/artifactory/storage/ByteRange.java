@@ -0,0 +1,56 @@
+package dev.sagar.artifactory.storage;
+
+import java.util.Optional;
+
+/** Inclusive byte range resolved against a known content length. */
+public record ByteRange(long start, long end) {
+
+  public long length() {
+    return end - start + 1;
+  }
+
+  /**
+   * Parses a single-range {@code Range} header. Returns empty for headers that should be ignored
+   * (absent, not a bytes range, or multiple ranges) and throws for ranges that cannot be satisfied.
+   */
+  public static Optional<ByteRange> parse(String header, long contentLength) {
+    if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+      return Optional.empty();
+    }
+    String spec = header.substring("bytes=".length()).trim();
+    int dash = spec.indexOf('-');
+    if (dash < 0) {
+      return Optional.empty();
+    }
+    try {
+      String first = spec.substring(0, dash).trim();
+      String last = spec.substring(dash + 1).trim();
+      long start;
+      long end;
+      if (first.isEmpty()) {
+        long suffix = Long.parseLong(last);
+        if (suffix <= 0) {
+          throw new UnsatisfiableRangeException();
+        }
+        start = Math.max(0, contentLength - suffix);
+        end = contentLength - 1;
+      } else {
+        start = Long.parseLong(first);
+        end =
+            last.isEmpty() ? contentLength - 1 : Math.min(Long.parseLong(last), contentLength - 1);
+      }
+      if (start >= contentLength || start > end) {
+        throw new UnsatisfiableRangeException();
+      }
+      return Optional.of(new ByteRange(start, end));
+    } catch (NumberFormatException e) {
+      return Optional.empty();
+    }
+  }
+
+  public static class UnsatisfiableRangeException extends RuntimeException {
+    UnsatisfiableRangeException() {
+      super("Requested range not satisfiable");
+    }
+  }
+}
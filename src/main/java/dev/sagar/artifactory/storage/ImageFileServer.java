@@ -0,0 +1,129 @@
+package dev.sagar.artifactory.storage;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+/**
+ * Serves stored images with ETag and single-range support. File bodies are handed to Tomcat's
+ * sendfile support when the connector offers it and are otherwise copied with {@link
+ * FileChannel#transferTo}, so file contents are never read into the heap.
+ */
+@Component
+public class ImageFileServer {
+
+  private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  public void serve(
+      Path path, String hash, HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    ByteRange range = prepare(Files.size(path), MediaTypes.detect(path), hash, request, response);
+    if (range == null) {
+      return;
+    }
+
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, path.toRealPath().toString());
+      request.setAttribute(SENDFILE_START, range.start());
+      request.setAttribute(SENDFILE_END, range.end() + 1);
+      return;
+    }
+
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      long position = range.start();
+      long remaining = range.length();
+      while (remaining > 0) {
+        long transferred = channel.transferTo(position, remaining, out);
+        if (transferred <= 0) {
+          break;
+        }
+        position += transferred;
+        remaining -= transferred;
+      }
+    }
+  }
+
+  /** Serves an in-memory body, such as a cached rendition, with the same headers as a file. */
+  public void serve(
+      ByteBuffer body,
+      MediaType mediaType,
+      String tag,
+      HttpServletRequest request,
+      HttpServletResponse response)
+      throws IOException {
+    ByteBuffer content = body.duplicate();
+    ByteRange range = prepare(content.remaining(), mediaType, tag, request, response);
+    if (range == null) {
+      return;
+    }
+    content.position(content.position() + (int) range.start());
+    content.limit(content.position() + (int) range.length());
+    WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+    while (content.hasRemaining()) {
+      out.write(content);
+    }
+  }
+
+  /**
+   * Writes the caching and range headers, answering conditional and unsatisfiable requests
+   * directly. Returns the range to send, or null when no body should be written.
+   */
+  private static ByteRange prepare(
+      long contentLength,
+      MediaType mediaType,
+      String tag,
+      HttpServletRequest request,
+      HttpServletResponse response) {
+    String etag = "\"" + tag + "\"";
+    response.setHeader(HttpHeaders.ETAG, etag);
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+
+    String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+    if (ifNoneMatch != null && (ifNoneMatch.equals("*") || ifNoneMatch.contains(etag))) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return null;
+    }
+
+    ByteRange range = new ByteRange(0, contentLength - 1);
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (ifRange == null || ifRange.equals(etag)) {
+      try {
+        ByteRange requested =
+            ByteRange.parse(request.getHeader(HttpHeaders.RANGE), contentLength).orElse(null);
+        if (requested != null) {
+          range = requested;
+          response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+          response.setHeader(
+              HttpHeaders.CONTENT_RANGE,
+              "bytes " + range.start() + "-" + range.end() + "/" + contentLength);
+        }
+      } catch (ByteRange.UnsatisfiableRangeException e) {
+        response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + contentLength);
+        return null;
+      }
+    }
+
+    response.setContentType(mediaType.toString());
+    response.setContentLengthLong(range.length());
+    if ("HEAD".equals(request.getMethod()) || range.length() <= 0) {
+      return null;
+    }
+    return range;
+  }
+}
@@ -0,0 +1,141 @@
+package dev.sagar.artifactory.storage;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import org.springframework.ai.image.Image;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+/**
+ * Content-addressed image files. Provider output is streamed straight to a temporary file while
+ * its SHA-256 is computed, then moved to {@code <directory>/<first two hex chars>/<hash>}, so image
+ * bytes never have to be buffered in the heap.
+ */
+@Component
+public class ImageStore {
+
+  public static final String PATH_PREFIX = "/api/v1/images/";
+  private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+
+  private final StorageProperties properties;
+  private final RestClient restClient;
+
+  public ImageStore(StorageProperties properties, RestClient.Builder restClientBuilder) {
+    this.properties = properties;
+    this.restClient = restClientBuilder.build();
+  }
+
+  public boolean isEnabled() {
+    return properties.enabled();
+  }
+
+  public boolean requestsBase64() {
+    return properties.enabled() && properties.requestsBase64();
+  }
+
+  public String materialize(Image image) {
+    if (!properties.enabled()) {
+      return image.getUrl();
+    }
+    String hash;
+    if (image.getB64Json() != null) {
+      hash = storeBase64(image.getB64Json());
+    } else {
+      hash = download(URI.create(image.getUrl()));
+    }
+    return properties.publicBaseUrl() + PATH_PREFIX + hash;
+  }
+
+  public Optional<Path> find(String hash) {
+    if (!HASH.matcher(hash).matches()) {
+      return Optional.empty();
+    }
+    Path path = pathFor(hash);
+    return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+  }
+
+  String storeBase64(String base64) {
+    try (InputStream in =
+        Base64.getDecoder()
+            .wrap(new ByteArrayInputStream(base64.getBytes(StandardCharsets.ISO_8859_1)))) {
+      return store(in);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to store generated image", e);
+    }
+  }
+
+  private String download(URI uri) {
+    return restClient
+        .get()
+        .uri(uri)
+        .exchange(
+            (request, response) -> {
+              if (!response.getStatusCode().is2xxSuccessful()) {
+                throw new IOException(
+                    "Downloading generated image failed with " + response.getStatusCode());
+              }
+              try (InputStream in = response.getBody()) {
+                return store(in);
+              }
+            });
+  }
+
+  private String store(InputStream in) throws IOException {
+    Files.createDirectories(properties.directory());
+    Path temp = Files.createTempFile(properties.directory(), "upload-", ".tmp");
+    try {
+      MessageDigest digest = sha256();
+      try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+        in.transferTo(out);
+      }
+      String hash = HexFormat.of().formatHex(digest.digest());
+      Path target = pathFor(hash);
+      if (!Files.exists(target)) {
+        Files.createDirectories(target.getParent());
+        moveIntoPlace(temp, target);
+      }
+      return hash;
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  private static void moveIntoPlace(Path temp, Path target) throws IOException {
+    try {
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (FileAlreadyExistsException e) {
+      // stored concurrently by another request; the content is identical
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private Path pathFor(String hash) {
+    return properties.directory().resolve(hash.substring(0, 2)).resolve(hash);
+  }
+
+  private static MessageDigest sha256() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package dev.sagar.artifactory.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.springframework.http.MediaType;
+
+final class MediaTypes {
+
+  private MediaTypes() {}
+
+  static MediaType detect(Path path) throws IOException {
+    byte[] header = new byte[12];
+    int read;
+    try (InputStream in = Files.newInputStream(path)) {
+      read = in.readNBytes(header, 0, header.length);
+    }
+    if (read >= 4 && (header[0] & 0xff) == 0x89 && header[1] == 'P' && header[2] == 'N') {
+      return MediaType.IMAGE_PNG;
+    }
+    if (read >= 3 && (header[0] & 0xff) == 0xff && (header[1] & 0xff) == 0xd8) {
+      return MediaType.IMAGE_JPEG;
+    }
+    if (read >= 12 && header[0] == 'R' && header[8] == 'W' && header[9] == 'E') {
+      return MediaType.parseMediaType("image/webp");
+    }
+    return MediaType.APPLICATION_OCTET_STREAM;
+  }
+}
@@ -0,0 +1,17 @@
+package dev.sagar.artifactory.storage;
+
+import java.nio.file.Path;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.storage")
+public record StorageProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("data/images") Path directory,
+    @DefaultValue("url") String responseFormat,
+    @DefaultValue("") String publicBaseUrl) {
+
+  public boolean requestsBase64() {
+    return "b64_json".equalsIgnoreCase(responseFormat);
+  }
+}
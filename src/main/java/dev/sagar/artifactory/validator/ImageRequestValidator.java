@@ -2,72 +2,91 @@ package dev.sagar.artifactory.validator;
 
 import dev.sagar.artifactory.dto.ImageRequestDTO;
 import dev.sagar.artifactory.exception.InvalidParameterException;
-import java.util.Set;
-import org.springframework.ai.openai.api.OpenAiImageApi;
 import org.springframework.stereotype.Component;
 
 @Component
 public class ImageRequestValidator {
 
-  public static final Set<String> VALID_MODELS =
-      Set.of(
-          OpenAiImageApi.ImageModel.DALL_E_2.getValue(),
-          OpenAiImageApi.ImageModel.DALL_E_3.getValue());
-
-  public static final Set<String> VALID_QUALITIES = Set.of("standard", "hd");
-  public static final Set<String> VALID_STYLES = Set.of("natural", "vivid");
-  public static final Set<String> DALL_E_2_VALID_DIMENSIONS =
-      Set.of("256x256", "512x512", "1024x1024");
-  public static final Set<String> DALL_E_3_VALID_DIMENSIONS =
-      Set.of("1024x1024", "1792x1024", "1024x1792");
+  private static final InvalidParameterException INVALID_MODEL =
+      preallocated("Invalid model. Must be 'dall-e-2' or 'dall-e-3'");
+  private static final InvalidParameterException INVALID_DALL_E_2_DIMENSIONS =
+      preallocated(
+          "Invalid dimensions for DALL-E 2. Must be one of: "
+              + ModelCapabilities.DALL_E_2.dimensionList());
+  private static final InvalidParameterException INVALID_DALL_E_3_DIMENSIONS =
+      preallocated(
+          "Invalid dimensions for DALL-E 3. Must be one of: "
+              + ModelCapabilities.DALL_E_3.dimensionList());
+  private static final InvalidParameterException INVALID_QUALITY =
+      preallocated("Invalid quality. Must be 'standard' or 'hd'");
+  private static final InvalidParameterException HD_NOT_SUPPORTED =
+      preallocated("HD quality is only supported for dall-e-3 model");
+  private static final InvalidParameterException INVALID_STYLE =
+      preallocated("Invalid style. Must be 'natural' or 'vivid'");
+  private static final InvalidParameterException INVALID_DALL_E_2_NUM_IMAGES =
+      preallocated("For dall-e-2, number of images must be between 1 and 10");
+  private static final InvalidParameterException INVALID_DALL_E_3_NUM_IMAGES =
+      preallocated("For dall-e-3, number of images must be 1");
 
   public void validateRequest(ImageRequestDTO request) {
-    validateModel(request.model());
-    validateDimensions(request.model(), request.width(), request.height());
-    validateQuality(request.model(), request.quality());
+    ModelCapabilities capabilities = validateModel(request.model());
+    validateDimensions(capabilities, request.width(), request.height());
+    validateQuality(capabilities, request.quality());
     validateStyle(request.style());
-    validateNumImages(request.model(), request.numImages());
+    validateNumImages(capabilities, request.numImages());
   }
 
-  private void validateModel(String model) {
-    if (!VALID_MODELS.contains(model.toLowerCase())) {
-      throw new InvalidParameterException("Invalid model. Must be 'dall-e-2' or 'dall-e-3'");
+  /** Whether {@code request} passes {@link #validateRequest}, without throwing. */
+  public boolean accepts(ImageRequestDTO request) {
+    try {
+      validateRequest(request);
+      return true;
+    } catch (InvalidParameterException e) {
+      return false;
     }
   }
 
-  private void validateDimensions(String model, int width, int height) {
-    String dimensions = width + "x" + height;
-    if (OpenAiImageApi.ImageModel.DALL_E_2.getValue().equalsIgnoreCase(model)
-        && !DALL_E_2_VALID_DIMENSIONS.contains(dimensions)) {
-      throw new InvalidParameterException(
-          "Invalid dimensions for DALL-E 2. Must be one of: " + DALL_E_2_VALID_DIMENSIONS);
+  private ModelCapabilities validateModel(String model) {
+    ModelCapabilities capabilities = ModelCapabilities.find(model);
+    if (capabilities == null) {
+      throw INVALID_MODEL;
     }
-    if (OpenAiImageApi.ImageModel.DALL_E_3.getValue().equalsIgnoreCase(model)
-        && !DALL_E_3_VALID_DIMENSIONS.contains(dimensions)) {
-      throw new InvalidParameterException(
-          "Invalid dimensions for DALL-E 3. Must be one of: " + DALL_E_3_VALID_DIMENSIONS);
+    return capabilities;
+  }
+
+  private void validateDimensions(ModelCapabilities capabilities, int width, int height) {
+    if (!capabilities.supportsDimensions(width, height)) {
+      throw capabilities == ModelCapabilities.DALL_E_2
+          ? INVALID_DALL_E_2_DIMENSIONS
+          : INVALID_DALL_E_3_DIMENSIONS;
     }
   }
 
-  private void validateQuality(String model, String quality) {
-    if (!VALID_QUALITIES.contains(quality)) {
-      throw new InvalidParameterException("Invalid quality. Must be 'standard' or 'hd'");
+  private void validateQuality(ModelCapabilities capabilities, String quality) {
+    boolean hd = "hd".equals(quality);
+    if (!hd && !"standard".equals(quality)) {
+      throw INVALID_QUALITY;
     }
-    if ("hd".equalsIgnoreCase(quality)
-        && !OpenAiImageApi.ImageModel.DALL_E_3.getValue().equalsIgnoreCase(model)) {
-      throw new InvalidParameterException("HD quality is only supported for dall-e-3 model");
+    if (hd && !capabilities.supportsHd()) {
+      throw HD_NOT_SUPPORTED;
     }
   }
 
   private void validateStyle(String style) {
-    if (!VALID_STYLES.contains(style)) {
-      throw new InvalidParameterException("Invalid style. Must be 'natural' or 'vivid'");
+    if (!"natural".equals(style) && !"vivid".equals(style)) {
+      throw INVALID_STYLE;
     }
   }
 
-  private void validateNumImages(String model, int numImages) {
-    if (OpenAiImageApi.ImageModel.DALL_E_3.getValue().equals(model) && numImages != 1) {
-      throw new InvalidParameterException("For dall-e-3, number of images must be 1");
+  private void validateNumImages(ModelCapabilities capabilities, int numImages) {
+    if (numImages < 1 || numImages > capabilities.maxImages()) {
+      throw capabilities == ModelCapabilities.DALL_E_2
+          ? INVALID_DALL_E_2_NUM_IMAGES
+          : INVALID_DALL_E_3_NUM_IMAGES;
     }
   }
+
+  private static InvalidParameterException preallocated(String message) {
+    return new InvalidParameterException(message, false);
+  }
 }
@@ -0,0 +1,87 @@
+package dev.sagar.artifactory.validator;
+
+import org.springframework.ai.openai.api.OpenAiImageApi;
+
+/**
+ * Per-model rules for image requests. Supported sizes are packed as {@code width << 16 | height} so
+ * a lookup is a scan over a few ints instead of building a {@code "WxH"} string.
+ */
+public enum ModelCapabilities {
+  DALL_E_2(
+      OpenAiImageApi.ImageModel.DALL_E_2.getValue(),
+      new int[][] {{256, 256}, {512, 512}, {1024, 1024}},
+      false,
+      10),
+  DALL_E_3(
+      OpenAiImageApi.ImageModel.DALL_E_3.getValue(),
+      new int[][] {{1024, 1024}, {1792, 1024}, {1024, 1792}},
+      true,
+      1);
+
+  private static final ModelCapabilities[] VALUES = values();
+
+  private final String modelName;
+  private final int[] packedDimensions;
+  private final boolean hdSupported;
+  private final int maxImages;
+
+  ModelCapabilities(String modelName, int[][] dimensions, boolean hdSupported, int maxImages) {
+    this.modelName = modelName;
+    this.packedDimensions = new int[dimensions.length];
+    for (int i = 0; i < dimensions.length; i++) {
+      packedDimensions[i] = pack(dimensions[i][0], dimensions[i][1]);
+    }
+    this.hdSupported = hdSupported;
+    this.maxImages = maxImages;
+  }
+
+  /** Case-insensitive lookup; returns {@code null} for unknown models. */
+  public static ModelCapabilities find(String model) {
+    for (ModelCapabilities capabilities : VALUES) {
+      if (capabilities.modelName.equalsIgnoreCase(model)) {
+        return capabilities;
+      }
+    }
+    return null;
+  }
+
+  public String modelName() {
+    return modelName;
+  }
+
+  public boolean supportsDimensions(int width, int height) {
+    int packed = pack(width, height);
+    for (int supported : packedDimensions) {
+      if (supported == packed) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public boolean supportsHd() {
+    return hdSupported;
+  }
+
+  public int maxImages() {
+    return maxImages;
+  }
+
+  String dimensionList() {
+    StringBuilder list = new StringBuilder("[");
+    for (int i = 0; i < packedDimensions.length; i++) {
+      if (i > 0) {
+        list.append(", ");
+      }
+      list.append(packedDimensions[i] >>> 16).append('x').append(packedDimensions[i] & 0xffff);
+    }
+    return list.append(']').toString();
+  }
+
+  private static int pack(int width, int height) {
+    if (width < 0 || width > 0xffff || height < 0 || height > 0xffff) {
+      return -1;
+    }
+    return width << 16 | height;
+  }
+}
@@ -0,0 +1,151 @@
+package dev.sagar.artifactory.warmup;
+
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.springframework.stereotype.Component;
+
+/**
+ * Learns which requests are popular. Every request increments a count-min sketch keyed on its
+ * {@link RequestKey}; requests whose estimate beats the weakest tracked candidate replace it, so
+ * the candidate set converges on the heavy hitters while memory stays fixed. Counts are halved
+ * after every warm-up run so that older traffic fades out.
+ */
+@Component
+public class PopularityTracker {
+
+  private static final int DEPTH = 4;
+  private static final int CANDIDATES_PER_SLOT = 4;
+
+  private final WarmupProperties properties;
+  private final int mask;
+  private final AtomicIntegerArray counts;
+  private final int capacity;
+  private final Map<RequestKey, ImageRequestDTO> candidates = new ConcurrentHashMap<>();
+  private volatile int admissionThreshold;
+
+  public PopularityTracker(WarmupProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    int width = Integer.highestOneBit(Math.max(properties.sketchWidth() - 1, 1)) << 1;
+    this.mask = width - 1;
+    this.counts = new AtomicIntegerArray(properties.enabled() ? DEPTH * width : 0);
+    this.capacity = properties.topK() * CANDIDATES_PER_SLOT;
+    Gauge.builder("image.warmup.candidates", candidates, Map::size).register(meterRegistry);
+  }
+
+  public void record(ImageRequestDTO request, RequestKey key) {
+    if (!properties.enabled()) {
+      return;
+    }
+    long hash = hash(key);
+    int estimate = Integer.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      estimate = Math.min(estimate, counts.incrementAndGet(index(hash, row)));
+    }
+    if (candidates.containsKey(key)) {
+      return;
+    }
+    if (candidates.size() < capacity || estimate > admissionThreshold) {
+      admit(key, request, estimate);
+    }
+  }
+
+  /** Returns up to {@code limit} requests seen at least {@code minCount} times, most seen first. */
+  public List<ImageRequestDTO> top(int limit, int minCount) {
+    record Ranked(ImageRequestDTO request, int estimate) {}
+    List<Ranked> ranked = new ArrayList<>();
+    candidates.forEach(
+        (key, request) -> {
+          int estimate = estimate(key);
+          if (estimate >= minCount) {
+            ranked.add(new Ranked(request, estimate));
+          }
+        });
+    return ranked.stream()
+        .sorted(Comparator.comparingInt(Ranked::estimate).reversed())
+        .limit(limit)
+        .map(Ranked::request)
+        .toList();
+  }
+
+  /** Halves every count and forgets candidates that are no longer seen. */
+  public synchronized void decay() {
+    for (int i = 0; i < counts.length(); i++) {
+      counts.getAndUpdate(i, count -> count >>> 1);
+    }
+    candidates.keySet().removeIf(key -> estimate(key) == 0);
+    admissionThreshold = minEstimate();
+  }
+
+  int estimate(RequestKey key) {
+    long hash = hash(key);
+    int estimate = Integer.MAX_VALUE;
+    for (int row = 0; row < DEPTH; row++) {
+      estimate = Math.min(estimate, counts.get(index(hash, row)));
+    }
+    return estimate;
+  }
+
+  private synchronized void admit(RequestKey key, ImageRequestDTO request, int estimate) {
+    if (candidates.containsKey(key)) {
+      return;
+    }
+    if (candidates.size() >= capacity) {
+      RequestKey weakest = null;
+      int weakestEstimate = Integer.MAX_VALUE;
+      for (RequestKey candidate : candidates.keySet()) {
+        int candidateEstimate = estimate(candidate);
+        if (candidateEstimate < weakestEstimate) {
+          weakest = candidate;
+          weakestEstimate = candidateEstimate;
+        }
+      }
+      if (weakest == null || weakestEstimate >= estimate) {
+        admissionThreshold = weakestEstimate;
+        return;
+      }
+      candidates.remove(weakest);
+    }
+    candidates.put(key, normalize(request));
+    if (candidates.size() >= capacity) {
+      admissionThreshold = minEstimate();
+    }
+  }
+
+  private int minEstimate() {
+    int min = Integer.MAX_VALUE;
+    for (RequestKey candidate : candidates.keySet()) {
+      min = Math.min(min, estimate(candidate));
+    }
+    return min == Integer.MAX_VALUE ? 0 : min;
+  }
+
+  private ImageRequestDTO normalize(ImageRequestDTO request) {
+    return new ImageRequestDTO(
+        properties.userId(),
+        request.prompt().strip(),
+        request.model(),
+        request.height(),
+        request.width(),
+        request.quality(),
+        request.style(),
+        request.numImages());
+  }
+
+  private int index(long hash, int row) {
+    int h1 = (int) hash;
+    int h2 = (int) (hash >>> 32);
+    return row * (mask + 1) + ((h1 + row * h2) & mask);
+  }
+
+  private static long hash(RequestKey key) {
+    return Long.parseUnsignedLong(key.hash().substring(0, 16), 16);
+  }
+}
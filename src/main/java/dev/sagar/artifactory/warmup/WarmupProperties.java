@@ -0,0 +1,18 @@
+package dev.sagar.artifactory.warmup;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "artifactory.warmup")
+public record WarmupProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("0 0 5 * * *") String cron,
+    @DefaultValue("1h") Duration window,
+    @DefaultValue("200") int maxImages,
+    @DefaultValue("200") int topK,
+    @DefaultValue("3") int minCount,
+    @DefaultValue("2") int maxConcurrency,
+    @DefaultValue("12h") Duration stagedTtl,
+    @DefaultValue("65536") int sketchWidth,
+    @DefaultValue("artifactory-warmup") String userId) {}
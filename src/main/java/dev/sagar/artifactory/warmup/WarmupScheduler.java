@@ -0,0 +1,177 @@
+package dev.sagar.artifactory.warmup;
+
+import dev.sagar.artifactory.cache.ImageCacheProperties;
+import dev.sagar.artifactory.config.WorkerThreads;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.service.ImageService;
+import dev.sagar.artifactory.storage.ImageStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pre-generates the most popular requests during the configured off-peak window so that peak
+ * traffic is served from the cache. Each run stops when the image budget is spent or the window
+ * closes, whichever comes first.
+ */
+@Component
+public class WarmupScheduler {
+
+  private static final Logger log = LoggerFactory.getLogger(WarmupScheduler.class);
+
+  private final WarmupProperties properties;
+  private final PopularityTracker popularity;
+  private final ImageService imageService;
+  private final Duration stagedTtl;
+  private final CronExpression cron;
+  private final ScheduledExecutorService scheduler;
+  private final ExecutorService workers;
+  private final Counter generated;
+  private final Counter alreadyCached;
+  private final Counter failed;
+  private final Counter images;
+  private final Timer runs;
+
+  public WarmupScheduler(
+      WarmupProperties properties,
+      PopularityTracker popularity,
+      ImageService imageService,
+      ImageStore imageStore,
+      ImageCacheProperties cacheProperties,
+      Environment environment,
+      MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.popularity = popularity;
+    this.imageService = imageService;
+    // Provider URLs expire after about an hour, so only stored images may outlive the cache TTL.
+    this.stagedTtl =
+        imageStore.isEnabled() || properties.stagedTtl().compareTo(cacheProperties.ttl()) < 0
+            ? properties.stagedTtl()
+            : cacheProperties.ttl();
+    this.cron = CronExpression.parse(properties.cron());
+    this.generated = outcome(meterRegistry, "generated");
+    this.alreadyCached = outcome(meterRegistry, "cached");
+    this.failed = outcome(meterRegistry, "failed");
+    this.images = meterRegistry.counter("image.warmup.images");
+    this.runs = meterRegistry.timer("image.warmup.run");
+    if (properties.enabled()) {
+      this.scheduler =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "cache-warmup");
+                thread.setDaemon(true);
+                return thread;
+              });
+      this.workers = WorkerThreads.unboundedExecutor(environment, "cache-warmup-");
+      scheduleNext();
+    } else {
+      this.scheduler = null;
+      this.workers = null;
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      workers.shutdownNow();
+    }
+  }
+
+  /** Runs one warm-up pass and returns the number of images generated. */
+  int runOnce() throws InterruptedException {
+    long started = System.nanoTime();
+    long deadline = started + properties.window().toNanos();
+    AtomicInteger remaining = new AtomicInteger(properties.maxImages());
+    Semaphore permits = new Semaphore(properties.maxConcurrency());
+    List<ImageRequestDTO> requests = popularity.top(properties.topK(), properties.minCount());
+    try {
+      for (ImageRequestDTO request : requests) {
+        if (System.nanoTime() >= deadline) {
+          break;
+        }
+        if (remaining.addAndGet(-request.numImages()) < 0) {
+          remaining.addAndGet(request.numImages());
+          continue;
+        }
+        permits.acquire();
+        workers.execute(
+            () -> {
+              try {
+                prefetch(request, remaining, deadline);
+              } finally {
+                permits.release();
+              }
+            });
+      }
+      permits.acquire(properties.maxConcurrency());
+    } finally {
+      popularity.decay();
+      runs.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+    }
+    int spent = properties.maxImages() - remaining.get();
+    log.info("Cache warm-up generated {} images for {} candidates", spent, requests.size());
+    return spent;
+  }
+
+  private void prefetch(ImageRequestDTO request, AtomicInteger remaining, long deadline) {
+    if (System.nanoTime() >= deadline) {
+      remaining.addAndGet(request.numImages());
+      return;
+    }
+    try {
+      if (imageService.prefetch(request, stagedTtl)) {
+        generated.increment();
+        images.increment(request.numImages());
+      } else {
+        alreadyCached.increment();
+        remaining.addAndGet(request.numImages());
+      }
+    } catch (RuntimeException e) {
+      failed.increment();
+      remaining.addAndGet(request.numImages());
+      log.debug("Cache warm-up failed for model {}", request.model(), e);
+    }
+  }
+
+  private void scheduleNext() {
+    ZonedDateTime now = ZonedDateTime.now();
+    ZonedDateTime next = cron.next(now);
+    if (next == null) {
+      return;
+    }
+    scheduler.schedule(
+        () -> {
+          try {
+            runOnce();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          } catch (RuntimeException e) {
+            log.warn("Cache warm-up run failed", e);
+          }
+          scheduleNext();
+        },
+        Duration.between(now, next).toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  private static Counter outcome(MeterRegistry meterRegistry, String outcome) {
+    return meterRegistry.counter("image.warmup.requests", "outcome", outcome);
+  }
+}
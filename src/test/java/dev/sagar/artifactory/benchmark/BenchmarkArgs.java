@@ -0,0 +1,21 @@
+package dev.sagar.artifactory.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+final class BenchmarkArgs {
+
+  private BenchmarkArgs() {}
+
+  /** Parses {@code key=value} command line arguments; anything else is ignored. */
+  static Map<String, String> parse(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      int separator = arg.indexOf('=');
+      if (separator > 0) {
+        options.put(arg.substring(0, separator), arg.substring(separator + 1));
+      }
+    }
+    return options;
+  }
+}
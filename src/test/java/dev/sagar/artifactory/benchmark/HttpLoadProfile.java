@@ -0,0 +1,164 @@
+package dev.sagar.artifactory.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Reproducible open-model HTTP load against {@code POST /api/v1/images/generate}.
+ *
+ * <p>Requests arrive at a fixed rate regardless of how fast the server answers, and the request
+ * mix is drawn from a seeded random generator so two runs send the same sequence. Without {@code
+ * target=} the application is started in-process with {@link SlowImageModel}, which also allows
+ * reporting allocated bytes per request.
+ *
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec \
+ *   -Dbenchmark.main=dev.sagar.artifactory.benchmark.HttpLoadProfile \
+ *   -Dbenchmark.args="rate=200 duration=30s warmup=5s latency=20ms seed=42"
+ * </pre>
+ */
+public final class HttpLoadProfile {
+
+  private static final String[] SUBJECTS = {
+    "a red car", "a mountain lake", "a city skyline", "a bowl of fruit", "a lighthouse",
+    "a forest path", "a coffee cup", "a desert road", "a snowy cabin", "a sailing boat"
+  };
+  private static final String[] SETTINGS = {
+    "at sunset", "in the rain", "at night", "in watercolor", "as a studio photo"
+  };
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = BenchmarkArgs.parse(args);
+    int rate = Integer.parseInt(options.getOrDefault("rate", "200"));
+    Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+    Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "5s"));
+    Duration latency = DurationStyle.detectAndParse(options.getOrDefault("latency", "20ms"));
+    long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+    String target = options.get("target");
+
+    ConfigurableApplicationContext context = null;
+    if (target == null) {
+      context = StubServer.start(new SlowImageModel(latency));
+      target = "http://localhost:" + StubServer.port(context);
+    }
+    try {
+      run(URI.create(target + "/api/v1/images/generate"), rate, warmup, duration, seed);
+    } finally {
+      if (context != null) {
+        context.close();
+      }
+    }
+  }
+
+  private static void run(URI uri, int rate, Duration warmup, Duration duration, long seed)
+      throws Exception {
+    Random random = new Random(seed);
+    long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+    int warmupRequests = (int) (warmup.toNanos() / intervalNanos);
+    int measuredRequests = (int) (duration.toNanos() / intervalNanos);
+    long[] latencies = new long[measuredRequests];
+    AtomicInteger completed = new AtomicInteger();
+    Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    LongAdder failures = new LongAdder();
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    try (HttpClient client =
+        HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build()) {
+      CompletableFuture<?>[] inFlight = new CompletableFuture<?>[warmupRequests + measuredRequests];
+      long allocatedBefore = 0;
+      long measuredStart = 0;
+      long start = System.nanoTime();
+      for (int i = 0; i < inFlight.length; i++) {
+        LockSupport.parkNanos(start + i * intervalNanos - System.nanoTime());
+        if (i == warmupRequests) {
+          allocatedBefore = threads.getTotalThreadAllocatedBytes();
+          measuredStart = System.nanoTime();
+        }
+        int slot = i - warmupRequests;
+        long sent = System.nanoTime();
+        inFlight[i] =
+            client
+                .sendAsync(request(uri, random), HttpResponse.BodyHandlers.discarding())
+                .whenComplete(
+                    (response, error) -> {
+                      if (slot < 0) {
+                        return;
+                      }
+                      latencies[slot] = System.nanoTime() - sent;
+                      completed.incrementAndGet();
+                      if (error != null) {
+                        failures.increment();
+                      } else {
+                        statuses
+                            .computeIfAbsent(response.statusCode(), code -> new LongAdder())
+                            .increment();
+                      }
+                    });
+      }
+      CompletableFuture.allOf(inFlight).exceptionally(error -> null).join();
+      long elapsed = System.nanoTime() - measuredStart;
+      long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+
+      Arrays.sort(latencies);
+      System.out.printf(
+          "requests=%d throughput=%.1f/s p50=%.1fms p90=%.1fms p99=%.1fms max=%.1fms%n",
+          completed.get(),
+          completed.get() / (elapsed / 1e9),
+          millis(latencies[measuredRequests / 2]),
+          millis(latencies[(int) (measuredRequests * 0.90)]),
+          millis(latencies[(int) (measuredRequests * 0.99)]),
+          millis(latencies[measuredRequests - 1]));
+      System.out.printf("statuses=%s transportErrors=%d%n", statuses, failures.sum());
+      System.out.printf(
+          "allocated=%.1f KiB/request (whole JVM, includes the load generator)%n",
+          allocated / 1024.0 / measuredRequests);
+    }
+  }
+
+  private static HttpRequest request(URI uri, Random random) {
+    String prompt =
+        SUBJECTS[random.nextInt(SUBJECTS.length)] + " " + SETTINGS[random.nextInt(SETTINGS.length)];
+    int profile = random.nextInt(10);
+    String body;
+    if (profile < 6) {
+      body = body(prompt, "dall-e-3", 1024, 1024, "standard", 1);
+    } else if (profile < 8) {
+      body = body(prompt, "dall-e-3", 1024, 1792, "hd", 1);
+    } else {
+      body = body(prompt, "dall-e-2", 512, 512, "standard", 1 + random.nextInt(4));
+    }
+    return HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofMinutes(2))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private static String body(
+      String prompt, String model, int height, int width, String quality, int numImages) {
+    return """
+        {"userId":"load","prompt":"%s","model":"%s","height":%d,"width":%d,\
+        "quality":"%s","style":"vivid","numImages":%d}"""
+        .formatted(prompt, model, height, width, quality, numImages);
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
@@ -0,0 +1,60 @@
+package dev.sagar.artifactory.benchmark;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.validator.ImageRequestValidator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the capability-table validator with the previous string-set implementation. Run with
+ * {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main
+ * -Dbenchmark.args="ImageRequestValidatorBenchmark -prof gc"} to include allocation rates.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageRequestValidatorBenchmark {
+
+  private final ImageRequestValidator validator = new ImageRequestValidator();
+  private final LegacyImageRequestValidator legacyValidator = new LegacyImageRequestValidator();
+
+  private final ImageRequestDTO validRequest =
+      new ImageRequestDTO(
+          "user123", "A beautiful sunset", "dall-e-3", 1024, 1792, "hd", "vivid", 1);
+  private final ImageRequestDTO invalidRequest =
+      new ImageRequestDTO(
+          "user123", "A beautiful sunset", "dall-e-2", 1024, 1792, "standard", "vivid", 1);
+
+  @Benchmark
+  public void validRequest() {
+    validator.validateRequest(validRequest);
+  }
+
+  @Benchmark
+  public void validRequestLegacy() {
+    legacyValidator.validateRequest(validRequest);
+  }
+
+  @Benchmark
+  public void invalidRequest(Blackhole blackhole) {
+    try {
+      validator.validateRequest(invalidRequest);
+    } catch (InvalidParameterException e) {
+      blackhole.consume(e);
+    }
+  }
+
+  @Benchmark
+  public void invalidRequestLegacy(Blackhole blackhole) {
+    try {
+      legacyValidator.validateRequest(invalidRequest);
+    } catch (InvalidParameterException e) {
+      blackhole.consume(e);
+    }
+  }
+}
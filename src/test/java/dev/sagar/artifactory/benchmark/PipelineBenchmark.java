@@ -0,0 +1,103 @@
+package dev.sagar.artifactory.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.service.ImageService;
+import dev.sagar.artifactory.validator.ImageRequestValidator;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.ai.openai.OpenAiImageOptions;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Per-stage cost of the generate pipeline using the beans of a real application context and a
+ * {@link SlowImageModel} with {@code providerLatency}. Run with {@code ./mvnw -Pbenchmark
+ * test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main -Dbenchmark.args="PipelineBenchmark
+ * -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+  private static final byte[] REQUEST_JSON =
+      """
+      {"userId":"user123","prompt":"A beautiful sunset over mountains","model":"dall-e-3",\
+      "height":1024,"width":1024,"quality":"standard","style":"vivid","numImages":1}"""
+          .getBytes(StandardCharsets.UTF_8);
+
+  @Param({"0ms", "1ms"})
+  public String providerLatency;
+
+  private ConfigurableApplicationContext context;
+  private ObjectMapper objectMapper;
+  private Validator beanValidator;
+  private ImageRequestValidator requestValidator;
+  private ImageService imageService;
+  private ImageRequestDTO request;
+  private ImageResponseDTO response;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    context =
+        StubServer.start(
+            new SlowImageModel(DurationStyle.detectAndParse(providerLatency)),
+            "spring.main.web-application-type=none");
+    objectMapper = context.getBean(ObjectMapper.class);
+    beanValidator = context.getBean(Validator.class);
+    requestValidator = context.getBean(ImageRequestValidator.class);
+    imageService = context.getBean(ImageService.class);
+    request = objectMapper.readValue(REQUEST_JSON, ImageRequestDTO.class);
+    response =
+        new ImageResponseDTO(
+            List.of("https://oaidalleapiprodscus.blob.core.windows.net/private/image.png"));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public ImageRequestDTO deserializeRequest() throws IOException {
+    return objectMapper.readValue(REQUEST_JSON, ImageRequestDTO.class);
+  }
+
+  @Benchmark
+  public int validateRequest() {
+    int violations = beanValidator.validate(request).size();
+    requestValidator.validateRequest(request);
+    return violations;
+  }
+
+  @Benchmark
+  public OpenAiImageOptions buildOptions() {
+    return imageService.buildOptions(request);
+  }
+
+  @Benchmark
+  public ImageResponseDTO generateImages() {
+    return imageService.generateImages(request);
+  }
+
+  @Benchmark
+  public byte[] serializeResponse() throws IOException {
+    return objectMapper.writeValueAsBytes(response);
+  }
+
+  @Benchmark
+  public byte[] fullPipeline() throws IOException {
+    ImageRequestDTO parsed = objectMapper.readValue(REQUEST_JSON, ImageRequestDTO.class);
+    beanValidator.validate(parsed);
+    return objectMapper.writeValueAsBytes(imageService.generateImages(parsed));
+  }
+}
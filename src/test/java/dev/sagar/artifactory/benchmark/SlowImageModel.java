@@ -0,0 +1,51 @@
+package dev.sagar.artifactory.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.springframework.ai.image.Image;
+import org.springframework.ai.image.ImageGeneration;
+import org.springframework.ai.image.ImageModel;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.image.ImageResponse;
+
+/** In-process stand-in for the OpenAI image endpoint that blocks the caller for a fixed latency. */
+public class SlowImageModel implements ImageModel {
+
+  private final Duration latency;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicInteger peakInFlight = new AtomicInteger();
+
+  public SlowImageModel(Duration latency) {
+    this.latency = latency;
+  }
+
+  @Override
+  public ImageResponse call(ImagePrompt request) {
+    peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+    try {
+      if (!latency.isZero()) {
+        Thread.sleep(latency);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for stub provider", e);
+    } finally {
+      inFlight.decrementAndGet();
+    }
+
+    Integer n = request.getOptions() != null ? request.getOptions().getN() : null;
+    List<ImageGeneration> generations =
+        IntStream.range(0, n != null ? n : 1)
+            .mapToObj(i -> new Image("https://stub.local/" + UUID.randomUUID(), null))
+            .map(ImageGeneration::new)
+            .toList();
+    return new ImageResponse(generations);
+  }
+
+  public int peakInFlight() {
+    return peakInFlight.get();
+  }
+}
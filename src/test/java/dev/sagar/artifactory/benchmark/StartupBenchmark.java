@@ -0,0 +1,184 @@
+package dev.sagar.artifactory.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures cold start of the packaged service: time from process launch to the first successful
+ * {@code /generate} response, and the resident set size right after it.
+ *
+ * <p>Each variant that has been built is launched {@code runs} times in a fresh process against a
+ * local stand-in for the OpenAI HTTP API, so the first request goes through the real Spring AI
+ * client and JSON mapping. Build the variants first:
+ *
+ * <pre>
+ * ./mvnw package -DskipTests                 # jar
+ * ./mvnw -Pfast-start package -DskipTests    # cds (AOT + class data sharing)
+ * ./mvnw -Pnative native:compile -DskipTests # native
+ * </pre>
+ *
+ * <p>then run {@code ./mvnw -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=dev.sagar.artifactory.benchmark.StartupBenchmark -Dbenchmark.args="runs=5"}.
+ */
+public final class StartupBenchmark {
+
+  private static final String RESPONSE =
+      """
+      {"created":1700000000,"data":[{"url":"https://example.com/startup.png"}]}""";
+  private static final String REQUEST =
+      """
+      {"userId":"startup","prompt":"startup benchmark","model":"dall-e-3","height":1024,\
+      "width":1024,"quality":"standard","style":"vivid","numImages":1}""";
+
+  private StartupBenchmark() {}
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = BenchmarkArgs.parse(args);
+    int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+    Path target = Path.of(options.getOrDefault("target", "target")).toAbsolutePath();
+    String jar = options.getOrDefault("jar", "artifactory-1.0.0-SNAPSHOT.jar");
+    String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    Map<String, List<String>> variants = new LinkedHashMap<>();
+    if (Files.exists(target.resolve(jar))) {
+      variants.put("jar", List.of(java, "-jar", target.resolve(jar).toString()));
+    }
+    Path fastStart = target.resolve("fast-start");
+    if (Files.exists(fastStart.resolve("application.jsa"))) {
+      variants.put(
+          "cds",
+          List.of(
+              java,
+              "-XX:SharedArchiveFile=" + fastStart.resolve("application.jsa"),
+              "-Dspring.aot.enabled=true",
+              "-jar",
+              fastStart.resolve(jar).toString()));
+    }
+    if (Files.isExecutable(target.resolve("artifactory"))) {
+      variants.put("native", List.of(target.resolve("artifactory").toString()));
+    }
+    if (variants.isEmpty()) {
+      throw new IllegalStateException("Nothing to benchmark in " + target + ", build it first");
+    }
+
+    HttpServer openAi =
+        HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    openAi.createContext(
+        "/",
+        exchange -> {
+          byte[] body = RESPONSE.getBytes(StandardCharsets.UTF_8);
+          exchange.getResponseHeaders().set("Content-Type", "application/json");
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        });
+    openAi.start();
+    try (HttpClient client = HttpClient.newHttpClient()) {
+      System.out.printf(
+          "%n%-7s %5s %14s %14s %12s%n", "variant", "runs", "first req ms", "best ms", "RSS MiB");
+      for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+        long[] millis = new long[runs];
+        long[] rss = new long[runs];
+        for (int run = 0; run < runs; run++) {
+          long[] sample = launch(variant.getValue(), openAi.getAddress().getPort(), client);
+          millis[run] = sample[0];
+          rss[run] = sample[1];
+        }
+        Arrays.sort(millis);
+        Arrays.sort(rss);
+        System.out.printf(
+            "%-7s %5d %14d %14d %12d%n",
+            variant.getKey(), runs, millis[runs / 2], millis[0], rss[runs / 2] / 1024);
+      }
+    } finally {
+      openAi.stop(0);
+    }
+  }
+
+  /** Returns the milliseconds to the first successful response and the RSS in KiB after it. */
+  private static long[] launch(List<String> command, int openAiPort, HttpClient client)
+      throws IOException, InterruptedException {
+    int port = freePort();
+    List<String> full = new ArrayList<>(command);
+    full.addAll(
+        List.of(
+            "--server.port=" + port,
+            "--spring.ai.openai.api-key=startup",
+            "--spring.ai.openai.base-url=http://localhost:" + openAiPort,
+            "--logging.level.root=WARN"));
+    Path workDir = Files.createTempDirectory("artifactory-startup");
+    HttpRequest request =
+        HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/images/generate"))
+            .timeout(Duration.ofSeconds(10))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(REQUEST))
+            .build();
+
+    long started = System.nanoTime();
+    Process process =
+        new ProcessBuilder(full)
+            .directory(workDir.toFile())
+            .redirectErrorStream(true)
+            .redirectOutput(workDir.resolve("out.log").toFile())
+            .start();
+    try {
+      long deadline = started + Duration.ofMinutes(2).toNanos();
+      while (true) {
+        if (!process.isAlive()) {
+          throw new IllegalStateException("Service exited, see " + workDir.resolve("out.log"));
+        }
+        if (System.nanoTime() - deadline > 0) {
+          throw new IllegalStateException("Service did not answer within 2 minutes");
+        }
+        try {
+          HttpResponse<Void> response =
+              client.send(request, HttpResponse.BodyHandlers.discarding());
+          if (response.statusCode() == 200) {
+            break;
+          }
+        } catch (IOException e) {
+          // not listening yet
+        }
+        Thread.sleep(5);
+      }
+      long elapsed = (System.nanoTime() - started) / 1_000_000;
+      return new long[] {elapsed, residentSetKiB(process.pid())};
+    } finally {
+      process.destroy();
+      process.waitFor();
+    }
+  }
+
+  private static long residentSetKiB(long pid) throws IOException {
+    for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+      if (line.startsWith("VmRSS:")) {
+        return Long.parseLong(line.replaceAll("\\D", ""));
+      }
+    }
+    throw new IllegalStateException("VmRSS not reported for process " + pid);
+  }
+
+  private static int freePort() throws IOException {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+}
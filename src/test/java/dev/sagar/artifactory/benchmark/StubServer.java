@@ -0,0 +1,52 @@
+package dev.sagar.artifactory.benchmark;
+
+import dev.sagar.artifactory.Application;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.springframework.ai.image.ImageModel;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+/** Boots the real application with a stub {@link ImageModel} in place of OpenAI. */
+final class StubServer {
+
+  private static final List<String> DEFAULT_PROPERTIES =
+      List.of(
+          "server.port=0",
+          "spring.ai.openai.api-key=benchmark",
+          "artifactory.cache.enabled=false",
+          "artifactory.coalescing.enabled=false",
+          "artifactory.batching.enabled=false",
+          "logging.level.root=WARN");
+
+  private static ImageModel imageModel;
+
+  private StubServer() {}
+
+  static ConfigurableApplicationContext start(ImageModel stub, String... properties) {
+    imageModel = stub;
+    List<String> merged = new ArrayList<>(DEFAULT_PROPERTIES);
+    merged.addAll(Arrays.asList(properties));
+    return new SpringApplicationBuilder(Application.class, StubProvider.class)
+        .properties(merged.toArray(String[]::new))
+        .run();
+  }
+
+  static int port(ConfigurableApplicationContext context) {
+    return ((WebServerApplicationContext) context).getWebServer().getPort();
+  }
+
+  // Deliberately not a @Configuration so component scanning from other tests never picks it up.
+  static class StubProvider {
+
+    @Bean
+    @Primary
+    ImageModel stubImageModel() {
+      return imageModel;
+    }
+  }
+}
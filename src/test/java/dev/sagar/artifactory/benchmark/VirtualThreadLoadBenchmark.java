@@ -0,0 +1,203 @@
+package dev.sagar.artifactory.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Load test for the blocking generate path with platform versus virtual request threads.
+ *
+ * <p>Each mode runs in its own JVM against the real web stack with {@link SlowImageModel} in
+ * place of OpenAI. Run with {@code ./mvnw -Pbenchmark test-compile exec:exec}; override
+ * parameters with {@code -Dbenchmark.args="requests=4000 concurrency=2000 latency=2s"}.
+ */
+public final class VirtualThreadLoadBenchmark {
+
+  private static final String RESULT_PREFIX = "RESULT ";
+
+  public static void main(String[] args) throws Exception {
+    Map<String, String> options = BenchmarkArgs.parse(args);
+    if (options.containsKey("mode")) {
+      runSingleMode(options);
+      return;
+    }
+
+    List<String> results = new ArrayList<>();
+    for (String mode : List.of("platform", "virtual")) {
+      results.add(runInChildJvm(mode, args));
+    }
+    System.out.printf(
+        "%n%-9s %9s %10s %9s %9s %10s %12s%n",
+        "mode", "requests", "req/s", "p50 ms", "p99 ms", "peak conc", "KiB/request");
+    results.forEach(System.out::println);
+  }
+
+  private static String runInChildJvm(String mode, String[] args)
+      throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(VirtualThreadLoadBenchmark.class.getName());
+    command.addAll(Arrays.asList(args));
+    command.add("mode=" + mode);
+
+    Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    String result = null;
+    try (BufferedReader reader =
+        new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.startsWith(RESULT_PREFIX)) {
+          result = line.substring(RESULT_PREFIX.length());
+        }
+      }
+    }
+    if (process.waitFor() != 0 || result == null) {
+      throw new IllegalStateException("Benchmark run for mode " + mode + " failed");
+    }
+    return result;
+  }
+
+  private static void runSingleMode(Map<String, String> options) throws Exception {
+    String mode = options.get("mode");
+    int requests = Integer.parseInt(options.getOrDefault("requests", "2000"));
+    int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+    Duration latency = DurationStyle.detectAndParse(options.getOrDefault("latency", "2s"));
+
+    SlowImageModel imageModel = new SlowImageModel(latency);
+    try (ConfigurableApplicationContext context =
+        StubServer.start(
+            imageModel,
+            "server.tomcat.threads.max=200",
+            "spring.threads.virtual.enabled=" + "virtual".equals(mode))) {
+      URI uri =
+          URI.create("http://localhost:" + StubServer.port(context) + "/api/v1/images/generate");
+
+      System.gc();
+      long baselineRss = residentSetKiB();
+      RssSampler sampler = new RssSampler();
+      Thread samplerThread = Thread.ofPlatform().daemon().start(sampler);
+
+      long[] latencies = new long[requests];
+      AtomicInteger failures = new AtomicInteger();
+      Semaphore permits = new Semaphore(concurrency);
+      long started = System.nanoTime();
+      try (HttpClient client =
+              HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+          ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+        List<Future<?>> futures = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+          int index = i;
+          permits.acquire();
+          futures.add(
+              callers.submit(
+                  () -> {
+                    long requestStarted = System.nanoTime();
+                    try {
+                      HttpResponse<Void> response =
+                          client.send(request(uri, index), HttpResponse.BodyHandlers.discarding());
+                      if (response.statusCode() != 200) {
+                        failures.incrementAndGet();
+                      }
+                    } catch (IOException | InterruptedException e) {
+                      failures.incrementAndGet();
+                    } finally {
+                      latencies[index] = System.nanoTime() - requestStarted;
+                      permits.release();
+                    }
+                  }));
+        }
+        for (Future<?> future : futures) {
+          future.get();
+        }
+      }
+      long elapsed = System.nanoTime() - started;
+      sampler.stop();
+      samplerThread.join();
+
+      Arrays.sort(latencies);
+      int peak = imageModel.peakInFlight();
+      long rssPerRequest = peak > 0 ? (sampler.peak.get() - baselineRss) / peak : 0;
+      System.out.printf(
+          "%s%-9s %9d %10.1f %9d %9d %10d %12d%n",
+          RESULT_PREFIX,
+          mode,
+          requests - failures.get(),
+          requests / (elapsed / 1e9),
+          latencies[requests / 2] / 1_000_000,
+          latencies[(int) (requests * 0.99)] / 1_000_000,
+          peak,
+          rssPerRequest);
+    }
+  }
+
+  private static HttpRequest request(URI uri, int index) {
+    String body =
+        """
+        {"userId":"bench","prompt":"benchmark prompt %d","model":"dall-e-3","height":1024,\
+        "width":1024,"quality":"standard","style":"vivid","numImages":1}"""
+            .formatted(index);
+    return HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofMinutes(5))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private static long residentSetKiB() {
+    try {
+      for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+        if (line.startsWith("VmRSS:")) {
+          return Long.parseLong(line.replaceAll("\\D", ""));
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      // not on Linux, fall back to the JVM's own view below
+    }
+    var memory = ManagementFactory.getMemoryMXBean();
+    return (memory.getHeapMemoryUsage().getUsed() + memory.getNonHeapMemoryUsage().getUsed())
+        / 1024;
+  }
+
+  private static final class RssSampler implements Runnable {
+    private final AtomicLong peak = new AtomicLong();
+    private volatile boolean running = true;
+
+    @Override
+    public void run() {
+      while (running) {
+        peak.accumulateAndGet(residentSetKiB(), Math::max);
+        try {
+          Thread.sleep(50);
+        } catch (InterruptedException e) {
+          return;
+        }
+      }
+    }
+
+    void stop() {
+      running = false;
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package dev.sagar.artifactory.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Encoded size and encode/decode cost of {@link ImageResponseDTO} as JSON and CBOR, with and
+ * without gzip, for URL and base64 image payloads. Sizes are printed at the start of each trial.
+ * Run with {@code ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.openjdk.jmh.Main
+ * -Dbenchmark.args="WireFormatBenchmark -prof gc"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WireFormatBenchmark {
+
+  @Param({"json", "cbor"})
+  public String format;
+
+  @Param({"none", "gzip"})
+  public String compression;
+
+  @Param({"url", "b64"})
+  public String payload;
+
+  private ObjectMapper mapper;
+  private ImageResponseDTO response;
+  private byte[] encoded;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+    mapper = "cbor".equals(format) ? builder.factory(new CBORFactory()).build() : builder.build();
+    response = "b64".equals(payload) ? base64Response() : urlResponse();
+    encoded = encode();
+    System.out.printf(
+        "%n%s/%s/%s encoded size: %d bytes%n", format, compression, payload, encoded.length);
+  }
+
+  @Benchmark
+  public byte[] encode() throws IOException {
+    if ("none".equals(compression)) {
+      return mapper.writeValueAsBytes(response);
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+      mapper.writeValue(gzip, response);
+    }
+    return bytes.toByteArray();
+  }
+
+  @Benchmark
+  public ImageResponseDTO decode() throws IOException {
+    InputStream bytes = new ByteArrayInputStream(encoded);
+    try (InputStream in = "gzip".equals(compression) ? new GZIPInputStream(bytes) : bytes) {
+      return mapper.readValue(in, ImageResponseDTO.class);
+    }
+  }
+
+  private static ImageResponseDTO urlResponse() {
+    String base = "https://oaidalleapiprodscus.blob.core.windows.net/private/org-abc/user-def/img-";
+    String query = ".png?st=2025-01-01T00%3A00%3A00Z&se=2025-01-01T02%3A00%3A00Z&sp=r";
+    return new ImageResponseDTO(IntStream.range(0, 4).mapToObj(i -> base + i + query).toList());
+  }
+
+  /** Four data URIs of 256 KiB each; random bytes stand in for already-compressed PNG data. */
+  private static ImageResponseDTO base64Response() {
+    Random random = new Random(7);
+    return new ImageResponseDTO(
+        IntStream.range(0, 4)
+            .mapToObj(
+                i -> {
+                  byte[] image = new byte[256 * 1024];
+                  random.nextBytes(image);
+                  return "data:image/png;base64," + Base64.getEncoder().encodeToString(image);
+                })
+            .toList());
+  }
+}
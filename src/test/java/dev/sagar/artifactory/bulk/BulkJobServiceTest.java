@@ -0,0 +1,143 @@
+package dev.sagar.artifactory.bulk;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import dev.sagar.artifactory.dto.BulkJobDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.exception.ConcurrencyLimitExceededException;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.exception.JobNotFoundException;
+import dev.sagar.artifactory.service.GenerationOptions;
+import dev.sagar.artifactory.service.ImageService;
+import dev.sagar.artifactory.validator.ImageRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.env.StandardEnvironment;
+
+class BulkJobServiceTest {
+
+  private static final String VALID =
+      "{\"userId\":\"user1\",\"prompt\":\"%s\",\"model\":\"dall-e-3\",\"height\":1024,"
+          + "\"width\":1024,\"quality\":\"standard\",\"style\":\"vivid\",\"numImages\":1}";
+
+  private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+  private final ImageService imageService = mock(ImageService.class);
+
+  @TempDir Path directory;
+
+  private BulkJobService service;
+
+  @BeforeEach
+  void setUp() {
+    BulkProperties properties =
+        new BulkProperties(
+            directory,
+            2,
+            4,
+            100,
+            65536,
+            3,
+            Duration.ofMillis(1),
+            Duration.ofMillis(10),
+            Duration.ofHours(1));
+    service =
+        new BulkJobService(
+            imageService,
+            mock(ImageRequestValidator.class),
+            Validation.buildDefaultValidatorFactory().getValidator(),
+            objectMapper,
+            properties,
+            new StandardEnvironment(),
+            new SimpleMeterRegistry());
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void submit_shouldRejectWholeUploadWhenAnyLineIsInvalid() {
+    String body = line("first") + "{not json}\n" + line("") + line("last");
+
+    InvalidParameterException e =
+        assertThrows(InvalidParameterException.class, () -> submit(body));
+
+    assertTrue(e.getMessage().startsWith("2 invalid record(s)"));
+    assertTrue(e.getMessage().contains("line 2: malformed JSON"));
+    assertTrue(e.getMessage().contains("line 3: Prompt cannot be blank"));
+    verifyNoInteractions(imageService);
+    assertEquals(0, directory.toFile().list().length);
+  }
+
+  @Test
+  void submit_shouldGenerateEveryRecordAndStreamResults() throws Exception {
+    when(imageService.generateImages(any(), any()))
+        .thenThrow(new ConcurrencyLimitExceededException("busy"))
+        .thenReturn(new ImageResponseDTO(List.of("https://example.com/image.png")));
+
+    BulkJobDTO job = submit(line("a") + "\n" + line("b") + line("c"));
+    List<String> lines = results(job.jobId(), 0);
+
+    assertEquals(3, lines.size());
+    assertTrue(lines.stream().allMatch(l -> l.contains("\"status\":\"succeeded\"")));
+    assertTrue(lines.stream().anyMatch(l -> l.startsWith("{\"line\":4,")));
+    BulkJobDTO finished = service.getJob(job.jobId());
+    assertEquals("SUCCEEDED", finished.status());
+    assertEquals(3, finished.succeeded());
+    verify(imageService, times(4)).generateImages(any(), any(GenerationOptions.class));
+  }
+
+  @Test
+  void streamResults_shouldResumeAfterReceivedLines() throws Exception {
+    when(imageService.generateImages(any(), any()))
+        .thenReturn(new ImageResponseDTO(List.of("https://example.com/image.png")));
+    when(imageService.generateImages(argThat(r -> r.prompt().equals("b")), any()))
+        .thenThrow(new InvalidParameterException("rejected"));
+
+    BulkJobDTO job = submit(line("a") + line("b") + line("c"));
+    List<String> all = results(job.jobId(), 0);
+    List<String> resumed = results(job.jobId(), 2);
+
+    assertEquals(all.subList(2, 3), resumed);
+    assertEquals(1, service.getJob(job.jobId()).failed());
+    assertTrue(all.stream().anyMatch(l -> l.contains("\"error\":\"invalid_parameter\"")));
+    assertTrue(Files.exists(directory.resolve(job.jobId()).resolve(BulkJob.RESULTS_FILE)));
+  }
+
+  @Test
+  void getJob_shouldThrowForUnknownJob() {
+    assertThrows(JobNotFoundException.class, () -> service.getJob("missing"));
+  }
+
+  private BulkJobDTO submit(String body) throws Exception {
+    return service.submit(
+        new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), GenerationOptions.DEFAULT);
+  }
+
+  private List<String> results(String jobId, long from) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.streamResults(jobId, from, out);
+    return out.toString(StandardCharsets.UTF_8).lines().toList();
+  }
+
+  private static String line(String prompt) {
+    return VALID.formatted(prompt) + "\n";
+  }
+}
@@ -0,0 +1,86 @@
+package dev.sagar.artifactory.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ImageCacheTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void requestKeyShouldIgnoreUserIdAndCasing() {
+    RequestKey first =
+        RequestKey.from(
+            new ImageRequestDTO(
+                "user1", "A red car ", "DALL-E-3", 1024, 1024, "Standard", "vivid", 1));
+    RequestKey second =
+        RequestKey.from(
+            new ImageRequestDTO(
+                "user2", "A red car", "dall-e-3", 1024, 1024, "standard", "VIVID", 1));
+
+    assertEquals(first, second);
+  }
+
+  @Test
+  void requestKeyShouldDifferWhenDimensionsDiffer() {
+    RequestKey square =
+        RequestKey.from(
+            new ImageRequestDTO(
+                "user1", "A red car", "dall-e-3", 1024, 1024, "standard", "vivid", 1));
+    RequestKey wide =
+        RequestKey.from(
+            new ImageRequestDTO(
+                "user1", "A red car", "dall-e-3", 1024, 1792, "standard", "vivid", 1));
+
+    assertNotEquals(square, wide);
+  }
+
+  @Test
+  void shouldReturnStoredResponse() {
+    ImageCache cache = new ImageCache(properties(true, 10), meterRegistry);
+    RequestKey key = new RequestKey("abc");
+    ImageResponseDTO response = new ImageResponseDTO(List.of("https://example.com/a.png"));
+
+    cache.put(key, response);
+
+    assertEquals(response, cache.get(key).orElseThrow());
+    assertEquals(
+        1.0,
+        meterRegistry
+            .get("cache.gets")
+            .tag("cache", ImageCache.CACHE_NAME)
+            .tag("result", "hit")
+            .functionCounter()
+            .count());
+  }
+
+  @Test
+  void shouldEvictWhenMaximumSizeExceeded() {
+    ImageCache cache = new ImageCache(properties(true, 1), meterRegistry);
+
+    cache.put(new RequestKey("a"), new ImageResponseDTO(List.of("a")));
+    cache.put(new RequestKey("b"), new ImageResponseDTO(List.of("b")));
+
+    assertEquals(1, cache.size());
+  }
+
+  @Test
+  void shouldNotStoreWhenDisabled() {
+    ImageCache cache = new ImageCache(properties(false, 10), meterRegistry);
+    RequestKey key = new RequestKey("abc");
+
+    cache.put(key, new ImageResponseDTO(List.of("https://example.com/a.png")));
+
+    assertTrue(cache.get(key).isEmpty());
+  }
+
+  private static ImageCacheProperties properties(boolean enabled, long maximumSize) {
+    return new ImageCacheProperties(enabled, maximumSize, Duration.ofMinutes(5));
+  }
+}
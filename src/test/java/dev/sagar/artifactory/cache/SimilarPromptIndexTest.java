@@ -0,0 +1,70 @@
+package dev.sagar.artifactory.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class SimilarPromptIndexTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void canonicalTokensShouldIgnoreCasingPunctuationArticlesAndOrder() {
+    assertArrayEquals(
+        PromptCanonicalizer.tokens("a red car on a beach"),
+        PromptCanonicalizer.tokens("On the beach, A RED car."));
+  }
+
+  @Test
+  void shouldFindPromptThatDiffersOnlyInFormatting() {
+    SimilarPromptIndex index = new SimilarPromptIndex(properties(true, 0.8), meterRegistry);
+    RequestKey key = new RequestKey("a".repeat(64));
+    index.add(request("a red car on a beach", "vivid"), key);
+
+    Optional<RequestKey> found = index.find(request("A red car, on the beach.", "vivid"));
+
+    assertEquals(Optional.of(key), found);
+    assertEquals(1.0, meterRegistry.counter("image.cache.similar", "result", "hit").count());
+  }
+
+  @Test
+  void shouldFindNearDuplicateAboveThreshold() {
+    SimilarPromptIndex index = new SimilarPromptIndex(properties(true, 0.8), meterRegistry);
+    RequestKey key = new RequestKey("b".repeat(64));
+    index.add(request("red sports car parked on sandy beach at sunset", "vivid"), key);
+
+    assertEquals(
+        Optional.of(key),
+        index.find(request("red sports car parked on a sandy beach at dusk sunset", "vivid")));
+    assertEquals(Optional.empty(), index.find(request("blue boat on a lake at sunset", "vivid")));
+  }
+
+  @Test
+  void shouldNotMatchAcrossScopes() {
+    SimilarPromptIndex index = new SimilarPromptIndex(properties(true, 0.8), meterRegistry);
+    index.add(request("a red car on a beach", "vivid"), new RequestKey("c".repeat(64)));
+
+    assertEquals(Optional.empty(), index.find(request("a red car on a beach", "natural")));
+  }
+
+  @Test
+  void shouldDoNothingWhenDisabled() {
+    SimilarPromptIndex index = new SimilarPromptIndex(properties(false, 0.8), meterRegistry);
+    index.add(request("a red car on a beach", "vivid"), new RequestKey("d".repeat(64)));
+
+    assertEquals(Optional.empty(), index.find(request("a red car on a beach", "vivid")));
+    assertEquals(0, index.size());
+  }
+
+  private static ImageRequestDTO request(String prompt, String style) {
+    return new ImageRequestDTO("user1", prompt, "dall-e-3", 1024, 1024, "standard", style, 1);
+  }
+
+  private static SimilarityCacheProperties properties(boolean enabled, double threshold) {
+    return new SimilarityCacheProperties(enabled, threshold, 1000, Duration.ofMinutes(5));
+  }
+}
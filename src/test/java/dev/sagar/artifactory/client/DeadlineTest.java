@@ -0,0 +1,91 @@
+package dev.sagar.artifactory.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.exception.RequestCancelledException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class DeadlineTest {
+
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void cancelShouldInterruptBlockedWorkOnAnotherThread() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CompletableFuture<Void> result;
+    Deadline deadline;
+    try (Deadline.Scope ignored = Deadline.open(System.nanoTime() + TimeUnit.MINUTES.toNanos(1))) {
+      deadline = Deadline.current();
+      result =
+          CompletableFuture.supplyAsync(
+              Deadline.propagate(
+                  () -> {
+                    started.countDown();
+                    sleep(TimeUnit.MINUTES.toMillis(1));
+                    return null;
+                  }),
+              executor);
+    }
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    assertTrue(deadline.cancel(Deadline.Cancellation.CLIENT_DISCONNECTED));
+
+    Throwable error =
+        assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS)).getCause();
+    RequestCancelledException cancelled = assertInstanceOf(RequestCancelledException.class, error);
+    assertEquals("client_disconnected", cancelled.getReason());
+    assertFalse(deadline.cancel(Deadline.Cancellation.DEADLINE_EXCEEDED));
+  }
+
+  @Test
+  void cancelShouldNotInterruptWorkSharedWithOtherRequests() throws Exception {
+    AtomicBoolean inUse = new AtomicBoolean(true);
+    try (Deadline.Scope ignored = Deadline.open(System.nanoTime() + TimeUnit.MINUTES.toNanos(1))) {
+      Deadline deadline = Deadline.current();
+      String result =
+          Deadline.cancellable(
+              () -> {
+                try (Deadline.Scope shared = Deadline.share(inUse::get)) {
+                  deadline.cancel(Deadline.Cancellation.CLIENT_DISCONNECTED);
+                  return Thread.currentThread().isInterrupted() ? "interrupted" : "completed";
+                }
+              });
+
+      assertEquals("completed", result);
+      assertThrows(RequestCancelledException.class, Deadline::check);
+    }
+    assertFalse(Thread.currentThread().isInterrupted());
+  }
+
+  @Test
+  void checkShouldFailOnceTheDeadlineHasPassed() {
+    try (Deadline.Scope ignored = Deadline.open(System.nanoTime() - 1)) {
+      RequestCancelledException e = assertThrows(RequestCancelledException.class, Deadline::check);
+
+      assertEquals("deadline_exceeded", e.getReason());
+      assertTrue(Deadline.current().isCancelled());
+    }
+    assertNull(Deadline.current());
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("interrupted", e);
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package dev.sagar.artifactory.client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+class RetryInterceptorTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final MockClientHttpRequest request =
+      new MockClientHttpRequest(HttpMethod.POST, URI.create("https://api.example.com/images"));
+
+  @Test
+  void shouldRetryTransientStatusUntilSuccess() throws IOException {
+    RetryInterceptor interceptor = interceptor(3, 10, Duration.ofSeconds(30));
+    Scripted execution =
+        new Scripted(response(HttpStatus.SERVICE_UNAVAILABLE), response(HttpStatus.OK));
+
+    ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(2, execution.calls.get());
+    assertEquals(1.0, meterRegistry.counter("image.client.retries", "reason", "503").count());
+  }
+
+  @Test
+  void shouldNotRetryClientErrors() throws IOException {
+    RetryInterceptor interceptor = interceptor(3, 10, Duration.ofSeconds(30));
+    Scripted execution = new Scripted(response(HttpStatus.BAD_REQUEST));
+
+    ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    assertEquals(1, execution.calls.get());
+  }
+
+  @Test
+  void shouldPassThroughWhenRetryAfterExceedsLimit() throws IOException {
+    RetryInterceptor interceptor = interceptor(3, 10, Duration.ofSeconds(5));
+    MockClientHttpResponse throttled = response(HttpStatus.TOO_MANY_REQUESTS);
+    throttled.getHeaders().set(HttpHeaders.RETRY_AFTER, "60");
+    Scripted execution = new Scripted(throttled, response(HttpStatus.OK));
+
+    ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution);
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+    assertEquals(1, execution.calls.get());
+    assertEquals(
+        1.0,
+        meterRegistry
+            .counter("image.client.retry.exhausted", "reason", "429", "cause", "retry_after")
+            .count());
+  }
+
+  @Test
+  void shouldStopRetryingWhenBudgetIsEmpty() throws IOException {
+    RetryInterceptor interceptor = interceptor(5, 1, Duration.ofSeconds(30));
+    Scripted execution =
+        new Scripted(
+            response(HttpStatus.SERVICE_UNAVAILABLE),
+            response(HttpStatus.SERVICE_UNAVAILABLE),
+            response(HttpStatus.OK));
+
+    ClientHttpResponse response = interceptor.intercept(request, new byte[0], execution);
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    assertEquals(2, execution.calls.get());
+  }
+
+  @Test
+  void shouldRetryGatewayErrorsOnlyForIdempotentRequests() throws IOException {
+    RetryInterceptor interceptor = interceptor(3, 10, Duration.ofSeconds(30));
+    Scripted post = new Scripted(response(HttpStatus.GATEWAY_TIMEOUT), response(HttpStatus.OK));
+    MockClientHttpRequest get =
+        new MockClientHttpRequest(HttpMethod.GET, URI.create("https://api.example.com/images"));
+    Scripted retried = new Scripted(response(HttpStatus.BAD_GATEWAY), response(HttpStatus.OK));
+
+    ClientHttpResponse generation = interceptor.intercept(request, new byte[0], post);
+    ClientHttpResponse download = interceptor.intercept(get, new byte[0], retried);
+
+    assertEquals(HttpStatus.GATEWAY_TIMEOUT, generation.getStatusCode());
+    assertEquals(1, post.calls.get());
+    assertEquals(HttpStatus.OK, download.getStatusCode());
+    assertEquals(2, retried.calls.get());
+  }
+
+  @Test
+  void shouldRetryConnectFailuresAndRethrowWhenAttemptsRunOut() {
+    RetryInterceptor interceptor = interceptor(2, 10, Duration.ofSeconds(30));
+    AtomicInteger calls = new AtomicInteger();
+    ClientHttpRequestExecution refused =
+        (req, body) -> {
+          calls.incrementAndGet();
+          throw new ConnectException("Connection refused");
+        };
+
+    assertThrows(
+        ConnectException.class, () -> interceptor.intercept(request, new byte[0], refused));
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  void shouldNotWaitPastDeadline() throws IOException {
+    RetryInterceptor interceptor = interceptor(3, 10, Duration.ofSeconds(30));
+    MockClientHttpResponse throttled = response(HttpStatus.TOO_MANY_REQUESTS);
+    throttled.getHeaders().set(HttpHeaders.RETRY_AFTER, "2");
+    Scripted execution = new Scripted(throttled, response(HttpStatus.OK));
+
+    ClientHttpResponse response;
+    try (Deadline.Scope ignored =
+        Deadline.open(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(500))) {
+      response = interceptor.intercept(request, new byte[0], execution);
+    }
+
+    assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+    assertEquals(1, execution.calls.get());
+  }
+
+  @Test
+  void shouldParseRetryAfterHeaders() {
+    HttpHeaders seconds = new HttpHeaders();
+    seconds.set(HttpHeaders.RETRY_AFTER, "3");
+    HttpHeaders millis = new HttpHeaders();
+    millis.set("retry-after-ms", "250");
+    millis.set(HttpHeaders.RETRY_AFTER, "3");
+
+    assertEquals(Duration.ofSeconds(3), RetryInterceptor.retryAfter(seconds));
+    assertEquals(Duration.ofMillis(250), RetryInterceptor.retryAfter(millis));
+    assertNull(RetryInterceptor.retryAfter(new HttpHeaders()));
+  }
+
+  private RetryInterceptor interceptor(int maxAttempts, int burst, Duration maxRetryAfter) {
+    return new RetryInterceptor(
+        new OutboundClientProperties.Retry(
+            true,
+            maxAttempts,
+            Duration.ofMillis(1),
+            Duration.ofMillis(5),
+            maxRetryAfter,
+            0.0,
+            burst),
+        meterRegistry);
+  }
+
+  private static MockClientHttpResponse response(HttpStatus status) {
+    return new MockClientHttpResponse(new byte[0], status);
+  }
+
+  private static final class Scripted implements ClientHttpRequestExecution {
+
+    private final Deque<ClientHttpResponse> responses;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private Scripted(ClientHttpResponse... responses) {
+      this.responses = new ArrayDeque<>(List.of(responses));
+    }
+
+    @Override
+    public ClientHttpResponse execute(HttpRequest request, byte[] body) {
+      calls.incrementAndGet();
+      return responses.removeFirst();
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package dev.sagar.artifactory.cluster;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+/** Runs a three-node cluster on localhost, each node with its own cache and provider counter. */
+class PeerClusterTierTest {
+
+  private static final String SECRET = "s3cret";
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final List<Node> nodes = new ArrayList<>();
+
+  @AfterEach
+  void stop() {
+    nodes.forEach(node -> node.server.stop(0));
+  }
+
+  @Test
+  void shouldGenerateEachKeyOnceAcrossTheCluster() throws IOException {
+    startCluster(3);
+    Random random = new Random(42);
+    List<ImageRequestDTO> requests = IntStream.range(0, 30).mapToObj(this::request).toList();
+
+    for (int round = 0; round < 4; round++) {
+      for (ImageRequestDTO request : requests) {
+        Node entry = nodes.get(random.nextInt(nodes.size()));
+        ImageResponseDTO response = entry.generate(request);
+        assertEquals(List.of("image:" + request.prompt()), response.imageUrlList());
+      }
+    }
+
+    assertEquals(requests.size(), nodes.stream().mapToInt(node -> node.generated.get()).sum());
+    assertTrue(nodes.stream().allMatch(node -> node.generated.get() > 0));
+    assertTrue(nodes.stream().mapToDouble(node -> node.count("remote", "hit")).sum() > 0);
+  }
+
+  @Test
+  void shouldReportRemoteMissThenHit() throws IOException {
+    startCluster(3);
+    Node owner = nodes.get(1);
+    Node first = nodes.get(0);
+    Node second = nodes.get(2);
+    ImageRequestDTO request = ownedBy(owner);
+
+    first.generate(request);
+    second.generate(request);
+
+    assertEquals(0, first.generated.get() + second.generated.get());
+    assertEquals(1, owner.generated.get());
+    assertEquals(1.0, first.count("remote", "miss"));
+    assertEquals(1.0, second.count("remote", "hit"));
+  }
+
+  @Test
+  void shouldGenerateLocallyWhenOwnerIsDown() throws IOException {
+    startCluster(2);
+    Node entry = nodes.getFirst();
+    ImageRequestDTO request = ownedBy(nodes.get(1));
+    nodes.get(1).server.stop(0);
+
+    ImageResponseDTO response = entry.generate(request);
+
+    assertEquals(List.of("image:" + request.prompt()), response.imageUrlList());
+    assertEquals(1, entry.generated.get());
+    assertEquals(1.0, entry.count("fallback", "unreachable"));
+  }
+
+  @Test
+  void shouldFallBackLocallyWhenOwnerRejectsToken() throws IOException {
+    startCluster(2);
+    nodes.get(1).secret = "other";
+    Node entry = nodes.getFirst();
+    ImageRequestDTO request = ownedBy(nodes.get(1));
+
+    ImageResponseDTO response = entry.generate(request);
+
+    assertEquals(List.of("image:" + request.prompt()), response.imageUrlList());
+    assertEquals(1, entry.generated.get());
+    assertEquals(1.0, entry.count("fallback", "error"));
+  }
+
+  @Test
+  void shouldRefuseToStartWithoutSharedSecret() {
+    ClusterProperties properties =
+        new ClusterProperties(
+            true, "http://a", List.of("http://b"), 128, " ", Duration.ofSeconds(10));
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> new PeerClusterTier(properties, RestClient.builder(), new SimpleMeterRegistry()));
+  }
+
+  @Test
+  void hashRingShouldSpreadKeysAcrossNodes() {
+    HashRing ring = new HashRing(List.of("http://a", "http://b", "http://c"), 128);
+    Map<String, Integer> owned = new HashMap<>();
+    for (int i = 0; i < 3000; i++) {
+      owned.merge(ring.owner(RequestKey.from(request(i))), 1, Integer::sum);
+    }
+
+    assertEquals(3, owned.size());
+    owned.values().forEach(count -> assertTrue(count > 700, "skewed ring: " + owned));
+  }
+
+  private void startCluster(int size) throws IOException {
+    for (int i = 0; i < size; i++) {
+      HttpServer server =
+          HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+      nodes.add(new Node(server, "http://localhost:" + server.getAddress().getPort()));
+    }
+    for (Node node : nodes) {
+      List<String> peers = nodes.stream().map(peer -> peer.url).toList();
+      node.tier =
+          new PeerClusterTier(
+              new ClusterProperties(true, node.url, peers, 128, SECRET, Duration.ofSeconds(10)),
+              RestClient.builder(),
+              node.meterRegistry);
+      node.server.createContext(PeerClusterTier.GENERATE_PATH, node::handle);
+      node.server.start();
+    }
+  }
+
+  private ImageRequestDTO ownedBy(Node owner) {
+    HashRing ring = new HashRing(nodes.stream().map(node -> node.url).toList(), 128);
+    return IntStream.iterate(0, i -> i + 1)
+        .mapToObj(this::request)
+        .filter(request -> ring.owner(RequestKey.from(request)).equals(owner.url))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private ImageRequestDTO request(int i) {
+    return new ImageRequestDTO("user", "prompt " + i, "dall-e-2", 512, 512, "standard", "vivid", 1);
+  }
+
+  private final class Node {
+
+    final HttpServer server;
+    final String url;
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final Map<RequestKey, ImageResponseDTO> cache = new ConcurrentHashMap<>();
+    final AtomicInteger generated = new AtomicInteger();
+    PeerClusterTier tier;
+    String secret = SECRET;
+
+    Node(HttpServer server, String url) {
+      this.server = server;
+      this.url = url;
+    }
+
+    ImageResponseDTO generate(ImageRequestDTO request) {
+      RequestKey key = RequestKey.from(request);
+      ImageResponseDTO cached = cache.get(key);
+      if (cached != null) {
+        return cached;
+      }
+      ImageResponseDTO response = tier.execute(request, key, () -> provider(request));
+      cache.put(key, response);
+      return response;
+    }
+
+    ImageResponseDTO provider(ImageRequestDTO request) {
+      generated.incrementAndGet();
+      return new ImageResponseDTO(List.of("image:" + request.prompt()));
+    }
+
+    double count(String route, String result) {
+      return meterRegistry
+          .counter("image.cluster.requests", "route", route, "result", result)
+          .count();
+    }
+
+    void handle(HttpExchange exchange) throws IOException {
+      try (exchange) {
+        if (!secret.equals(exchange.getRequestHeaders().getFirst(PeerClusterTier.TOKEN_HEADER))) {
+          exchange.sendResponseHeaders(403, -1);
+          return;
+        }
+        ImageRequestDTO request =
+            objectMapper.readValue(exchange.getRequestBody(), ImageRequestDTO.class);
+        RequestKey key = RequestKey.from(request);
+        ImageResponseDTO cached = cache.get(key);
+        ImageResponseDTO response = cached != null ? cached : provider(request);
+        cache.putIfAbsent(key, response);
+        byte[] body = objectMapper.writeValueAsBytes(response);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange
+            .getResponseHeaders()
+            .set(PeerClusterTier.CACHE_HEADER, cached != null ? "hit" : "miss");
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+      }
+    }
+  }
+}
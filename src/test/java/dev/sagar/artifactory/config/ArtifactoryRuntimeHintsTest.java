@@ -0,0 +1,42 @@
+package dev.sagar.artifactory.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.dto.BulkResultDTO;
+import dev.sagar.artifactory.dto.HistoryEntryDTO;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+class ArtifactoryRuntimeHintsTest {
+
+  private final RuntimeHints hints = new RuntimeHints();
+
+  ArtifactoryRuntimeHintsTest() {
+    new ArtifactoryRuntimeHints().registerHints(hints, getClass().getClassLoader());
+  }
+
+  @Test
+  void shouldRegisterDtosBoundOutsideControllers() {
+    for (Class<?> type :
+        new Class<?>[] {
+          ImageRequestDTO.class, ImageResponseDTO.class, HistoryEntryDTO.class, BulkResultDTO.class
+        }) {
+      assertTrue(RuntimeHintsPredicates.reflection().onType(type).test(hints), type.getName());
+    }
+  }
+
+  @Test
+  void shouldExposeValidatedRequestFields() {
+    assertTrue(
+        RuntimeHintsPredicates.reflection()
+            .onType(ImageRequestDTO.class)
+            .withMemberCategory(MemberCategory.DECLARED_FIELDS)
+            .test(hints));
+    assertTrue(
+        RuntimeHintsPredicates.reflection().onMethod(ImageRequestDTO.class, "prompt").test(hints));
+  }
+}
@@ -0,0 +1,48 @@
+package dev.sagar.artifactory.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.exception.ConcurrencyLimitExceededException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+class RequestExecutorConfigTest {
+
+  private final RequestExecutorConfig config = new RequestExecutorConfig();
+
+  @Test
+  void shouldUseThreadPerRequestWithVirtualThreads() {
+    MockEnvironment environment =
+        new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true");
+
+    AsyncTaskExecutor executor = config.requestExecutor(environment, new ServerProperties());
+
+    assertInstanceOf(SimpleAsyncTaskExecutor.class, executor);
+  }
+
+  @Test
+  void shouldBoundPlatformPoolLikeTomcatAndRejectBeyondIt() throws InterruptedException {
+    ServerProperties serverProperties = new ServerProperties();
+    serverProperties.getTomcat().getThreads().setMax(1);
+    serverProperties.getTomcat().setAcceptCount(1);
+    ThreadPoolTaskExecutor executor =
+        (ThreadPoolTaskExecutor) config.requestExecutor(new MockEnvironment(), serverProperties);
+    executor.initialize();
+    CountDownLatch release = new CountDownLatch(1);
+    try {
+      executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+      executor.submit(() -> release.await(5, TimeUnit.SECONDS));
+
+      assertThrows(ConcurrencyLimitExceededException.class, () -> executor.submit(() -> true));
+    } finally {
+      release.countDown();
+      executor.shutdown();
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package dev.sagar.artifactory.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+class WireFormatConfigTest {
+
+  private final List<HttpMessageConverter<?>> converters =
+      new ArrayList<>(
+          List.of(
+              new MappingJackson2CborHttpMessageConverter(),
+              new MappingJackson2HttpMessageConverter()));
+
+  WireFormatConfigTest() {
+    new WireFormatConfig(Jackson2ObjectMapperBuilder.json()).extendMessageConverters(converters);
+  }
+
+  @Test
+  void shouldAddSingleCborConverterAfterJson() {
+    assertEquals(2, converters.size());
+    assertInstanceOf(MappingJackson2HttpMessageConverter.class, converters.get(0));
+    assertInstanceOf(MappingJackson2CborHttpMessageConverter.class, converters.get(1));
+  }
+
+  @Test
+  void shouldRoundTripResponseAsCbor() throws IOException {
+    MappingJackson2CborHttpMessageConverter cbor =
+        (MappingJackson2CborHttpMessageConverter) converters.get(1);
+    ImageResponseDTO response =
+        new ImageResponseDTO(List.of("https://example.com/a.png", "https://example.com/b.png"));
+
+    MockHttpOutputMessage output = new MockHttpOutputMessage();
+    cbor.write(response, MediaType.APPLICATION_CBOR, output);
+    byte[] body = output.getBodyAsBytes();
+
+    assertEquals(MediaType.APPLICATION_CBOR, output.getHeaders().getContentType());
+    assertNotEquals('{', body[0]);
+    assertEquals(response, cbor.read(ImageResponseDTO.class, new MockHttpInputMessage(body)));
+  }
+}
@@ -0,0 +1,105 @@
+package dev.sagar.artifactory.degradation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.limiter.ModelConcurrencyLimiter;
+import dev.sagar.artifactory.limiter.ProviderLoad;
+import dev.sagar.artifactory.validator.ImageRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class DegradationPolicyTest {
+
+  private static final ProviderLoad QUEUED = new ProviderLoad(25, Duration.ofSeconds(1));
+  private static final ProviderLoad SLOW = new ProviderLoad(0, Duration.ofSeconds(45));
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ModelConcurrencyLimiter concurrencyLimiter = mock(ModelConcurrencyLimiter.class);
+  private final DegradationPolicy policy = policy(true);
+
+  DegradationPolicyTest() {
+    when(concurrencyLimiter.load(anyString())).thenReturn(ProviderLoad.IDLE);
+  }
+
+  @Test
+  void shouldKeepRequestWhenProviderIsNotOverloaded() {
+    ImageRequestDTO request = request("dall-e-3", 1792, 1024, "hd");
+
+    assertSame(request, policy.apply(request, true));
+  }
+
+  @Test
+  void shouldKeepRequestWhenDisabled() {
+    when(concurrencyLimiter.load("dall-e-3")).thenReturn(QUEUED);
+    ImageRequestDTO request = request("dall-e-3", 1024, 1024, "hd");
+
+    assertSame(request, policy(false).apply(request, true));
+  }
+
+  @Test
+  void shouldOnlyCountOverloadedRequestsThatAreNotFlexible() {
+    when(concurrencyLimiter.load("dall-e-3")).thenReturn(QUEUED);
+    ImageRequestDTO request = request("dall-e-3", 1024, 1024, "hd");
+
+    assertSame(request, policy.apply(request, false));
+    assertEquals(
+        1.0,
+        meterRegistry
+            .counter("image.degradation.declined", "model", "dall-e-3", "reason", "queue")
+            .count());
+  }
+
+  @Test
+  void shouldMoveToSmallerFallbackModelWhenItIsNotOverloaded() {
+    when(concurrencyLimiter.load("dall-e-3")).thenReturn(QUEUED);
+
+    ImageRequestDTO degraded = policy.apply(request("dall-e-3", 1792, 1024, "hd"), true);
+
+    assertEquals(request("dall-e-2", 512, 512, "standard"), degraded);
+    assertEquals(
+        1.0,
+        meterRegistry
+            .counter(
+                "image.degradation.applied",
+                "model",
+                "dall-e-3",
+                "target",
+                "dall-e-2/standard",
+                "reason",
+                "queue")
+            .count());
+  }
+
+  @Test
+  void shouldDropToStandardQualityWhenFallbackModelIsOverloadedToo() {
+    when(concurrencyLimiter.load("dall-e-3")).thenReturn(SLOW);
+    when(concurrencyLimiter.load("dall-e-2")).thenReturn(QUEUED);
+
+    ImageRequestDTO degraded = policy.apply(request("dall-e-3", 1024, 1792, "hd"), true);
+
+    assertEquals(request("dall-e-3", 1024, 1792, "standard"), degraded);
+  }
+
+  @Test
+  void shouldKeepRequestWithNothingCheaperToOffer() {
+    when(concurrencyLimiter.load(anyString())).thenReturn(SLOW);
+    ImageRequestDTO request = request("dall-e-3", 1024, 1024, "standard");
+
+    assertSame(request, policy.apply(request, true));
+  }
+
+  private DegradationPolicy policy(boolean enabled) {
+    return new DegradationPolicy(
+        new DegradationProperties(enabled, 10, Duration.ofSeconds(30), "dall-e-2", 512),
+        concurrencyLimiter,
+        new ImageRequestValidator(),
+        meterRegistry);
+  }
+
+  private static ImageRequestDTO request(String model, int width, int height, String quality) {
+    return new ImageRequestDTO("user", "a lighthouse", model, height, width, quality, "vivid", 1);
+  }
+}
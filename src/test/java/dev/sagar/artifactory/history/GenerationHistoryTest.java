@@ -0,0 +1,198 @@
+package dev.sagar.artifactory.history;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import dev.sagar.artifactory.dto.HistoryEntryDTO;
+import dev.sagar.artifactory.dto.HistoryPageDTO;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.image.ImageModel;
+import org.springframework.util.unit.DataSize;
+
+class GenerationHistoryTest {
+
+  private static final String HASH = "ab".repeat(32);
+
+  private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+  @TempDir Path directory;
+
+  private GenerationHistory history;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    history.shutdown();
+  }
+
+  @Test
+  void shouldPageUserHistoryNewestFirst() throws Exception {
+    history = open(DataSize.ofMegabytes(1));
+    for (int i = 0; i < 5; i++) {
+      history.record(request("user1", "prompt " + i), response(), false, System.nanoTime());
+    }
+    history.record(request("user2", "other"), response(), true, System.nanoTime());
+    awaitSize("user1", 5);
+
+    HistoryPageDTO first = history.page("user1", null, 2);
+    HistoryPageDTO second = history.page("user1", first.nextCursor(), 2);
+    HistoryPageDTO last = history.page("user1", second.nextCursor(), 2);
+
+    assertEquals(List.of("prompt 4", "prompt 3"), prompts(first));
+    assertEquals(List.of("prompt 2", "prompt 1"), prompts(second));
+    assertEquals(List.of("prompt 0"), prompts(last));
+    assertNull(last.nextCursor());
+    assertEquals("openai", first.entries().getFirst().provider());
+    assertEquals(List.of(HASH), first.entries().getFirst().imageHashes());
+    assertTrue(history.page("unknown", null, 10).entries().isEmpty());
+  }
+
+  @Test
+  void shouldRebuildIndexFromSegmentsOnRestart() throws Exception {
+    history = open(DataSize.ofBytes(512));
+    for (int i = 0; i < 10; i++) {
+      history.record(request("user1", "prompt " + i), response(), false, System.nanoTime());
+      awaitSize("user1", i + 1);
+    }
+    history.shutdown();
+    List<Path> segments = segments();
+    assertTrue(segments.size() > 1);
+    Path lastSegment = segments.getLast();
+    Files.writeString(lastSegment, "{\"id\":", StandardOpenOption.APPEND);
+
+    history = open(DataSize.ofBytes(512));
+    history.record(request("user1", "after restart"), response(), false, System.nanoTime());
+    awaitSize("user1", 11);
+
+    List<HistoryEntryDTO> entries = history.page("user1", null, 100).entries();
+    assertEquals(11, entries.size());
+    assertEquals("after restart", entries.getFirst().prompt());
+    assertEquals("prompt 0", entries.getLast().prompt());
+    assertEquals(11, entries.getFirst().id());
+  }
+
+  @Test
+  void shouldSkipUnreadableRecordInOlderSegment() throws Exception {
+    history = open(DataSize.ofBytes(512));
+    for (int i = 0; i < 10; i++) {
+      history.record(request("user1", "prompt " + i), response(), false, System.nanoTime());
+      awaitSize("user1", i + 1);
+    }
+    history.shutdown();
+    Path firstSegment = segments().getFirst();
+    byte[] records = Files.readAllBytes(firstSegment);
+    Files.writeString(firstSegment, "{\"id\":\n");
+    Files.write(firstSegment, records, StandardOpenOption.APPEND);
+
+    history = open(DataSize.ofBytes(512));
+
+    assertEquals(10, history.page("user1", null, 100).entries().size());
+    assertEquals(records.length + 7, Files.size(firstSegment));
+  }
+
+  @Test
+  void shouldDeleteExpiredSegmentsAndPruneIndex() throws Exception {
+    history = open(DataSize.ofBytes(512));
+    for (int i = 0; i < 10; i++) {
+      history.record(request("user1", "prompt " + i), response(), false, System.nanoTime());
+      awaitSize("user1", i + 1);
+    }
+    history.record(request("user2", "old"), response(), false, System.nanoTime());
+    awaitSize("user2", 1);
+    history.shutdown();
+    List<Path> segments = segments();
+    FileTime expired = FileTime.from(Instant.now().minus(Duration.ofDays(2)));
+    for (Path segment : segments.subList(0, segments.size() - 2)) {
+      Files.setLastModifiedTime(segment, expired);
+    }
+
+    history = open(DataSize.ofBytes(512), Duration.ofDays(1), DataSize.ofBytes(0));
+    for (int i = 0; i < 200 && segments().size() > 2; i++) {
+      Thread.sleep(10);
+    }
+    history.record(request("user1", "after restart"), response(), false, System.nanoTime());
+    awaitSize("user1", 2);
+
+    assertEquals(3, segments().size());
+    HistoryPageDTO first = history.page("user1", null, 1);
+    HistoryPageDTO second = history.page("user1", first.nextCursor(), 1);
+    assertEquals(List.of("after restart"), prompts(first));
+    assertEquals(10, first.nextCursor());
+    assertEquals(List.of("prompt 9"), prompts(second));
+    assertNull(second.nextCursor());
+    assertEquals(List.of("old"), prompts(history.page("user2", null, 10)));
+  }
+
+  @Test
+  void shouldDeleteOldestSegmentsOverMaxSize() throws Exception {
+    history = open(DataSize.ofBytes(512));
+    for (int i = 0; i < 10; i++) {
+      history.record(request("user1", "prompt " + i), response(), false, System.nanoTime());
+      awaitSize("user1", i + 1);
+    }
+    history.shutdown();
+    long segmentBytes = Files.size(segments().getLast());
+
+    history = open(DataSize.ofBytes(512), Duration.ZERO, DataSize.ofBytes(3 * segmentBytes));
+    for (int i = 0; i < 200 && segments().size() > 3; i++) {
+      Thread.sleep(10);
+    }
+
+    assertEquals(3, segments().size());
+    assertEquals(
+        List.of("prompt 9", "prompt 8", "prompt 7"),
+        prompts(history.page("user1", null, 100)));
+  }
+
+  private GenerationHistory open(DataSize segmentSize) {
+    return open(segmentSize, Duration.ZERO, DataSize.ofBytes(0));
+  }
+
+  private GenerationHistory open(DataSize segmentSize, Duration retention, DataSize maxSize) {
+    return new GenerationHistory(
+        new HistoryProperties(true, directory, segmentSize, retention, maxSize, 100, 16, false),
+        objectMapper,
+        mock(ImageModel.class),
+        new SimpleMeterRegistry());
+  }
+
+  private List<Path> segments() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.sorted().toList();
+    }
+  }
+
+  private void awaitSize(String userId, int size) throws InterruptedException {
+    for (int i = 0; i < 200 && history.page(userId, null, 100).entries().size() < size; i++) {
+      Thread.sleep(10);
+    }
+    assertEquals(size, history.page(userId, null, 100).entries().size());
+  }
+
+  private static List<String> prompts(HistoryPageDTO page) {
+    return page.entries().stream().map(HistoryEntryDTO::prompt).toList();
+  }
+
+  private static ImageRequestDTO request(String userId, String prompt) {
+    return new ImageRequestDTO(userId, prompt, "dall-e-3", 1024, 1024, "standard", "vivid", 1);
+  }
+
+  private static ImageResponseDTO response() {
+    return new ImageResponseDTO(List.of("http://localhost:8080/api/v1/images/" + HASH));
+  }
+}
@@ -0,0 +1,182 @@
+package dev.sagar.artifactory.job;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import dev.sagar.artifactory.dto.ImageJobDTO;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.exception.JobNotCompletedException;
+import dev.sagar.artifactory.exception.JobNotFoundException;
+import dev.sagar.artifactory.exception.JobQueueFullException;
+import dev.sagar.artifactory.exception.QuotaExceededException;
+import dev.sagar.artifactory.service.GenerationOptions;
+import dev.sagar.artifactory.service.ImageService;
+import dev.sagar.artifactory.validator.ImageRequestValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.web.client.RestClient;
+
+@ExtendWith(MockitoExtension.class)
+class ImageJobServiceTest {
+
+  private final ImageRequestDTO request =
+      new ImageRequestDTO(
+          "user123", "A beautiful sunset", "dall-e-3", 1024, 1024, "standard", "vivid", 1);
+
+  @Mock private ImageService imageService;
+  @Mock private ImageRequestValidator validator;
+
+  private ImageJobService jobService;
+
+  @AfterEach
+  void tearDown() {
+    if (jobService != null) {
+      jobService.shutdown();
+    }
+  }
+
+  @Test
+  void submit_shouldCompleteJobWithResult() throws InterruptedException {
+    jobService = createJobService(2, 10);
+    ImageResponseDTO response = new ImageResponseDTO(List.of("https://example.com/image.png"));
+    when(imageService.generateImages(any(), any())).thenReturn(response);
+
+    ImageJobDTO job = jobService.submit(request, GenerationOptions.DEFAULT, null);
+
+    awaitTerminal(job.jobId());
+    assertEquals(JobStatus.SUCCEEDED.name(), jobService.getJob(job.jobId()).status());
+    assertEquals(response, jobService.getResult(job.jobId()));
+  }
+
+  @Test
+  void submit_shouldRecordFailure() throws InterruptedException {
+    jobService = createJobService(2, 10);
+    when(imageService.generateImages(any(), any())).thenThrow(new RuntimeException("API Error"));
+
+    ImageJobDTO job = jobService.submit(request, GenerationOptions.DEFAULT, null);
+
+    awaitTerminal(job.jobId());
+    ImageJobDTO failed = jobService.getJob(job.jobId());
+    assertEquals(JobStatus.FAILED.name(), failed.status());
+    assertEquals("server_error", failed.error().error());
+    assertThrows(JobNotCompletedException.class, () -> jobService.getResult(job.jobId()));
+  }
+
+  @Test
+  void submit_shouldReportQuotaFailureWithItsOwnErrorCode() throws InterruptedException {
+    jobService = createJobService(2, 10);
+    when(imageService.generateImages(any(), any()))
+        .thenThrow(new QuotaExceededException("Quota exceeded", Duration.ofSeconds(30)));
+
+    ImageJobDTO job = jobService.submit(request, GenerationOptions.DEFAULT, null);
+
+    awaitTerminal(job.jobId());
+    assertEquals("quota_exceeded", jobService.getJob(job.jobId()).error().error());
+  }
+
+  @Test
+  void submit_shouldRejectCallbackToPrivateAddress() {
+    jobService = createJobService(1, 1);
+
+    for (String callbackUrl :
+        List.of(
+            "http://127.0.0.1:8080/hook",
+            "http://169.254.169.254/latest/meta-data",
+            "http://10.0.0.7/hook",
+            "http://[::1]/hook",
+            "http://localhost/hook")) {
+      assertThrows(
+          InvalidParameterException.class,
+          () -> jobService.submit(request, GenerationOptions.DEFAULT, callbackUrl),
+          callbackUrl);
+    }
+    verify(imageService, never()).generateImages(any(), any());
+  }
+
+  @Test
+  void submit_shouldAcceptCallbackToAllowedHost() throws InterruptedException {
+    jobService = createJobService(1, 1, List.of("localhost"));
+    when(imageService.generateImages(any(), any())).thenReturn(new ImageResponseDTO(List.of()));
+
+    ImageJobDTO job =
+        jobService.submit(request, GenerationOptions.DEFAULT, "http://localhost:1/hook");
+
+    awaitTerminal(job.jobId());
+    assertEquals(JobStatus.SUCCEEDED.name(), jobService.getJob(job.jobId()).status());
+  }
+
+  @Test
+  void submit_shouldRejectInvalidCallbackUrl() {
+    jobService = createJobService(1, 1);
+
+    assertThrows(
+        InvalidParameterException.class,
+        () -> jobService.submit(request, GenerationOptions.DEFAULT, "ftp://example.com/hook"));
+    verify(imageService, never()).generateImages(any(), any());
+  }
+
+  @Test
+  void submit_shouldRejectWhenQueueIsFull() throws InterruptedException {
+    jobService = createJobService(1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(imageService.generateImages(any(), any()))
+        .thenAnswer(
+            invocation -> {
+              release.await(5, TimeUnit.SECONDS);
+              return new ImageResponseDTO(List.of());
+            });
+
+    jobService.submit(request, GenerationOptions.DEFAULT, null);
+    jobService.submit(request, GenerationOptions.DEFAULT, null);
+    try {
+      assertThrows(
+          JobQueueFullException.class,
+          () -> jobService.submit(request, GenerationOptions.DEFAULT, null));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void getJob_shouldThrowForUnknownJob() {
+    jobService = createJobService(1, 1);
+
+    assertThrows(JobNotFoundException.class, () -> jobService.getJob("missing"));
+  }
+
+  private ImageJobService createJobService(int workers, int queueCapacity) {
+    return createJobService(workers, queueCapacity, List.of());
+  }
+
+  private ImageJobService createJobService(
+      int workers, int queueCapacity, List<String> callbackAllowedHosts) {
+    return new ImageJobService(
+        imageService,
+        validator,
+        new JobProperties(
+            workers, queueCapacity, 100, Duration.ofMinutes(5), callbackAllowedHosts),
+        RestClient.builder(),
+        new StandardEnvironment(),
+        new SimpleMeterRegistry());
+  }
+
+  private void awaitTerminal(String jobId) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!JobStatus.valueOf(jobService.getJob(jobId).status()).isTerminal()) {
+      assertTrue(System.nanoTime() < deadline, "job did not finish in time");
+      Thread.sleep(5);
+    }
+  }
+}
@@ -0,0 +1,40 @@
+package dev.sagar.artifactory.limiter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class LatencyAverageTest {
+
+  private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+  private final LatencyAverage average = new LatencyAverage(Duration.ofSeconds(10));
+
+  @Test
+  void shouldMoveAFifthTowardsBackToBackSamples() {
+    assertEquals(0, average.nanos(0));
+
+    average.record(10 * SECOND, 0);
+    average.record(0, 0);
+
+    assertEquals(8 * SECOND, average.nanos(0), 1);
+  }
+
+  @Test
+  void shouldFadeWhileNoCallCompletes() {
+    average.record(40 * SECOND, 0);
+
+    assertEquals(20 * SECOND, average.nanos(10 * SECOND), 1);
+    assertEquals(10 * SECOND, average.nanos(20 * SECOND), 1);
+  }
+
+  @Test
+  void shouldFavourFreshSampleAfterLongIdle() {
+    average.record(60 * SECOND, 0);
+
+    average.record(SECOND, 100 * SECOND);
+
+    assertTrue(average.nanos(100 * SECOND) < 2 * SECOND);
+  }
+}
@@ -0,0 +1,169 @@
+package dev.sagar.artifactory.limiter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.exception.ConcurrencyLimitExceededException;
+import dev.sagar.artifactory.exception.ProviderThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.retry.NonTransientAiException;
+
+class ModelConcurrencyLimiterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldShrinkLimitAndReportThrottlingWhenProviderReturns429() {
+    ModelConcurrencyLimiter limiter = createLimiter(10, 100, Duration.ofSeconds(1));
+
+    assertThrows(
+        ProviderThrottledException.class,
+        () ->
+            limiter.call(
+                "dall-e-3",
+                () -> {
+                  throw new NonTransientAiException("429 - Rate limit reached");
+                }));
+
+    assertEquals(9.0, limitGauge("dall-e-3"));
+    assertEquals(
+        1.0,
+        meterRegistry.get("image.provider.throttled").tag("model", "dall-e-3").counter().count());
+  }
+
+  @Test
+  void shouldGrowLimitOnSuccessWhileSaturated() {
+    ModelConcurrencyLimiter limiter = createLimiter(1, 100, Duration.ofSeconds(1));
+
+    limiter.call("dall-e-2", () -> "ok");
+
+    assertEquals(2.0, limitGauge("dall-e-2"));
+  }
+
+  @Test
+  void shouldNotShrinkLimitForOtherErrors() {
+    ModelConcurrencyLimiter limiter = createLimiter(10, 100, Duration.ofSeconds(1));
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            limiter.call(
+                "dall-e-3",
+                () -> {
+                  throw new IllegalStateException("API Error");
+                }));
+
+    assertEquals(10.0, limitGauge("dall-e-3"));
+  }
+
+  @Test
+  void shouldRejectWhenLimitReachedAndQueueFull() throws Exception {
+    ModelConcurrencyLimiter limiter = createLimiter(1, 0, Duration.ofSeconds(1));
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    executor.submit(
+        () ->
+            limiter.call(
+                "dall-e-3",
+                () -> {
+                  started.countDown();
+                  return await(release);
+                }));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    try {
+      assertThrows(
+          ConcurrencyLimitExceededException.class, () -> limiter.call("dall-e-3", () -> "ok"));
+      assertEquals(
+          1.0,
+          meterRegistry.get("image.provider.rejected").tag("model", "dall-e-3").counter().count());
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void shouldRejectQueuedCallAfterMaxWait() throws Exception {
+    ModelConcurrencyLimiter limiter = createLimiter(1, 10, Duration.ofMillis(50));
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    executor.submit(
+        () ->
+            limiter.call(
+                "dall-e-3",
+                () -> {
+                  started.countDown();
+                  return await(release);
+                }));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+
+    try {
+      assertThrows(
+          ConcurrencyLimitExceededException.class, () -> limiter.call("dall-e-3", () -> "ok"));
+    } finally {
+      release.countDown();
+    }
+  }
+
+  @Test
+  void shouldReportSmoothedLatencyOfCompletedCalls() {
+    ModelConcurrencyLimiter limiter = createLimiter(10, 100, Duration.ofSeconds(1));
+
+    assertEquals(ProviderLoad.IDLE, limiter.load("dall-e-3"));
+    limiter.call(
+        "dall-e-3",
+        () -> {
+          try {
+            Thread.sleep(20);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          return "ok";
+        });
+
+    ProviderLoad load = limiter.load("DALL-E-3");
+    assertEquals(0, load.queued());
+    assertTrue(load.latency().toMillis() >= 20);
+  }
+
+  private ModelConcurrencyLimiter createLimiter(
+      int initialLimit, int maxQueue, Duration maxQueueWait) {
+    return new ModelConcurrencyLimiter(
+        new LimiterProperties(
+            true,
+            initialLimit,
+            1,
+            100,
+            0.9,
+            Duration.ofSeconds(60),
+            maxQueue,
+            maxQueueWait,
+            Duration.ofSeconds(30)),
+        meterRegistry);
+  }
+
+  private static boolean await(CountDownLatch latch) {
+    try {
+      return latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private double limitGauge(String model) {
+    return meterRegistry.get("image.provider.limit").tag("model", model).gauge().value();
+  }
+}
@@ -0,0 +1,81 @@
+package dev.sagar.artifactory.observability;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class PipelineMetricsTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final PipelineMetrics metrics =
+      new PipelineMetrics(
+          new ObservabilityProperties(Duration.ZERO, 1.0), meterRegistry, ObservationRegistry.NOOP);
+
+  @Test
+  void shouldRecordStageTimerTaggedByRequest() {
+    ImageRequestDTO request =
+        new ImageRequestDTO("user1", "a red car", "DALL-E-3", 1792, 1024, "HD", "vivid", 1);
+    RequestTrace trace = metrics.start(request);
+
+    String result = metrics.time(PipelineStage.PROVIDER, trace, () -> "ok");
+    metrics.finish(trace, null);
+
+    assertEquals("ok", result);
+    Timer timer =
+        meterRegistry
+            .get(PipelineMetrics.STAGE_TIMER)
+            .tags("stage", "provider", "model", "dall-e-3", "size", "1024x1792")
+            .tags("quality", "hd", "outcome", "success", "error", "none")
+            .timer();
+    assertEquals(1, timer.count());
+    assertTrue(trace.stageNanos(PipelineStage.PROVIDER) > 0);
+  }
+
+  @Test
+  void shouldTagErrorsAndCollapseUnknownValues() {
+    ImageRequestDTO request =
+        new ImageRequestDTO("user1", "a red car", "my-model", 640, 480, "ultra", "vivid", 1);
+    RequestTrace trace = metrics.start(request);
+    InvalidParameterException error = new InvalidParameterException("Invalid model");
+
+    assertThrows(
+        InvalidParameterException.class,
+        () ->
+            metrics.run(
+                PipelineStage.VALIDATION,
+                trace,
+                () -> {
+                  throw error;
+                }));
+    metrics.finish(trace, error);
+
+    Timer timer =
+        meterRegistry
+            .get(PipelineMetrics.STAGE_TIMER)
+            .tags("stage", "validation", "model", "other", "size", "other", "quality", "other")
+            .tags("outcome", "error", "error", "InvalidParameterException")
+            .timer();
+    assertEquals(1, timer.count());
+  }
+
+  @Test
+  void shouldReuseTimerForSameTags() {
+    ImageRequestDTO request =
+        new ImageRequestDTO("user1", "a red car", "dall-e-2", 512, 512, "standard", "vivid", 2);
+
+    for (int i = 0; i < 3; i++) {
+      RequestTrace trace = metrics.start(request);
+      metrics.record(PipelineStage.MAPPING, trace, 1_000, null);
+      metrics.finish(trace, null);
+    }
+
+    assertEquals(1, meterRegistry.get(PipelineMetrics.STAGE_TIMER).timers().size());
+    assertEquals(3, meterRegistry.get(PipelineMetrics.STAGE_TIMER).timer().count());
+  }
+}
@@ -0,0 +1,67 @@
+package dev.sagar.artifactory.quota;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class InMemoryQuotaStoreTest {
+
+  private final InMemoryQuotaStore store = new InMemoryQuotaStore(1000);
+
+  @Test
+  void shouldAllowRequestsUpToLimitThenReject() {
+    QuotaLimits limits = new QuotaLimits(3, Duration.ofMinutes(1), 100, Duration.ofHours(1));
+
+    for (int i = 0; i < 3; i++) {
+      assertTrue(store.tryAcquire("user1", "dall-e-3", limits, 1).allowed());
+    }
+    QuotaDecision decision = store.tryAcquire("user1", "dall-e-3", limits, 1);
+
+    assertFalse(decision.allowed());
+    assertEquals("requests", decision.exceeded());
+    assertTrue(decision.retryAfter().compareTo(Duration.ZERO) > 0);
+    assertTrue(decision.retryAfter().compareTo(Duration.ofSeconds(20)) <= 0);
+  }
+
+  @Test
+  void shouldCountImagesSeparatelyFromRequests() {
+    QuotaLimits limits = new QuotaLimits(100, Duration.ofMinutes(1), 10, Duration.ofHours(1));
+
+    assertTrue(store.tryAcquire("user1", "dall-e-2", limits, 6).allowed());
+    QuotaDecision decision = store.tryAcquire("user1", "dall-e-2", limits, 6);
+
+    assertFalse(decision.allowed());
+    assertEquals("images", decision.exceeded());
+    assertTrue(store.tryAcquire("user1", "dall-e-2", limits, 4).allowed());
+  }
+
+  @Test
+  void shouldTrackUsersAndModelsIndependently() {
+    QuotaLimits limits = new QuotaLimits(1, Duration.ofMinutes(1), 10, Duration.ofHours(1));
+
+    assertTrue(store.tryAcquire("user1", "dall-e-3", limits, 1).allowed());
+    assertTrue(store.tryAcquire("user2", "dall-e-3", limits, 1).allowed());
+    assertTrue(store.tryAcquire("user1", "dall-e-2", limits, 1).allowed());
+    assertFalse(store.tryAcquire("user1", "DALL-E-3", limits, 1).allowed());
+    assertEquals(3, store.trackedUsers());
+  }
+
+  @Test
+  void shouldKeepExhaustedUserUntilBucketsRefill() {
+    AtomicLong now = new AtomicLong(1_000_000_000L);
+    InMemoryQuotaStore store = new InMemoryQuotaStore(1000, now::get);
+    QuotaLimits limits = new QuotaLimits(2, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+
+    assertTrue(store.tryAcquire("user1", "dall-e-3", limits, 1).allowed());
+    assertTrue(store.tryAcquire("user1", "dall-e-3", limits, 1).allowed());
+    now.addAndGet(Duration.ofSeconds(20).toNanos());
+
+    assertEquals(1, store.trackedUsers());
+    assertFalse(store.tryAcquire("user1", "dall-e-3", limits, 1).allowed());
+
+    now.addAndGet(Duration.ofMinutes(30).toNanos());
+    assertEquals(0, store.trackedUsers());
+  }
+}
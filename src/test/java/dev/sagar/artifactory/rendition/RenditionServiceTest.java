@@ -0,0 +1,122 @@
+package dev.sagar.artifactory.rendition;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import dev.sagar.artifactory.exception.ImageNotFoundException;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.storage.ImageStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+class RenditionServiceTest {
+
+  private static final String HASH = "ab".repeat(32);
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ImageStore imageStore = mock(ImageStore.class);
+
+  @TempDir Path directory;
+
+  private RenditionService service;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    BufferedImage image = new BufferedImage(1792, 1024, BufferedImage.TYPE_INT_ARGB);
+    Path source = directory.resolve(HASH);
+    ImageIO.write(image, "png", source.toFile());
+    when(imageStore.find(HASH)).thenReturn(Optional.of(source));
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void shouldRenderOnceAndServeRepeatsFromMemory() throws Exception {
+    service = create(DataSize.ofMegabytes(1));
+    RenditionSpec spec = RenditionSpec.of(256, RenditionFormat.JPEG, "medium");
+
+    RenditionService.Rendition first = service.get(HASH, spec);
+    RenditionService.Rendition second = service.get(HASH, spec);
+
+    assertEquals(MediaType.IMAGE_JPEG, first.mediaType());
+    BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(bytes(first.body())));
+    assertEquals(256, decoded.getWidth());
+    assertEquals(146, decoded.getHeight());
+    assertEquals(first.tag(), second.tag());
+    assertEquals(1, requests("rendered"));
+    assertEquals(1, requests("memory"));
+  }
+
+  @Test
+  void shouldSpillRenditionsThatDoNotFitInMemory() {
+    service = create(DataSize.ofBytes(1));
+    RenditionSpec spec = RenditionSpec.of(128, RenditionFormat.PNG, "high");
+
+    service.get(HASH, spec);
+    RenditionService.Rendition spilled = service.get(HASH, spec);
+
+    assertNotNull(spilled.file());
+    assertTrue(Files.exists(spilled.file()));
+    assertEquals(1, requests("disk"));
+  }
+
+  @Test
+  void shouldRejectUnsupportedWidthsAndUnknownImages() {
+    service = create(DataSize.ofMegabytes(1));
+
+    assertThrows(
+        InvalidParameterException.class,
+        () -> service.get(HASH, RenditionSpec.of(300, RenditionFormat.JPEG, "medium")));
+    assertThrows(
+        ImageNotFoundException.class,
+        () -> service.get("cd".repeat(32), RenditionSpec.of(256, RenditionFormat.JPEG, "low")));
+    assertThrows(
+        InvalidParameterException.class,
+        () -> RenditionSpec.of(256, RenditionFormat.JPEG, "maximum"));
+  }
+
+  private RenditionService create(DataSize memorySize) {
+    try {
+      return new RenditionService(
+          new RenditionProperties(
+              true,
+              directory.resolve("renditions"),
+              List.of(128, 256, 512),
+              1,
+              4,
+              memorySize,
+              DataSize.ofMegabytes(10)),
+          imageStore,
+          meterRegistry);
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private double requests(String source) {
+    return meterRegistry.counter("image.rendition.requests", "source", source).count();
+  }
+
+  private static byte[] bytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.duplicate().get(bytes);
+    return bytes;
+  }
+}
@@ -0,0 +1,190 @@
+package dev.sagar.artifactory.routing;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.client.Deadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.image.Image;
+import org.springframework.ai.image.ImageGeneration;
+import org.springframework.ai.image.ImageModel;
+import org.springframework.ai.image.ImagePrompt;
+import org.springframework.ai.image.ImageResponse;
+import org.springframework.ai.retry.NonTransientAiException;
+import org.springframework.ai.retry.TransientAiException;
+
+class ImageModelRouterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ImagePrompt prompt = new ImagePrompt("A red car");
+  private ImageModelRouter router;
+
+  @AfterEach
+  void tearDown() {
+    if (router != null) {
+      router.shutdown();
+    }
+  }
+
+  @Test
+  void shouldFailOverToNextBackend() {
+    router =
+        createRouter(
+            false,
+            backend(
+                "broken",
+                p -> {
+                  throw new TransientAiException("503 - Service Unavailable");
+                }),
+            backend("healthy", respondingWith("https://example.com/healthy.png", Duration.ZERO)));
+
+    ImageResponse response = router.call(prompt);
+
+    assertEquals("https://example.com/healthy.png", response.getResult().getOutput().getUrl());
+    assertEquals(1.0, meterRegistry.get("image.backend.failover").counter().count());
+  }
+
+  @Test
+  void shouldPassOnRejectedRequestWithoutFailover() {
+    AtomicInteger secondCalls = new AtomicInteger();
+    router =
+        createRouter(
+            false,
+            backend(
+                "rejecting",
+                p -> {
+                  throw new NonTransientAiException("400 - content_policy_violation");
+                }),
+            backend(
+                "healthy",
+                p -> {
+                  secondCalls.incrementAndGet();
+                  return respondingWith("healthy", Duration.ZERO).call(p);
+                }));
+
+    assertThrows(NonTransientAiException.class, () -> router.call(prompt));
+
+    assertEquals(0, secondCalls.get());
+    assertEquals(0.0, meterRegistry.get("image.backend.failover").counter().count());
+    assertEquals(
+        0.0,
+        meterRegistry.get("image.backend.errors").tag("backend", "rejecting").counter().count());
+  }
+
+  @Test
+  void shouldPreferFasterBackend() {
+    RoutedBackend slow = backend("slow", respondingWith("slow", Duration.ofMillis(40)));
+    RoutedBackend fast = backend("fast", respondingWith("fast", Duration.ZERO));
+    router = createRouter(false, slow, fast);
+
+    slow.call(prompt);
+    fast.call(prompt);
+
+    assertEquals("fast", router.rank().getFirst().name());
+  }
+
+  @Test
+  void shouldDeprioritizeFailingBackend() {
+    RoutedBackend failing =
+        backend(
+            "failing",
+            p -> {
+              throw new TransientAiException("500 - Internal Server Error");
+            });
+    RoutedBackend healthy = backend("healthy", respondingWith("ok", Duration.ofMillis(5)));
+    router = createRouter(false, failing, healthy);
+
+    for (int i = 0; i < 5; i++) {
+      assertThrows(TransientAiException.class, () -> failing.call(prompt));
+    }
+    healthy.call(prompt);
+
+    assertEquals("healthy", router.rank().getFirst().name());
+  }
+
+  @Test
+  void shouldHedgeSlowPrimary() {
+    router =
+        createRouter(
+            true,
+            backend("slow", respondingWith("slow", Duration.ofSeconds(5))),
+            backend("fast", respondingWith("fast", Duration.ZERO)));
+
+    long started = System.nanoTime();
+    ImageResponse response = router.call(prompt);
+
+    assertEquals("fast", response.getResult().getOutput().getUrl());
+    assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(2)) < 0);
+    assertEquals(1.0, meterRegistry.get("image.backend.hedged").counter().count());
+  }
+
+  @Test
+  void shouldInterruptHedgedCallsWhenDeadlineIsCancelled() throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(2);
+    CountDownLatch interrupted = new CountDownLatch(2);
+    ImageModel hanging =
+        p -> {
+          started.countDown();
+          try {
+            Thread.sleep(Duration.ofSeconds(10));
+          } catch (InterruptedException e) {
+            interrupted.countDown();
+          }
+          throw new IllegalStateException("500 - Internal Server Error");
+        };
+    router = createRouter(true, backend("first", hanging), backend("second", hanging));
+
+    try (Deadline.Scope ignored =
+        Deadline.open(System.nanoTime() + TimeUnit.MINUTES.toNanos(1))) {
+      Deadline deadline = Deadline.current();
+      Thread.ofPlatform()
+          .start(
+              () -> {
+                try {
+                  started.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                  Thread.currentThread().interrupt();
+                }
+                deadline.cancel(Deadline.Cancellation.CLIENT_DISCONNECTED);
+              });
+
+      assertThrows(RuntimeException.class, () -> router.call(prompt));
+    }
+    assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+  }
+
+  private ImageModelRouter createRouter(boolean hedging, RoutedBackend... backends) {
+    RoutingProperties properties =
+        new RoutingProperties(
+            true,
+            0.5,
+            0.0,
+            new RoutingProperties.Hedging(hedging, 0.95, Duration.ofMillis(50), 0),
+            List.of());
+    return new ImageModelRouter(
+        List.of(backends), properties, Executors.newCachedThreadPool(), meterRegistry);
+  }
+
+  private RoutedBackend backend(String name, ImageModel imageModel) {
+    return new RoutedBackend(name, imageModel, 0.95, meterRegistry);
+  }
+
+  private static ImageModel respondingWith(String url, Duration latency) {
+    return p -> {
+      try {
+        Thread.sleep(latency);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+      return new ImageResponse(List.of(new ImageGeneration(new Image(url, null))));
+    };
+  }
+}
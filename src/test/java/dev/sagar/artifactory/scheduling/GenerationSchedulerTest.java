@@ -0,0 +1,208 @@
+package dev.sagar.artifactory.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.client.Deadline;
+import dev.sagar.artifactory.exception.ConcurrencyLimitExceededException;
+import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.exception.RequestCancelledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class GenerationSchedulerTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ExecutorService callers = Executors.newCachedThreadPool();
+  private final List<GenerationScheduler> schedulers = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    callers.shutdownNow();
+    schedulers.forEach(GenerationScheduler::shutdown);
+  }
+
+  @Test
+  void fairQueueShouldAlternateBetweenUsers() {
+    FairQueue<String> queue = new FairQueue<>(user -> 1);
+    for (int i = 0; i < 4; i++) {
+      queue.offer("bulk", "bulk-" + i);
+    }
+    queue.offer("alice", "alice-0");
+    queue.offer("alice", "alice-1");
+
+    assertEquals(
+        List.of("bulk-0", "alice-0", "bulk-1", "alice-1", "bulk-2", "bulk-3"), drain(queue));
+  }
+
+  @Test
+  void fairQueueShouldServeUsersInProportionToWeight() {
+    FairQueue<String> queue = new FairQueue<>(user -> "alice".equals(user) ? 2 : 1);
+    for (int i = 0; i < 3; i++) {
+      queue.offer("bob", "bob-" + i);
+    }
+    for (int i = 0; i < 4; i++) {
+      queue.offer("alice", "alice-" + i);
+    }
+
+    assertEquals(
+        List.of("bob-0", "alice-0", "alice-1", "bob-1", "alice-2", "alice-3", "bob-2"),
+        drain(queue));
+  }
+
+  @Test
+  void shouldRunDirectlyWhenDisabled() {
+    GenerationScheduler scheduler = scheduler(false, 1, 10);
+
+    assertEquals("ok", scheduler.execute(PriorityClass.BACKGROUND, "user", () -> "ok"));
+  }
+
+  @Test
+  void shouldAdmitHigherClassFirstWhenSlotFrees() throws Exception {
+    GenerationScheduler scheduler = scheduler(true, 1, 10);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<?> running = occupySlot(scheduler, release);
+    List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+    Future<?> background =
+        callers.submit(
+            () -> scheduler.execute(PriorityClass.BACKGROUND, "bulk", () -> order.add("bulk")));
+    awaitQueued(PriorityClass.BACKGROUND, 1);
+    Future<?> interactive =
+        callers.submit(
+            () -> scheduler.execute(PriorityClass.INTERACTIVE, "alice", () -> order.add("alice")));
+    awaitQueued(PriorityClass.INTERACTIVE, 1);
+    release.countDown();
+
+    running.get(5, TimeUnit.SECONDS);
+    interactive.get(5, TimeUnit.SECONDS);
+    background.get(5, TimeUnit.SECONDS);
+    assertEquals(List.of("alice", "bulk"), order);
+    assertEquals(
+        1, meterRegistry.get("image.schedule.latency").tag("class", "interactive").timer().count());
+    assertEquals(
+        1.0,
+        meterRegistry
+            .counter("image.schedule.slo", "class", "interactive", "result", "met")
+            .count());
+  }
+
+  @Test
+  void shouldRejectWhenClassQueueIsFull() throws Exception {
+    GenerationScheduler scheduler = scheduler(true, 1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<?> running = occupySlot(scheduler, release);
+    Future<?> queued =
+        callers.submit(() -> scheduler.execute(PriorityClass.STANDARD, "a", () -> "queued"));
+    awaitQueued(PriorityClass.STANDARD, 1);
+
+    try {
+      assertThrows(
+          ConcurrencyLimitExceededException.class,
+          () -> scheduler.execute(PriorityClass.STANDARD, "b", () -> "rejected"));
+      assertEquals(
+          1.0, meterRegistry.counter("image.schedule.rejected", "class", "standard").count());
+    } finally {
+      release.countDown();
+    }
+    running.get(5, TimeUnit.SECONDS);
+    assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldFreeQueuePlaceWhenQueuedRequestExpires() throws Exception {
+    GenerationScheduler scheduler = scheduler(true, 1, 1);
+    CountDownLatch release = new CountDownLatch(1);
+    Future<?> running = occupySlot(scheduler, release);
+
+    try (Deadline.Scope ignored =
+        Deadline.open(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(50))) {
+      assertThrows(
+          RequestCancelledException.class,
+          () -> scheduler.execute(PriorityClass.STANDARD, "a", () -> "expired"));
+    }
+    assertEquals(
+        0.0, meterRegistry.get("image.schedule.queued").tag("class", "standard").gauge().value());
+    Future<?> queued =
+        callers.submit(() -> scheduler.execute(PriorityClass.STANDARD, "b", () -> "queued"));
+    awaitQueued(PriorityClass.STANDARD, 1);
+    release.countDown();
+
+    running.get(5, TimeUnit.SECONDS);
+    assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldPreferApiKeyMappingOverRequestedClass() {
+    GenerationScheduler scheduler = scheduler(false, 1, 10);
+
+    assertEquals(PriorityClass.BACKGROUND, scheduler.classify("backfill-key", "interactive"));
+    assertEquals(PriorityClass.INTERACTIVE, scheduler.classify(null, "Interactive"));
+    assertEquals(PriorityClass.STANDARD, scheduler.classify("unknown-key", null));
+    assertThrows(InvalidParameterException.class, () -> scheduler.classify(null, "urgent"));
+  }
+
+  private Future<?> occupySlot(GenerationScheduler scheduler, CountDownLatch release)
+      throws InterruptedException {
+    CountDownLatch started = new CountDownLatch(1);
+    Future<?> running =
+        callers.submit(
+            () ->
+                scheduler.execute(
+                    PriorityClass.STANDARD,
+                    "holder",
+                    () -> {
+                      started.countDown();
+                      try {
+                        return release.await(5, TimeUnit.SECONDS);
+                      } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                      }
+                    }));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    return running;
+  }
+
+  private void awaitQueued(PriorityClass priority, int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.get("image.schedule.queued").tag("class", priority.tag()).gauge().value()
+        < expected) {
+      assertTrue(System.nanoTime() < deadline, "request was not queued");
+      Thread.sleep(5);
+    }
+  }
+
+  private GenerationScheduler scheduler(boolean enabled, int maxConcurrency, int maxQueued) {
+    GenerationScheduler scheduler =
+        new GenerationScheduler(
+            new SchedulingProperties(
+                enabled,
+                maxConcurrency,
+                PriorityClass.STANDARD,
+                new SchedulingProperties.ClassLimits(maxQueued, Duration.ofSeconds(10)),
+                Map.of(),
+                Map.of("backfill-key", PriorityClass.BACKGROUND),
+                Map.of()),
+            meterRegistry);
+    schedulers.add(scheduler);
+    return scheduler;
+  }
+
+  private static List<String> drain(FairQueue<String> queue) {
+    List<String> items = new ArrayList<>();
+    for (String item = queue.poll(); item != null; item = queue.poll()) {
+      items.add(item);
+    }
+    return items;
+  }
+}
@@ -0,0 +1,149 @@
+package dev.sagar.artifactory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ImageBatcherTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldMergeConcurrentRequestsIntoOneProviderCall() throws Exception {
+    ImageBatcher batcher =
+        new ImageBatcher(new BatchingProperties(true, Duration.ofSeconds(5), 3), meterRegistry);
+    AtomicInteger calls = new AtomicInteger();
+    AtomicInteger requestedImages = new AtomicInteger();
+    IntFunction<List<String>> providerCall =
+        n -> {
+          calls.incrementAndGet();
+          requestedImages.set(n);
+          return IntStream.range(0, n).mapToObj(i -> "https://example.com/" + i).toList();
+        };
+    CountDownLatch release = holdPendingRequest(batcher);
+
+    Future<List<String>> first =
+        executor.submit(() -> batcher.submit(request("user1", 1), providerCall));
+    Future<List<String>> second =
+        executor.submit(() -> batcher.submit(request("user1", 2), providerCall));
+
+    List<String> firstImages = first.get(5, TimeUnit.SECONDS);
+    List<String> secondImages = second.get(5, TimeUnit.SECONDS);
+    release.countDown();
+    assertEquals(1, calls.get());
+    assertEquals(3, requestedImages.get());
+    assertEquals(1, firstImages.size());
+    assertEquals(2, secondImages.size());
+    assertTrue(secondImages.stream().noneMatch(firstImages::contains));
+    assertEquals(1.0, meterRegistry.get("image.generation.batched").counter().count());
+  }
+
+  @Test
+  void shouldNotMergeRequestsFromDifferentUsers() throws Exception {
+    ImageBatcher batcher =
+        new ImageBatcher(new BatchingProperties(true, Duration.ofMillis(200), 3), meterRegistry);
+    AtomicInteger calls = new AtomicInteger();
+    IntFunction<List<String>> providerCall =
+        n -> {
+          calls.incrementAndGet();
+          return IntStream.range(0, n).mapToObj(i -> "https://example.com/" + i).toList();
+        };
+    CountDownLatch release = holdPendingRequest(batcher);
+
+    Future<List<String>> first =
+        executor.submit(() -> batcher.submit(request("user1", 1), providerCall));
+    Future<List<String>> second =
+        executor.submit(() -> batcher.submit(request("user2", 1), providerCall));
+
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+    release.countDown();
+    assertEquals(2, calls.get());
+  }
+
+  @Test
+  void shouldCallProviderAloneWithoutWaitingWhenNothingElseIsPending() {
+    ImageBatcher batcher =
+        new ImageBatcher(new BatchingProperties(true, Duration.ofSeconds(5), 10), meterRegistry);
+
+    long started = System.nanoTime();
+    List<String> images = batcher.submit(request("user1", 2), n -> List.of("a", "b"));
+
+    assertEquals(List.of("a", "b"), images);
+    assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(1)) < 0);
+  }
+
+  @Test
+  void shouldPropagateProviderFailure() {
+    ImageBatcher batcher =
+        new ImageBatcher(new BatchingProperties(true, Duration.ofMillis(1), 10), meterRegistry);
+
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            batcher.submit(
+                request("user1", 1),
+                n -> {
+                  throw new IllegalStateException("API Error");
+                }));
+  }
+
+  @Test
+  void shouldOnlyBatchDallE2() {
+    ImageBatcher batcher =
+        new ImageBatcher(new BatchingProperties(true, Duration.ofMillis(1), 10), meterRegistry);
+
+    assertTrue(batcher.isEligible(request("user1", 1)));
+    assertFalse(
+        batcher.isEligible(
+            new ImageRequestDTO(
+                "user1", "A red car", "dall-e-3", 1024, 1024, "standard", "vivid", 1)));
+  }
+
+  /** Keeps an unrelated request in its provider call, so new batch leaders wait out the window. */
+  private CountDownLatch holdPendingRequest(ImageBatcher batcher) throws InterruptedException {
+    CountDownLatch inCall = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ImageRequestDTO other =
+        new ImageRequestDTO("user3", "A blue boat", "dall-e-2", 512, 512, "standard", "vivid", 1);
+    executor.submit(
+        () ->
+            batcher.submit(
+                other,
+                n -> {
+                  inCall.countDown();
+                  try {
+                    release.await(5, TimeUnit.SECONDS);
+                  } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                  }
+                  return List.of("https://example.com/other");
+                }));
+    assertTrue(inCall.await(5, TimeUnit.SECONDS));
+    return release;
+  }
+
+  private static ImageRequestDTO request(String userId, int numImages) {
+    return new ImageRequestDTO(
+        userId, "A red car", "dall-e-2", 512, 512, "standard", "vivid", numImages);
+  }
+}
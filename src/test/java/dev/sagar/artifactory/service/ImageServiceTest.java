@@ -4,19 +4,53 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import dev.sagar.artifactory.cache.ImageCache;
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.cache.SimilarPromptIndex;
+import dev.sagar.artifactory.cluster.ClusterTier;
+import dev.sagar.artifactory.cluster.LocalClusterTier;
+import dev.sagar.artifactory.cluster.PeerResponse;
+import dev.sagar.artifactory.degradation.DegradationPolicy;
+import dev.sagar.artifactory.degradation.DegradationProperties;
+import dev.sagar.artifactory.dto.EffectiveParametersDTO;
 import dev.sagar.artifactory.dto.ImageRequestDTO;
 import dev.sagar.artifactory.dto.ImageResponseDTO;
 import dev.sagar.artifactory.exception.InvalidParameterException;
+import dev.sagar.artifactory.exception.QuotaExceededException;
+import dev.sagar.artifactory.history.GenerationHistory;
+import dev.sagar.artifactory.limiter.LimiterProperties;
+import dev.sagar.artifactory.limiter.ModelConcurrencyLimiter;
+import dev.sagar.artifactory.observability.ObservabilityProperties;
+import dev.sagar.artifactory.observability.PipelineMetrics;
+import dev.sagar.artifactory.quota.QuotaEnforcer;
+import dev.sagar.artifactory.scheduling.GenerationScheduler;
+import dev.sagar.artifactory.scheduling.PriorityClass;
+import dev.sagar.artifactory.scheduling.SchedulingProperties;
+import dev.sagar.artifactory.storage.ImageStore;
+import dev.sagar.artifactory.storage.StorageProperties;
 import dev.sagar.artifactory.validator.ImageRequestValidator;
+import dev.sagar.artifactory.warmup.PopularityTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.ai.image.*;
 import org.springframework.ai.openai.OpenAiImageOptions;
 import org.springframework.ai.openai.api.OpenAiImageApi;
+import org.springframework.web.client.RestClient;
 
 @ExtendWith(MockitoExtension.class)
 class ImageServiceTest {
@@ -35,6 +69,71 @@ class ImageServiceTest {
   @Mock private ImageGeneration imageGeneration;
   @Mock private Image image;
   @Mock private ImageRequestValidator validator;
+  @Mock private ImageCache imageCache;
+  @Mock private SimilarPromptIndex similarPrompts;
+  @Mock private QuotaEnforcer quotaEnforcer;
+  @Mock private GenerationHistory generationHistory;
+  @Mock private PopularityTracker popularity;
+
+  @Spy
+  private InFlightRequests inFlightRequests =
+      new InFlightRequests(new CoalescingProperties(true, 100), new SimpleMeterRegistry());
+
+  @Spy
+  private ModelConcurrencyLimiter concurrencyLimiter =
+      new ModelConcurrencyLimiter(
+          new LimiterProperties(
+              true,
+              20,
+              1,
+              200,
+              0.9,
+              Duration.ofSeconds(60),
+              100,
+              Duration.ofSeconds(5),
+              Duration.ofSeconds(30)),
+          new SimpleMeterRegistry());
+
+  @Spy
+  private ImageBatcher imageBatcher =
+      new ImageBatcher(
+          new BatchingProperties(true, Duration.ofMillis(25), 10), new SimpleMeterRegistry());
+
+  @Spy
+  private ImageStore imageStore =
+      new ImageStore(
+          new StorageProperties(false, Path.of("data/images"), "url", ""), RestClient.builder());
+
+  @Spy
+  private PipelineMetrics pipelineMetrics =
+      new PipelineMetrics(
+          new ObservabilityProperties(Duration.ofSeconds(5), 1.0),
+          new SimpleMeterRegistry(),
+          ObservationRegistry.NOOP);
+
+  @Spy private ClusterTier clusterTier = new LocalClusterTier();
+
+  @Spy
+  private DegradationPolicy degradationPolicy =
+      new DegradationPolicy(
+          new DegradationProperties(false, 10, Duration.ofSeconds(30), "dall-e-2", 512),
+          concurrencyLimiter,
+          new ImageRequestValidator(),
+          new SimpleMeterRegistry());
+
+  @Spy
+  private GenerationScheduler scheduler =
+      new GenerationScheduler(
+          new SchedulingProperties(
+              false,
+              32,
+              PriorityClass.STANDARD,
+              new SchedulingProperties.ClassLimits(1000, Duration.ofSeconds(60)),
+              Map.of(),
+              Map.of(),
+              Map.of()),
+          new SimpleMeterRegistry());
+
   @InjectMocks private ImageService imageService;
 
   @Test
@@ -100,6 +199,234 @@ class ImageServiceTest {
     assertThrows(RuntimeException.class, () -> imageService.generateImages(request));
   }
 
+  @Test
+  void generateImages_shouldReturnCachedResponseWithoutCallingModel() {
+    ImageRequestDTO request = createValidRequest();
+    ImageResponseDTO cached = new ImageResponseDTO(List.of(testImageUrl));
+    when(imageCache.get(RequestKey.from(request))).thenReturn(Optional.of(cached));
+
+    ImageResponseDTO response = imageService.generateImages(request);
+
+    assertSame(cached, response);
+    verify(imageModel, never()).call(any());
+    verify(scheduler, never()).execute(any(), any(), any());
+  }
+
+  @Test
+  void generateImages_shouldScheduleProviderCallInRequestedClass() {
+    ImageRequestDTO request = createValidRequest();
+    mockSuccessfulImageGeneration();
+
+    imageService.generateImages(
+        request, new GenerationOptions(false, false, PriorityClass.INTERACTIVE));
+
+    verify(scheduler).execute(eq(PriorityClass.INTERACTIVE), eq(request.userId()), any());
+  }
+
+  @Test
+  void generateImages_shouldReturnResponseCachedForSimilarPrompt() {
+    ImageRequestDTO request = createValidRequest();
+    RequestKey similarKey = new RequestKey("similar");
+    ImageResponseDTO cached = new ImageResponseDTO(List.of(testImageUrl));
+    when(imageCache.get(RequestKey.from(request))).thenReturn(Optional.empty());
+    when(similarPrompts.find(request)).thenReturn(Optional.of(similarKey));
+    when(imageCache.get(similarKey)).thenReturn(Optional.of(cached));
+
+    ImageResponseDTO response = imageService.generateImages(request);
+
+    assertSame(cached, response);
+    verify(imageModel, never()).call(any());
+  }
+
+  @Test
+  void generateImages_shouldCacheGeneratedResponse() {
+    ImageRequestDTO request = createValidRequest();
+    mockSuccessfulImageGeneration();
+
+    ImageResponseDTO response = imageService.generateImages(request);
+
+    verify(imageCache).put(RequestKey.from(request), response);
+    verify(similarPrompts).add(request, RequestKey.from(request));
+    verify(generationHistory).record(eq(request), eq(response), eq(false), anyLong());
+  }
+
+  @Test
+  void generateImages_shouldSkipCacheLookupWhenBypassRequested() {
+    ImageRequestDTO request = createValidRequest();
+    mockSuccessfulImageGeneration();
+
+    imageService.generateImages(request, new GenerationOptions(true, false, null));
+
+    verify(imageCache, never()).get(any());
+    verify(imageModel).call(any(ImagePrompt.class));
+  }
+
+  @Test
+  void generateImagesConcurrently_shouldIssueOneSingleImageCallPerImage() {
+    ImageRequestDTO request =
+        new ImageRequestDTO(
+            testUserId,
+            "A beautiful sunset over mountains",
+            OpenAiImageApi.ImageModel.DALL_E_2.getValue(),
+            512,
+            512,
+            testQuality,
+            testStyle,
+            3);
+    mockSuccessfulImageGeneration();
+
+    GenerationOptions options = new GenerationOptions(false, false, PriorityClass.INTERACTIVE);
+
+    List<CompletableFuture<String>> images =
+        imageService.generateImagesConcurrently(request, options, Runnable::run).images();
+
+    assertEquals(3, images.size());
+    assertEquals(testImageUrl, images.getFirst().join());
+    verify(imageModel, times(3))
+        .call(argThat((ImagePrompt prompt) -> prompt.getOptions().getN() == 1));
+    verify(imageCache)
+        .put(
+            RequestKey.from(request),
+            new ImageResponseDTO(List.of(testImageUrl, testImageUrl, testImageUrl)));
+    verify(scheduler, times(3))
+        .execute(eq(PriorityClass.INTERACTIVE), eq(request.userId()), any());
+  }
+
+  @Test
+  void generateImagesConcurrently_shouldStreamDegradedRequestAndReportEffectiveParameters() {
+    ImageRequestDTO request = createValidRequest();
+    ImageRequestDTO degraded =
+        new ImageRequestDTO(
+            testUserId, request.prompt(), "dall-e-2", 512, 512, "standard", testStyle, 1);
+    doReturn(degraded).when(degradationPolicy).apply(request, true);
+    mockSuccessfulImageGeneration();
+
+    StreamedImages streamed =
+        imageService.generateImagesConcurrently(
+            request, new GenerationOptions(false, true, null), Runnable::run);
+
+    assertEquals(testImageUrl, streamed.images().getFirst().join());
+    assertEquals(
+        new EffectiveParametersDTO("dall-e-2", 512, 512, "standard"), streamed.effective());
+    verify(quotaEnforcer).enforce(degraded);
+    verify(imageCache).put(RequestKey.from(degraded), new ImageResponseDTO(List.of(testImageUrl)));
+  }
+
+  @Test
+  void generateImagesConcurrently_shouldSkipQueuedImagesWhenExecutorRejects() {
+    ImageRequestDTO request =
+        new ImageRequestDTO(
+            testUserId,
+            "A beautiful sunset over mountains",
+            OpenAiImageApi.ImageModel.DALL_E_2.getValue(),
+            512,
+            512,
+            testQuality,
+            testStyle,
+            2);
+    List<Runnable> queued = new ArrayList<>();
+    Executor full =
+        task -> {
+          if (!queued.isEmpty()) {
+            throw new RejectedExecutionException("queue full");
+          }
+          queued.add(task);
+        };
+
+    assertThrows(
+        RejectedExecutionException.class,
+        () -> imageService.generateImagesConcurrently(request, GenerationOptions.DEFAULT, full));
+    queued.forEach(Runnable::run);
+
+    verify(imageModel, never()).call(any());
+  }
+
+  @Test
+  void generateImages_shouldNotCallModelWhenQuotaExceeded() {
+    ImageRequestDTO request = createValidRequest();
+    doThrow(new QuotaExceededException("Quota exceeded", Duration.ofSeconds(1)))
+        .when(quotaEnforcer)
+        .enforce(request);
+
+    assertThrows(QuotaExceededException.class, () -> imageService.generateImages(request));
+
+    verify(imageModel, never()).call(any());
+  }
+
+  @Test
+  void prefetch_shouldCacheWithoutChargingQuotaOrRecordingHistory() {
+    ImageRequestDTO request = createValidRequest();
+    mockSuccessfulImageGeneration();
+
+    assertTrue(imageService.prefetch(request, Duration.ofHours(12)));
+
+    verify(imageCache)
+        .put(
+            RequestKey.from(request),
+            new ImageResponseDTO(List.of(testImageUrl)),
+            Duration.ofHours(12));
+    verifyNoInteractions(quotaEnforcer, generationHistory, popularity);
+  }
+
+  @Test
+  void prefetch_shouldSkipProviderWhenAlreadyCached() {
+    ImageRequestDTO request = createValidRequest();
+    when(imageCache.get(RequestKey.from(request)))
+        .thenReturn(Optional.of(new ImageResponseDTO(List.of(testImageUrl))));
+
+    assertFalse(imageService.prefetch(request, Duration.ofHours(12)));
+
+    verify(imageModel, never()).call(any());
+  }
+
+  @Test
+  void generateImages_shouldServeDegradedRequestAndReportEffectiveParameters() {
+    ImageRequestDTO request = createValidRequest();
+    ImageRequestDTO degraded =
+        new ImageRequestDTO(
+            testUserId, request.prompt(), "dall-e-2", 512, 512, "standard", testStyle, 1);
+    doReturn(degraded).when(degradationPolicy).apply(request, true);
+    mockSuccessfulImageGeneration();
+
+    ImageResponseDTO response =
+        imageService.generateImages(request, new GenerationOptions(false, true, null));
+
+    assertEquals(
+        new EffectiveParametersDTO("dall-e-2", 512, 512, "standard"), response.effective());
+    verify(imageModel)
+        .call(
+            argThat(
+                (ImagePrompt prompt) ->
+                    ((OpenAiImageOptions) prompt.getOptions()).getModel().equals("dall-e-2")));
+    verify(imageCache).put(RequestKey.from(degraded), new ImageResponseDTO(List.of(testImageUrl)));
+    verify(quotaEnforcer).enforce(degraded);
+  }
+
+  @Test
+  void generateForPeer_shouldReportCacheHitWithoutChargingQuota() {
+    ImageRequestDTO request = createValidRequest();
+    ImageResponseDTO cached = new ImageResponseDTO(List.of(testImageUrl));
+    when(imageCache.get(RequestKey.from(request))).thenReturn(Optional.of(cached));
+
+    PeerResponse response = imageService.generateForPeer(request);
+
+    assertTrue(response.cached());
+    assertSame(cached, response.response());
+    verifyNoInteractions(quotaEnforcer, generationHistory, popularity, clusterTier);
+  }
+
+  @Test
+  void generateForPeer_shouldGenerateAndCacheOnMiss() {
+    ImageRequestDTO request = createValidRequest();
+    mockSuccessfulImageGeneration();
+
+    PeerResponse response = imageService.generateForPeer(request);
+
+    assertFalse(response.cached());
+    verify(imageCache).put(RequestKey.from(request), response.response());
+    verifyNoInteractions(quotaEnforcer, generationHistory, clusterTier);
+  }
+
   private ImageRequestDTO createValidRequest() {
     String testPrompt = "A beautiful sunset over mountains";
     return new ImageRequestDTO(
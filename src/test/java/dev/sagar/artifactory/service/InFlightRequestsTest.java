@@ -0,0 +1,132 @@
+package dev.sagar.artifactory.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.dto.ImageResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class InFlightRequestsTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+  private final RequestKey key = new RequestKey("abc");
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldShareOneCallBetweenConcurrentIdenticalRequests() throws Exception {
+    InFlightRequests inFlightRequests =
+        new InFlightRequests(new CoalescingProperties(true, 100), meterRegistry);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    Supplier<ImageResponseDTO> call = blockingCall(calls, started, release);
+
+    Future<ImageResponseDTO> leader = executor.submit(() -> inFlightRequests.execute(key, call));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    List<Future<ImageResponseDTO>> followers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      followers.add(executor.submit(() -> inFlightRequests.execute(key, call)));
+    }
+    awaitCoalesced(4);
+    release.countDown();
+
+    ImageResponseDTO expected = leader.get(5, TimeUnit.SECONDS);
+    for (Future<ImageResponseDTO> follower : followers) {
+      assertSame(expected, follower.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, calls.get());
+  }
+
+  @Test
+  void shouldRunOwnCallWhenWaiterCapReached() throws Exception {
+    InFlightRequests inFlightRequests =
+        new InFlightRequests(new CoalescingProperties(true, 0), meterRegistry);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger calls = new AtomicInteger();
+    Supplier<ImageResponseDTO> call = blockingCall(calls, started, release);
+
+    Future<ImageResponseDTO> leader = executor.submit(() -> inFlightRequests.execute(key, call));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    inFlightRequests.execute(
+        key,
+        () -> {
+          calls.incrementAndGet();
+          return new ImageResponseDTO(List.of("https://example.com/other.png"));
+        });
+    release.countDown();
+    leader.get(5, TimeUnit.SECONDS);
+
+    assertEquals(2, calls.get());
+    assertEquals(0.0, meterRegistry.get("image.generation.coalesced").counter().count());
+    assertEquals(1.0, meterRegistry.get("image.generation.coalesced.overflow").counter().count());
+  }
+
+  @Test
+  void shouldPropagateLeaderFailureToFollowers() throws Exception {
+    InFlightRequests inFlightRequests =
+        new InFlightRequests(new CoalescingProperties(true, 100), meterRegistry);
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    Supplier<ImageResponseDTO> call =
+        () -> {
+          started.countDown();
+          awaitQuietly(release);
+          throw new IllegalStateException("API Error");
+        };
+
+    Future<ImageResponseDTO> leader = executor.submit(() -> inFlightRequests.execute(key, call));
+    assertTrue(started.await(5, TimeUnit.SECONDS));
+    Future<ImageResponseDTO> follower = executor.submit(() -> inFlightRequests.execute(key, call));
+    awaitCoalesced(1);
+    release.countDown();
+
+    Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+    Exception followerFailure =
+        assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+    assertInstanceOf(IllegalStateException.class, followerFailure.getCause());
+  }
+
+  private void awaitCoalesced(int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (meterRegistry.get("image.generation.coalesced").counter().count() < expected) {
+      assertTrue(System.nanoTime() < deadline, "followers did not attach in time");
+      Thread.sleep(5);
+    }
+  }
+
+  private static Supplier<ImageResponseDTO> blockingCall(
+      AtomicInteger calls, CountDownLatch started, CountDownLatch release) {
+    return () -> {
+      calls.incrementAndGet();
+      started.countDown();
+      awaitQuietly(release);
+      return new ImageResponseDTO(List.of("https://example.com/image.png"));
+    };
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
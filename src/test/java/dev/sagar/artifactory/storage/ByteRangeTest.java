@@ -0,0 +1,43 @@
+package dev.sagar.artifactory.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ByteRangeTest {
+
+  @Test
+  void shouldParseClosedRange() {
+    assertEquals(new ByteRange(0, 99), ByteRange.parse("bytes=0-99", 1000).orElseThrow());
+  }
+
+  @Test
+  void shouldParseOpenEndedRange() {
+    assertEquals(new ByteRange(500, 999), ByteRange.parse("bytes=500-", 1000).orElseThrow());
+  }
+
+  @Test
+  void shouldParseSuffixRange() {
+    assertEquals(new ByteRange(900, 999), ByteRange.parse("bytes=-100", 1000).orElseThrow());
+  }
+
+  @Test
+  void shouldClampEndToContentLength() {
+    assertEquals(new ByteRange(10, 999), ByteRange.parse("bytes=10-5000", 1000).orElseThrow());
+  }
+
+  @Test
+  void shouldIgnoreMultipleRangesAndOtherUnits() {
+    assertTrue(ByteRange.parse("bytes=0-1,5-6", 1000).isEmpty());
+    assertTrue(ByteRange.parse("items=0-1", 1000).isEmpty());
+    assertTrue(ByteRange.parse(null, 1000).isEmpty());
+  }
+
+  @Test
+  void shouldRejectUnsatisfiableRange() {
+    assertThrows(
+        ByteRange.UnsatisfiableRangeException.class, () -> ByteRange.parse("bytes=1000-", 1000));
+    assertThrows(
+        ByteRange.UnsatisfiableRangeException.class, () -> ByteRange.parse("bytes=50-10", 1000));
+  }
+}
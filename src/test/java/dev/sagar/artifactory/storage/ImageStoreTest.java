@@ -0,0 +1,72 @@
+package dev.sagar.artifactory.storage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.HexFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.ai.image.Image;
+import org.springframework.web.client.RestClient;
+
+class ImageStoreTest {
+
+  private final byte[] content = "\u0089PNG fake image".getBytes(StandardCharsets.ISO_8859_1);
+
+  @TempDir Path directory;
+
+  @Test
+  void shouldStoreBase64ImageUnderItsContentHash() throws Exception {
+    ImageStore store = createStore(true);
+
+    String url = store.materialize(new Image(null, Base64.getEncoder().encodeToString(content)));
+
+    String hash = sha256(content);
+    assertEquals(ImageStore.PATH_PREFIX + hash, url);
+    Path stored = store.find(hash).orElseThrow();
+    assertArrayEquals(content, Files.readAllBytes(stored));
+  }
+
+  @Test
+  void shouldStoreIdenticalContentOnce() throws Exception {
+    ImageStore store = createStore(true);
+    String base64 = Base64.getEncoder().encodeToString(content);
+
+    String first = store.storeBase64(base64);
+    String second = store.storeBase64(base64);
+
+    assertEquals(first, second);
+    try (var files = Files.walk(directory)) {
+      assertEquals(1, files.filter(Files::isRegularFile).count());
+    }
+  }
+
+  @Test
+  void shouldPassProviderUrlThroughWhenDisabled() {
+    ImageStore store = createStore(false);
+
+    assertEquals(
+        "https://example.com/image.png",
+        store.materialize(new Image("https://example.com/image.png", null)));
+  }
+
+  @Test
+  void shouldNotResolveMalformedHashes() {
+    ImageStore store = createStore(true);
+
+    assertTrue(store.find("../../etc/passwd").isEmpty());
+  }
+
+  private ImageStore createStore(boolean enabled) {
+    return new ImageStore(
+        new StorageProperties(enabled, directory, "url", ""), RestClient.builder());
+  }
+
+  private static String sha256(byte[] bytes) throws Exception {
+    return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+  }
+}
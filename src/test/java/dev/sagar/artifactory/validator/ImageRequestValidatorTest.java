@@ -286,4 +286,46 @@ class ImageRequestValidatorTest {
     assertDoesNotThrow(() -> validator.validateRequest(request1));
     assertDoesNotThrow(() -> validator.validateRequest(request2));
   }
+
+  @Test
+  void shouldEnforceSingleImageForUppercaseDallE3() {
+    ImageRequestDTO request =
+        new ImageRequestDTO(
+            "user123", "Case test", "DALL-E-3", 1024, 1024, "standard", "natural", 2);
+    assertThrows(InvalidParameterException.class, () -> validator.validateRequest(request));
+  }
+
+  @Test
+  void shouldRejectTooManyImagesForDallE2() {
+    ImageRequestDTO request =
+        new ImageRequestDTO(
+            "user123",
+            "Too many images",
+            OpenAiImageApi.ImageModel.DALL_E_2.getValue(),
+            256,
+            256,
+            "standard",
+            "natural",
+            11);
+    assertThrows(InvalidParameterException.class, () -> validator.validateRequest(request));
+  }
+
+  @Test
+  void shouldListSupportedDimensionsInErrorMessage() {
+    ImageRequestDTO request =
+        new ImageRequestDTO(
+            "user123",
+            "A landscape",
+            OpenAiImageApi.ImageModel.DALL_E_2.getValue(),
+            128,
+            128,
+            "standard",
+            "natural",
+            1);
+    InvalidParameterException exception =
+        assertThrows(InvalidParameterException.class, () -> validator.validateRequest(request));
+    assertEquals(
+        "Invalid dimensions for DALL-E 2. Must be one of: [256x256, 512x512, 1024x1024]",
+        exception.getMessage());
+  }
 }
@@ -0,0 +1,83 @@
+package dev.sagar.artifactory.warmup;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class PopularityTrackerTest {
+
+  @Test
+  void shouldFindHeavyHittersAmongLongTail() {
+    PopularityTracker tracker = tracker(true, 5);
+    for (int round = 0; round < 50; round++) {
+      for (int hot = 0; hot < 5; hot++) {
+        record(tracker, "hot prompt " + hot, "user" + round);
+      }
+      for (int cold = 0; cold < 40; cold++) {
+        record(tracker, "cold prompt " + round + " " + cold, "user" + round);
+      }
+    }
+
+    List<ImageRequestDTO> top = tracker.top(5, 10);
+
+    assertEquals(5, top.size());
+    assertTrue(top.stream().allMatch(request -> request.prompt().startsWith("hot prompt")));
+    assertTrue(top.stream().allMatch(request -> request.userId().equals("artifactory-warmup")));
+  }
+
+  @Test
+  void decayShouldHalveCountsAndDropForgottenCandidates() {
+    PopularityTracker tracker = tracker(true, 5);
+    for (int i = 0; i < 8; i++) {
+      record(tracker, "popular", "user1");
+    }
+    record(tracker, "once", "user1");
+    RequestKey popular = RequestKey.from(request("popular", "user1"));
+
+    tracker.decay();
+
+    assertEquals(4, tracker.estimate(popular));
+    assertEquals(1, tracker.top(10, 0).size());
+  }
+
+  @Test
+  void shouldIgnoreTrafficWhenDisabled() {
+    PopularityTracker tracker = tracker(false, 5);
+
+    record(tracker, "popular", "user1");
+
+    assertTrue(tracker.top(10, 0).isEmpty());
+  }
+
+  static ImageRequestDTO request(String prompt, String userId) {
+    return new ImageRequestDTO(userId, prompt, "dall-e-3", 1024, 1024, "standard", "vivid", 1);
+  }
+
+  private static void record(PopularityTracker tracker, String prompt, String userId) {
+    ImageRequestDTO request = request(prompt, userId);
+    tracker.record(request, RequestKey.from(request));
+  }
+
+  private static PopularityTracker tracker(boolean enabled, int topK) {
+    return new PopularityTracker(properties(enabled, topK, 100), new SimpleMeterRegistry());
+  }
+
+  static WarmupProperties properties(boolean enabled, int topK, int maxImages) {
+    return new WarmupProperties(
+        enabled,
+        "0 0 5 * * *",
+        Duration.ofHours(1),
+        maxImages,
+        topK,
+        1,
+        1,
+        Duration.ofHours(12),
+        4096,
+        "artifactory-warmup");
+  }
+}
@@ -0,0 +1,75 @@
+package dev.sagar.artifactory.warmup;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import dev.sagar.artifactory.cache.ImageCacheProperties;
+import dev.sagar.artifactory.cache.RequestKey;
+import dev.sagar.artifactory.dto.ImageRequestDTO;
+import dev.sagar.artifactory.service.ImageService;
+import dev.sagar.artifactory.storage.ImageStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.env.StandardEnvironment;
+
+class WarmupSchedulerTest {
+
+  private final ImageService imageService = mock(ImageService.class);
+  private final ImageStore imageStore = mock(ImageStore.class);
+  private WarmupScheduler scheduler;
+
+  @AfterEach
+  void tearDown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  void runOnceShouldStopAtImageBudgetAndNotChargeCachedRequests() throws Exception {
+    WarmupProperties properties = PopularityTrackerTest.properties(true, 10, 3);
+    PopularityTracker tracker = new PopularityTracker(properties, new SimpleMeterRegistry());
+    for (int i = 0; i < 6; i++) {
+      for (int hits = 0; hits <= i; hits++) {
+        ImageRequestDTO request = PopularityTrackerTest.request("prompt " + i, "user1");
+        tracker.record(request, RequestKey.from(request));
+      }
+    }
+    when(imageService.prefetch(any(), any())).thenReturn(true);
+    when(imageService.prefetch(argThat(r -> r.prompt().equals("prompt 5")), any()))
+        .thenReturn(false);
+    scheduler = scheduler(properties, tracker);
+
+    assertEquals(3, scheduler.runOnce());
+
+    verify(imageService, times(4)).prefetch(any(), any());
+    verify(imageService, never()).prefetch(argThat(r -> r.prompt().equals("prompt 0")), any());
+  }
+
+  @Test
+  void stagedTtlShouldNotOutliveProviderUrlsWithoutStorage() throws Exception {
+    WarmupProperties properties = PopularityTrackerTest.properties(true, 10, 10);
+    PopularityTracker tracker = new PopularityTracker(properties, new SimpleMeterRegistry());
+    ImageRequestDTO request = PopularityTrackerTest.request("prompt", "user1");
+    tracker.record(request, RequestKey.from(request));
+    when(imageService.prefetch(any(), any())).thenReturn(true);
+    scheduler = scheduler(properties, tracker);
+
+    scheduler.runOnce();
+
+    verify(imageService).prefetch(any(), eq(Duration.ofMinutes(50)));
+  }
+
+  private WarmupScheduler scheduler(WarmupProperties properties, PopularityTracker tracker) {
+    return new WarmupScheduler(
+        properties,
+        tracker,
+        imageService,
+        imageStore,
+        new ImageCacheProperties(true, 100, Duration.ofMinutes(50)),
+        new StandardEnvironment(),
+        new SimpleMeterRegistry());
+  }
+}